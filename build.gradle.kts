@@ -14,6 +14,7 @@ plugins {
     id("maven-publish")
     id("com.github.johnrengelman.shadow").version("7.1.0")
     id("io.github.gradle-nexus.publish-plugin").version("1.1.0")
+    id("me.champeau.jmh").version("0.6.8")
 }
 
 group = "dev.ckateptb"
@@ -24,16 +25,27 @@ repositories {
 }
 
 dependencies {
-    implementation("org.jooq:joor:0.9.15")
-
     compileOnly("org.projectlombok:lombok:+")
     annotationProcessor("org.projectlombok:lombok:+")
+
+    jmhCompileOnly("org.projectlombok:lombok:+")
+    jmhAnnotationProcessor("org.projectlombok:lombok:+")
+
+    testImplementation(platform("org.junit:junit-bom:5.10.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+jmh {
+    jmhVersion.set("1.36")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+    includes.addAll(providers.gradleProperty("jmh.includes").map { listOf(it) }.orElse(listOf()))
 }
 
 tasks {
-    shadowJar {
-        relocate("org.joor", "dev.ckateptb.reflection.proxy")
-    }
     register<ProGuardTask>("shrink") {
         dependsOn(shadowJar)
         injars(shadowJar.get().outputs.files)
@@ -45,7 +57,7 @@ tasks {
 
         keep(
             mapOf("includedescriptorclasses" to true),
-            "public class !dev.ckateptb.reflection.proxy.** { *; }"
+            "public class dev.ckateptb.reflection.** { *; }"
         )
         keepattributes("RuntimeVisibleAnnotations,RuntimeVisibleParameterAnnotations,RuntimeVisibleTypeAnnotations")
 
@@ -58,6 +70,9 @@ tasks {
     publish {
         dependsOn("shrink")
     }
+    test {
+        useJUnitPlatform()
+    }
     withType<JavaCompile> {
         options.encoding = Charsets.UTF_8.name()
         options.release.set(16)
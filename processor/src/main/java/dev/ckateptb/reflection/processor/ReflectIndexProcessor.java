@@ -0,0 +1,165 @@
+package dev.ckateptb.reflection.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+
+// Writes META-INF/reflect/index with every runtime-retained annotation found on the compiled classes,
+// fields, methods and constructors. One tab-separated record per line:
+//   C <class> <annotation>
+//   F <class> <field> <annotation>
+//   M <class> <method> <comma-separated parameter types> <annotation>
+//   K <class> <comma-separated parameter types> <annotation>
+// Type names are Class.forName names, so the runtime resolves them without scanning the class.
+public class ReflectIndexProcessor extends AbstractProcessor {
+    static final String RESOURCE = "META-INF/reflect/index";
+    static final String HEADER = "# dev.ckateptb.reflection index 2";
+
+    private final Set<String> records = new TreeSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement type) {
+                this.index(type);
+            }
+        }
+        if (roundEnv.processingOver()) {
+            this.write();
+        }
+        return false;
+    }
+
+    private void index(TypeElement type) {
+        String owner = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+        for (String annotation : this.annotations(type)) {
+            this.records.add("C\t" + owner + "\t" + annotation);
+        }
+        for (Element member : type.getEnclosedElements()) {
+            ElementKind kind = member.getKind();
+            if (member instanceof TypeElement nested) {
+                this.index(nested);
+            } else if (kind == ElementKind.FIELD || kind == ElementKind.ENUM_CONSTANT) {
+                VariableElement field = (VariableElement) member;
+                for (String annotation : this.annotations(field)) {
+                    this.records.add("F\t" + owner + "\t" + field.getSimpleName() + "\t" + annotation);
+                }
+            } else if (kind == ElementKind.METHOD || kind == ElementKind.CONSTRUCTOR) {
+                ExecutableElement executable = (ExecutableElement) member;
+                Set<String> annotations = this.annotations(executable);
+                if (annotations.isEmpty()) {
+                    continue;
+                }
+                String parameters = this.parameters(type, executable);
+                for (String annotation : annotations) {
+                    this.records.add(kind == ElementKind.METHOD
+                            ? "M\t" + owner + "\t" + executable.getSimpleName() + "\t" + parameters + "\t" + annotation
+                            : "K\t" + owner + "\t" + parameters + "\t" + annotation);
+                }
+            }
+        }
+    }
+
+    // Constructors of inner classes take the enclosing instance first at runtime, so it is recorded too.
+    private String parameters(TypeElement type, ExecutableElement executable) {
+        StringJoiner parameters = new StringJoiner(",");
+        if (executable.getKind() == ElementKind.CONSTRUCTOR && type.getKind() == ElementKind.CLASS
+                && type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            parameters.add(this.typeName(type.getEnclosingElement().asType()));
+        }
+        for (VariableElement parameter : executable.getParameters()) {
+            parameters.add(this.typeName(parameter.asType()));
+        }
+        return parameters.toString();
+    }
+
+    // Only RUNTIME annotations are recorded; the others are invisible to reflection anyway.
+    private Set<String> annotations(Element element) {
+        Set<String> annotations = new TreeSet<>();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            Retention retention = annotation.getAnnotation(Retention.class);
+            if (retention != null && retention.value() == RetentionPolicy.RUNTIME) {
+                annotations.add(this.processingEnv.getElementUtils().getBinaryName(annotation).toString());
+            }
+        }
+        return annotations;
+    }
+
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = this.processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind().isPrimitive()) {
+            return erased.toString();
+        }
+        if (erased instanceof ArrayType array) {
+            return "[" + this.descriptor(array.getComponentType());
+        }
+        return this.processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) erased).asElement()).toString();
+    }
+
+    private String descriptor(TypeMirror type) {
+        TypeMirror erased = this.processingEnv.getTypeUtils().erasure(type);
+        return switch (erased.getKind()) {
+            case BOOLEAN -> "Z";
+            case BYTE -> "B";
+            case SHORT -> "S";
+            case CHAR -> "C";
+            case INT -> "I";
+            case LONG -> "J";
+            case FLOAT -> "F";
+            case DOUBLE -> "D";
+            case ARRAY -> "[" + this.descriptor(((ArrayType) erased).getComponentType());
+            default -> "L" + this.typeName(erased) + ";";
+        };
+    }
+
+    private void write() {
+        if (this.records.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject resource = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", RESOURCE);
+            try (Writer writer = resource.openWriter()) {
+                writer.write(HEADER);
+                writer.write('\n');
+                for (String record : this.records) {
+                    writer.write(record);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + RESOURCE + ": " + e.getMessage());
+        }
+    }
+}
@@ -4,4 +4,6 @@ pluginManagement {
     }
 }
 
-rootProject.name = "Reflect"
\ No newline at end of file
+rootProject.name = "Reflect"
+
+include("processor")
\ No newline at end of file
@@ -0,0 +1,5 @@
+package dev.ckateptb.reflection;
+
+public interface BenchmarkAdder {
+    int add(int delta);
+}
@@ -0,0 +1,27 @@
+package dev.ckateptb.reflection;
+
+public class BenchmarkTarget implements BenchmarkAdder {
+    // Package-private so FieldBenchmark can read it directly as the baseline.
+    int value;
+    private String name = "target";
+
+    public BenchmarkTarget() {
+    }
+
+    private BenchmarkTarget(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public int add(int delta) {
+        return this.value += delta;
+    }
+
+    private String name() {
+        return this.name;
+    }
+
+    public static int twice(int value) {
+        return value * 2;
+    }
+}
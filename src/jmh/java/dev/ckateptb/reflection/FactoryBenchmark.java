@@ -0,0 +1,74 @@
+package dev.ckateptb.reflection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FactoryBenchmark {
+    private ReflectConstructor<BenchmarkTarget> noArgs;
+    private ReflectConstructor<BenchmarkTarget> withValue;
+    private Supplier<BenchmarkTarget> supplier;
+    private Function<Integer, BenchmarkTarget> function;
+    private ObjectFactory<BenchmarkTarget> factory;
+    private Supplier<BenchmarkTarget> allocator;
+    private Integer value = 42;
+
+    @Setup
+    public void setup() {
+        ReflectClass<BenchmarkTarget> reflectClass = Reflect.classOf(BenchmarkTarget.class);
+        this.noArgs = reflectClass.getConstructorWithParams();
+        this.withValue = reflectClass.getConstructorWithParams(int.class);
+        this.supplier = this.noArgs.supplier();
+        this.function = this.withValue.function();
+        this.factory = this.withValue.factory();
+        this.allocator = reflectClass.getAllocator();
+    }
+
+    @Benchmark
+    public BenchmarkTarget direct() {
+        return new BenchmarkTarget();
+    }
+
+    @Benchmark
+    public BenchmarkTarget constructorReflect() {
+        return Reflect.on(BenchmarkTarget.class).constructor().newInstance().get();
+    }
+
+    @Benchmark
+    public BenchmarkTarget instantiate() {
+        return this.noArgs.instantiate();
+    }
+
+    @Benchmark
+    public BenchmarkTarget supplier() {
+        return this.supplier.get();
+    }
+
+    @Benchmark
+    public BenchmarkTarget function() {
+        return this.function.apply(this.value);
+    }
+
+    @Benchmark
+    public BenchmarkTarget factory() {
+        return this.factory.newInstance(this.value);
+    }
+
+    @Benchmark
+    public BenchmarkTarget allocate() {
+        return this.allocator.get();
+    }
+
+    // Startup cost of a factory: a fresh ReflectClass has no cached invoker or lambda to reuse.
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Supplier<BenchmarkTarget> coldSupplier() {
+        return new ReflectClass<>(BenchmarkTarget.class).getConstructorWithParams().supplier();
+    }
+}
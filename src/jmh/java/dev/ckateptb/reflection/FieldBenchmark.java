@@ -0,0 +1,92 @@
+package dev.ckateptb.reflection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FieldBenchmark {
+    @Param({"REFLECTION", "METHOD_HANDLE", "GENERATED", "ADAPTIVE"})
+    private ReflectBackend backend;
+    private BenchmarkTarget target;
+    private Field field;
+    private VarHandle handle;
+    private ReflectField reflectField;
+    private FieldAccessor accessor;
+    private int counter;
+
+    @Setup
+    public void setup() throws Exception {
+        Reflect.backend(this.backend);
+        this.target = new BenchmarkTarget();
+        this.field = BenchmarkTarget.class.getDeclaredField("value");
+        this.field.setAccessible(true);
+        this.handle = ReflectLookup.unreflect(this.field);
+        this.reflectField = Reflect.classOf(BenchmarkTarget.class).getFieldByName("value");
+        this.accessor = this.reflectField.accessor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Reflect.backend(ReflectBackend.REFLECTION);
+    }
+
+    @Benchmark
+    public int direct() {
+        return this.target.value;
+    }
+
+    @Benchmark
+    public void directSet() {
+        this.target.value = this.counter++;
+    }
+
+    @Benchmark
+    public int fieldGetInt() throws Exception {
+        return this.field.getInt(this.target);
+    }
+
+    @Benchmark
+    public void fieldSet() throws Exception {
+        this.field.set(this.target, this.counter++);
+    }
+
+    @Benchmark
+    public int varHandleGet() {
+        return (int) this.handle.get(this.target);
+    }
+
+    @Benchmark
+    public int accessorGetInt() {
+        return this.accessor.getInt(this.target);
+    }
+
+    @Benchmark
+    public void accessorSetInt() {
+        this.accessor.setInt(this.target, this.counter++);
+    }
+
+    @Benchmark
+    public Object reflectFieldGet() {
+        return this.reflectField.getValue(this.target);
+    }
+
+    @Benchmark
+    public void reflectFieldSet() {
+        this.reflectField.setValue(this.target, this.counter++);
+    }
+
+    @Benchmark
+    public Integer fieldReflectGet() {
+        return Reflect.on(this.target).<Integer>field("value").get();
+    }
+
+    @Benchmark
+    public Reflect<Integer> fieldReflectSet() {
+        return Reflect.on(this.target).<Integer>field("value").set(this.counter++);
+    }
+}
@@ -0,0 +1,87 @@
+package dev.ckateptb.reflection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InvokeBenchmark {
+    @Param({"REFLECTION", "METHOD_HANDLE", "GENERATED", "ADAPTIVE"})
+    private ReflectBackend backend;
+    private BenchmarkTarget target;
+    private Method method;
+    private MethodHandle handle;
+    private ReflectMethod reflectMethod;
+    private MethodInvoker<Integer> invoker;
+    private Reflect.MethodReflect<Integer> methodReflect;
+
+    @Setup
+    public void setup() throws Throwable {
+        Reflect.backend(this.backend);
+        this.target = new BenchmarkTarget();
+        this.method = BenchmarkTarget.class.getDeclaredMethod("add", int.class);
+        this.handle = ReflectLookup.unreflect(this.method);
+        this.reflectMethod = Reflect.classOf(BenchmarkTarget.class).getMethodByNameAndParams("add", int.class);
+        this.invoker = this.reflectMethod.invoker();
+        this.methodReflect = Reflect.on(this.target).method("add", int.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Reflect.backend(ReflectBackend.REFLECTION);
+    }
+
+    @Benchmark
+    public int direct() {
+        return this.target.add(1);
+    }
+
+    @Benchmark
+    public Object methodInvoke() throws Exception {
+        return this.method.invoke(this.target, 1);
+    }
+
+    @Benchmark
+    public int methodHandle() throws Throwable {
+        return (int) this.handle.invokeExact(this.target, 1);
+    }
+
+    @Benchmark
+    public Object reflectMethodCall() {
+        return this.reflectMethod.call(this.target, 1);
+    }
+
+    @Benchmark
+    public Integer invoker() {
+        return this.invoker.invoke(this.target, 1);
+    }
+
+    @Benchmark
+    public Reflect<Integer> methodReflectCall() {
+        return this.methodReflect.call(1);
+    }
+
+    @Benchmark
+    public Reflect<Integer> warmLookupAndCall() {
+        return Reflect.on(this.target).<Integer>method("add", int.class).call(1);
+    }
+
+    @Benchmark
+    public Object coldLookupAndCall() {
+        return new ReflectClass<>(BenchmarkTarget.class).getMethodByNameAndParams("add", int.class).call(this.target, 1);
+    }
+
+    @Benchmark
+    public Object staticCall() {
+        return Reflect.on(BenchmarkTarget.class).method("twice", int.class).call(21).get();
+    }
+
+    @Benchmark
+    public BenchmarkTarget constructorCall() {
+        return Reflect.on(BenchmarkTarget.class).constructor(int.class).newInstance(1).get();
+    }
+}
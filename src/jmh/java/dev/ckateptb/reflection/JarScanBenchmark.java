@@ -0,0 +1,95 @@
+package dev.ckateptb.reflection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class JarScanBenchmark {
+    @Param({"1000", "10000"})
+    private int classes;
+    private File jar;
+    private File indexDirectory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.jar = File.createTempFile("reflect-bench-", ".jar");
+        this.indexDirectory = Files.createTempDirectory("reflect-bench-index").toFile();
+        writeJar(this.jar, this.classes);
+        Reflect.jarOf(this.jar).useIndex(this.indexDirectory).getClassFilesCache();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        File[] indexes = this.indexDirectory.listFiles();
+        if (indexes != null) {
+            for (File index : indexes) {
+                index.delete();
+            }
+        }
+        this.indexDirectory.delete();
+        this.jar.delete();
+    }
+
+    // Each class extends the previous one and every tenth class starts a new chain from Object, so
+    // subtype queries have a hierarchy to walk.
+    private static void writeJar(File file, int classes) throws IOException {
+        try (JarOutputStream output = new JarOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < classes; i++) {
+                String name = "bench/synthetic/Type" + i;
+                String superName = i % 10 == 0 ? "java/lang/Object" : "bench/synthetic/Type" + (i - 1);
+                ClassFileWriter writer = new ClassFileWriter(ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_SUPER, name, superName);
+                writer.field(ClassFileWriter.ACC_PUBLIC, "value", "I");
+                writer.method(ClassFileWriter.ACC_PUBLIC, "<init>", "()V")
+                        .op(ClassFileWriter.Code.ALOAD).op(0)
+                        .op(ClassFileWriter.Code.INVOKESPECIAL, writer.methodRef(superName, "<init>", "()V"))
+                        .op(ClassFileWriter.Code.RETURN)
+                        .end(1, 1);
+                output.putNextEntry(new ZipEntry(name + ".class"));
+                output.write(writer.toByteArray());
+                output.closeEntry();
+            }
+        }
+    }
+
+    @Benchmark
+    public long classNames() throws IOException {
+        return Reflect.jarOf(this.jar).classNames().count();
+    }
+
+    @Benchmark
+    public Map<String, ReflectClassFile> scanClassFiles() throws IOException {
+        return Reflect.jarOf(this.jar).getClassFilesCache();
+    }
+
+    @Benchmark
+    public Map<String, ReflectClassFile> indexedClassFiles() throws IOException {
+        return Reflect.jarOf(this.jar).useIndex(this.indexDirectory).getClassFilesCache();
+    }
+
+    @Benchmark
+    public Set<String> indexedSubtypes() throws IOException {
+        return Reflect.jarOf(this.jar).useIndex(this.indexDirectory).getSubtypeNames("bench.synthetic.Type0");
+    }
+
+    @Benchmark
+    public Set<Reflect<?>> loadClasses() throws IOException {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{this.jar.toURI().toURL()}, null)) {
+            return Reflect.jarOf(this.jar).getClasses(loader, name -> true);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.ckateptb.reflection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LookupBenchmark {
+    private BenchmarkTarget target;
+
+    @Setup
+    public void setup() {
+        this.target = new BenchmarkTarget();
+        Reflect.classOf(BenchmarkTarget.class).accessor();
+    }
+
+    @Benchmark
+    public ReflectClass<BenchmarkTarget> classOfHit() {
+        return Reflect.classOf(BenchmarkTarget.class);
+    }
+
+    @Benchmark
+    public ReflectMethod coldClassAndMethod() {
+        return new ReflectClass<>(BenchmarkTarget.class).getMethodByNameAndParams("add", int.class);
+    }
+
+    @Benchmark
+    public ReflectField coldClassAndField() {
+        return new ReflectClass<>(BenchmarkTarget.class).getFieldByName("value");
+    }
+
+    @Benchmark
+    public Object coldGeneratedAccessor() {
+        return new ReflectClass<>(BenchmarkTarget.class).accessor();
+    }
+
+    @Benchmark
+    public ReflectMethod warmMethodBySignature() {
+        return Reflect.classOf(BenchmarkTarget.class).getMethodByNameAndParams("add", int.class);
+    }
+
+    @Benchmark
+    public Reflect.MethodReflect<?> methodByName() {
+        return Reflect.on(this.target).method("name");
+    }
+
+    @Benchmark
+    public Collection<Reflect.MethodReflect<?>> methods() {
+        return Reflect.on(this.target).methods();
+    }
+
+    @Benchmark
+    public Collection<Reflect.FieldReflect<?>> fields() {
+        return Reflect.on(this.target).fields();
+    }
+
+    @Benchmark
+    public Collection<Reflect.FieldReflect<?>> lazyFields() {
+        return Reflect.on(this.target).lazyFields();
+    }
+}
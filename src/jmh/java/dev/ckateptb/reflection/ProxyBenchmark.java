@@ -0,0 +1,34 @@
+package dev.ckateptb.reflection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProxyBenchmark {
+    private BenchmarkTarget target;
+    private BenchmarkAdder proxy;
+
+    @Setup
+    public void setup() {
+        this.target = new BenchmarkTarget();
+        this.proxy = Reflect.on(this.target).as(BenchmarkAdder.class);
+    }
+
+    @Benchmark
+    public int direct() {
+        return this.target.add(1);
+    }
+
+    @Benchmark
+    public int proxyCall() {
+        return this.proxy.add(1);
+    }
+
+    @Benchmark
+    public BenchmarkAdder proxyCreate() {
+        return Reflect.on(this.target).as(BenchmarkAdder.class);
+    }
+}
@@ -0,0 +1,64 @@
+package dev.ckateptb.reflection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StrategyBenchmark {
+    private BenchmarkTarget first;
+    private BenchmarkTarget second;
+    private Collection<ReflectField> fields;
+    private ObjectStrategy<BenchmarkTarget> strategy;
+
+    @Setup
+    public void setup() {
+        this.first = new BenchmarkTarget();
+        this.second = new BenchmarkTarget();
+        this.first.add(7);
+        this.second.add(7);
+        this.fields = Reflect.classOf(BenchmarkTarget.class).getFields();
+        this.strategy = Reflect.strategy(BenchmarkTarget.class);
+    }
+
+    @Benchmark
+    public boolean reflectiveEquals() {
+        for (ReflectField field : this.fields) {
+            if (!Objects.equals(field.getValue(this.first), field.getValue(this.second))) return false;
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean strategyEquals() {
+        return this.strategy.equals(this.first, this.second);
+    }
+
+    @Benchmark
+    public int reflectiveHashCode() {
+        int hash = 1;
+        for (ReflectField field : this.fields) {
+            hash = 31 * hash + Objects.hashCode(field.getValue(this.first));
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public int strategyHashCode() {
+        return this.strategy.hashCode(this.first);
+    }
+
+    @Benchmark
+    public int strategyCompare() {
+        return this.strategy.compare(this.first, this.second);
+    }
+
+    @Benchmark
+    public String strategyToString() {
+        return this.strategy.toString(this.first);
+    }
+}
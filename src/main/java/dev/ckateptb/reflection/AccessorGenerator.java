@@ -0,0 +1,290 @@
+package dev.ckateptb.reflection;
+
+import lombok.SneakyThrows;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static dev.ckateptb.reflection.ClassFileWriter.Code.*;
+
+// Spins a hidden nestmate of the reflected class implementing GeneratedAccessor with one tableswitch
+// per operation, so each member is reached through plain invoke*/get*/put* bytecode. Members the
+// hidden class cannot link against are left out of the switch and reported through the masks.
+final class AccessorGenerator {
+    private static final String ACCESSOR = ClassFileWriter.internalName(GeneratedAccessor.class);
+    private static final Accessor UNAVAILABLE = new Accessor(null, new boolean[0], new boolean[0], new boolean[0], new boolean[0]);
+
+    private final Class<?> owner;
+    private final String ownerName;
+    private final ClassFileWriter writer;
+
+    private AccessorGenerator(Class<?> owner, String name) {
+        this.owner = owner;
+        this.ownerName = ClassFileWriter.internalName(owner);
+        this.writer = new ClassFileWriter(ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER | ClassFileWriter.ACC_SYNTHETIC,
+                name, "java/lang/Object", ACCESSOR);
+    }
+
+    // Errors from defining the class (VerifyError, ClassFormatError) are generator bugs and propagate;
+    // only a class too large for a single accessor quietly stays on the other backends.
+    @SneakyThrows
+    static Accessor generate(ReflectClass<?> reflectClass) {
+        Class<?> owner = reflectClass.get();
+        if (owner.isHidden() || owner.isArray() || owner.isPrimitive()) {
+            return UNAVAILABLE;
+        }
+        MethodHandles.Lookup lookup = ReflectLookup.full(owner);
+        if (lookup == null || !resolves(owner.getClassLoader(), GeneratedAccessor.class)) {
+            return UNAVAILABLE;
+        }
+        try {
+            String name = ClassFileWriter.internalName(owner) + "$$ReflectAccessor";
+            AccessorGenerator generator = new AccessorGenerator(owner, name);
+            generator.constructor();
+            boolean[] methods = generator.invoke(reflectClass.methodList());
+            List<ReflectField> fields = reflectClass.fieldList();
+            boolean[] getters = generator.get(fields);
+            boolean[] setters = generator.set(fields);
+            boolean[] constructors = generator.newInstance(reflectClass.constructorList());
+            Class<?> accessorClass = lookup.defineHiddenClass(generator.writer.toByteArray(), true,
+                    MethodHandles.Lookup.ClassOption.NESTMATE).lookupClass();
+            GeneratedAccessor accessor = (GeneratedAccessor) ReflectLookup.in(accessorClass)
+                    .findConstructor(accessorClass, MethodType.methodType(void.class))
+                    .invoke();
+            return new Accessor(accessor, methods, getters, setters, constructors);
+        } catch (ClassFileWriter.TooLargeException e) {
+            return UNAVAILABLE;
+        }
+    }
+
+    // The hidden class links against GeneratedAccessor through the owner's loader, which an isolated
+    // loader that does not delegate to this library cannot do.
+    static boolean resolves(ClassLoader loader, Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private void constructor() {
+        ClassFileWriter.Code code = this.writer.method(ClassFileWriter.ACC_PUBLIC, "<init>", "()V");
+        code.op(ALOAD).op(0)
+                .op(INVOKESPECIAL, this.writer.methodRef("java/lang/Object", "<init>", "()V"))
+                .op(RETURN)
+                .end(1, 1);
+    }
+
+    // Whether code in a hidden class defined next to host may link against member through host.
+    static boolean accessible(Class<?> host, Member member) {
+        Class<?> declaring = member.getDeclaringClass();
+        int modifiers = member.getModifiers();
+        if (declaring != host) {
+            if (Modifier.isPrivate(modifiers)) return false;
+            if (!Modifier.isPublic(modifiers) && !samePackage(host, declaring)) return false;
+            if (Modifier.isStatic(modifiers) && declaring.isInterface()) return false;
+        }
+        return true;
+    }
+
+    private static boolean samePackage(Class<?> host, Class<?> type) {
+        return type.getClassLoader() == host.getClassLoader()
+                && Objects.equals(type.getPackageName(), host.getPackageName());
+    }
+
+    static boolean visible(Class<?> host, Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) return true;
+        if (type.isHidden()) return false;
+        if (Modifier.isPublic(type.getModifiers()) && type.getModule().isExported(type.getPackageName())) {
+            return true;
+        }
+        return samePackage(host, type);
+    }
+
+    private boolean accessible(Member member) {
+        return accessible(this.owner, member);
+    }
+
+    private boolean visible(Class<?>... types) {
+        return Arrays.stream(types).allMatch(type -> visible(this.owner, type));
+    }
+
+    // Emits the switch skeleton shared by every operation: a case per member for which the emitter
+    // returned true, everything else falls through to an IllegalArgumentException.
+    private <M> boolean[] generate(String name, String descriptor, int indexSlot, int maxLocals, List<M> members,
+                                   Emitter<M> emitter) {
+        boolean[] compiled = new boolean[members.size()];
+        ClassFileWriter.Code code = this.writer.method(ClassFileWriter.ACC_PUBLIC, name, descriptor);
+        int[] slots = null;
+        if (!members.isEmpty()) {
+            code.load(int.class, indexSlot);
+            slots = code.tableswitch(members.size());
+        }
+        int maxStack = 4;
+        for (int i = 0; i < members.size(); i++) {
+            int start = code.position();
+            int stack = emitter.emit(code, members.get(i));
+            if (stack < 0) continue;
+            compiled[i] = true;
+            maxStack = Math.max(maxStack, stack);
+            code.bind(slots, i, start);
+            code.frame(start);
+        }
+        int fallback = code.position();
+        if (slots != null) {
+            code.frame(fallback);
+            for (int i = 0; i < members.size(); i++) {
+                if (!compiled[i]) code.bind(slots, i, fallback);
+            }
+            code.bindDefault(slots, fallback);
+        }
+        code.throwNew(IllegalArgumentException.class, "Member is not compiled");
+        code.end(maxStack, maxLocals);
+        return compiled;
+    }
+
+    private boolean[] invoke(List<ReflectMethod> methods) {
+        return this.generate("invoke", "(ILjava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;", 1, 4, methods,
+                (code, reflectMethod) -> {
+                    Method method = reflectMethod.get();
+                    Class<?>[] parameters = method.getParameterTypes();
+                    if (!this.accessible(method) || !this.visible(parameters) || !this.visible(method.getReturnType())) {
+                        return -1;
+                    }
+                    boolean isStatic = Modifier.isStatic(method.getModifiers());
+                    if (!isStatic) {
+                        code.op(ALOAD).op(2).checkcast(this.owner);
+                    }
+                    int slots = 0;
+                    for (int i = 0; i < parameters.length; i++) {
+                        code.op(ALOAD).op(3).push(i).op(AALOAD).unbox(parameters[i]);
+                        slots += parameters[i] == long.class || parameters[i] == double.class ? 2 : 1;
+                    }
+                    String descriptor = ClassFileWriter.methodDescriptor(method.getReturnType(), parameters);
+                    if (this.owner.isInterface() && isStatic) {
+                        code.op(INVOKESTATIC, this.writer.interfaceMethodRef(this.ownerName, method.getName(), descriptor));
+                    } else if (isStatic) {
+                        code.op(INVOKESTATIC, this.writer.methodRef(this.ownerName, method.getName(), descriptor));
+                    } else if (this.owner.isInterface()) {
+                        code.invokeInterface(this.ownerName, method.getName(), descriptor, slots);
+                    } else {
+                        code.op(INVOKEVIRTUAL, this.writer.methodRef(this.ownerName, method.getName(), descriptor));
+                    }
+                    code.box(method.getReturnType()).op(ARETURN);
+                    return slots + 4;
+                });
+    }
+
+    private boolean[] get(List<ReflectField> fields) {
+        return this.generate("get", "(ILjava/lang/Object;)Ljava/lang/Object;", 1, 3, fields,
+                (code, reflectField) -> {
+                    Field field = reflectField.get();
+                    if (!this.accessible(field) || !this.visible(field.getType())) return -1;
+                    String descriptor = ClassFileWriter.descriptor(field.getType());
+                    int ref = this.writer.fieldRef(this.ownerName, field.getName(), descriptor);
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        code.op(GETSTATIC, ref);
+                    } else {
+                        code.op(ALOAD).op(2).checkcast(this.owner).op(GETFIELD, ref);
+                    }
+                    code.box(field.getType()).op(ARETURN);
+                    return 3;
+                });
+    }
+
+    private boolean[] set(List<ReflectField> fields) {
+        return this.generate("set", "(ILjava/lang/Object;Ljava/lang/Object;)V", 1, 4, fields,
+                (code, reflectField) -> {
+                    Field field = reflectField.get();
+                    if (Modifier.isFinal(field.getModifiers()) || !this.accessible(field) || !this.visible(field.getType())) {
+                        return -1;
+                    }
+                    String descriptor = ClassFileWriter.descriptor(field.getType());
+                    int ref = this.writer.fieldRef(this.ownerName, field.getName(), descriptor);
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        code.op(ALOAD).op(3).unbox(field.getType()).op(PUTSTATIC, ref);
+                    } else {
+                        code.op(ALOAD).op(2).checkcast(this.owner).op(ALOAD).op(3).unbox(field.getType()).op(PUTFIELD, ref);
+                    }
+                    code.op(RETURN);
+                    return 4;
+                });
+    }
+
+    private <T> boolean[] newInstance(List<ReflectConstructor<T>> constructors) {
+        return this.generate("newInstance", "(I[Ljava/lang/Object;)Ljava/lang/Object;", 1, 3, constructors,
+                (code, reflectConstructor) -> {
+                    Constructor<T> constructor = reflectConstructor.get();
+                    Class<?>[] parameters = constructor.getParameterTypes();
+                    if (Modifier.isAbstract(this.owner.getModifiers()) || this.owner.isEnum() || !this.visible(parameters)) {
+                        return -1;
+                    }
+                    code.op(NEW, this.writer.classRef(this.ownerName)).op(DUP);
+                    int slots = 0;
+                    for (int i = 0; i < parameters.length; i++) {
+                        code.op(ALOAD).op(2).push(i).op(AALOAD).unbox(parameters[i]);
+                        slots += parameters[i] == long.class || parameters[i] == double.class ? 2 : 1;
+                    }
+                    code.op(INVOKESPECIAL, this.writer.methodRef(this.ownerName, "<init>",
+                            ClassFileWriter.methodDescriptor(void.class, parameters)));
+                    code.op(ARETURN);
+                    return slots + 5;
+                });
+    }
+
+    private interface Emitter<M> {
+        int emit(ClassFileWriter.Code code, M member);
+    }
+
+    static final class Accessor {
+        private final GeneratedAccessor accessor;
+        private final boolean[] methods;
+        private final boolean[] getters;
+        private final boolean[] setters;
+        private final boolean[] constructors;
+
+        private Accessor(GeneratedAccessor accessor, boolean[] methods, boolean[] getters, boolean[] setters,
+                         boolean[] constructors) {
+            this.accessor = accessor;
+            this.methods = methods;
+            this.getters = getters;
+            this.setters = setters;
+            this.constructors = constructors;
+        }
+
+        GeneratedAccessor get() {
+            return this.accessor;
+        }
+
+        boolean isAvailable() {
+            return this.accessor != null;
+        }
+
+        boolean hasMethod(int index) {
+            return index >= 0 && index < this.methods.length && this.methods[index];
+        }
+
+        boolean hasGetter(int index) {
+            return index >= 0 && index < this.getters.length && this.getters[index];
+        }
+
+        boolean hasSetter(int index) {
+            return index >= 0 && index < this.setters.length && this.setters[index];
+        }
+
+        boolean hasConstructor(int index) {
+            return index >= 0 && index < this.constructors.length && this.constructors[index];
+        }
+    }
+}
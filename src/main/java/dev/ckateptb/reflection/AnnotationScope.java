@@ -0,0 +1,24 @@
+package dev.ckateptb.reflection;
+
+public enum AnnotationScope {
+    DIRECT(false, false),
+    META(true, false),
+    INHERITED(false, true),
+    ALL(true, true);
+
+    private final boolean meta;
+    private final boolean inherited;
+
+    AnnotationScope(boolean meta, boolean inherited) {
+        this.meta = meta;
+        this.inherited = inherited;
+    }
+
+    public boolean isMeta() {
+        return this.meta;
+    }
+
+    public boolean isInherited() {
+        return this.inherited;
+    }
+}
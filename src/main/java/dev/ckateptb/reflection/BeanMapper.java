@@ -0,0 +1,139 @@
+package dev.ckateptb.reflection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+public final class BeanMapper<S, D> {
+    private final Class<S> source;
+    private final Class<D> target;
+    private final Property[] properties;
+    private final ConstructorInvoker<D> constructor;
+
+    private BeanMapper(Class<S> source, Class<D> target, Map<String, Function<Object, Object>> converters, Set<String> excluded) {
+        this.source = source;
+        this.target = target;
+        ReflectClass<S> sourceClass = Reflect.classOf(source);
+        List<Property> properties = new ArrayList<>();
+        for (ReflectField to : Reflect.classOf(target).getFields()) {
+            if (to.isStatic() || to.isFinal() || excluded.contains(to.getName())) continue;
+            ReflectField from = sourceClass.getFieldByName(to.getName());
+            if (from == null || from.isStatic()) continue;
+            Property property = Property.of(from, to, converters.get(to.getName()));
+            if (property != null) properties.add(property);
+        }
+        this.properties = properties.toArray(Property[]::new);
+        ReflectConstructor<D> constructor = Reflect.classOf(target).getConstructorWithParams();
+        this.constructor = constructor == null ? null : constructor.invoker();
+    }
+
+    static <S, D> BeanMapper<S, D> create(Class<S> source, Class<D> target) {
+        return new BeanMapper<>(source, target, Map.of(), Set.of());
+    }
+
+    public static <S, D> Builder<S, D> builder(Class<S> source, Class<D> target) {
+        return new Builder<>(source, target);
+    }
+
+    public Class<S> getSource() {
+        return this.source;
+    }
+
+    public Class<D> getTarget() {
+        return this.target;
+    }
+
+    public D map(S source) {
+        if (this.constructor == null) {
+            throw new UnsupportedOperationException(this.target.getName() + " has no no-args constructor");
+        }
+        return this.copy(source, this.constructor.newInstance());
+    }
+
+    public D copy(S source, D target) {
+        for (Property property : this.properties) {
+            FieldAccessor from = property.from;
+            FieldAccessor to = property.to;
+            switch (property.kind) {
+                case BOOLEAN -> to.setBoolean(target, from.getBoolean(source));
+                case BYTE -> to.setByte(target, from.getByte(source));
+                case CHAR -> to.setChar(target, from.getChar(source));
+                case SHORT -> to.setShort(target, from.getShort(source));
+                case INT -> to.setInt(target, from.getInt(source));
+                case LONG -> to.setLong(target, from.getLong(source));
+                case FLOAT -> to.setFloat(target, from.getFloat(source));
+                case DOUBLE -> to.setDouble(target, from.getDouble(source));
+                case OBJECT -> {
+                    Object value = from.getObject(source);
+                    if (property.converter != null) value = property.converter.apply(value);
+                    if (value != null || !property.primitive) to.setObject(target, value);
+                }
+            }
+        }
+        return target;
+    }
+
+    private static final class Property {
+        private final FieldAccessor from;
+        private final FieldAccessor to;
+        private final FieldKind kind;
+        private final boolean primitive;
+        private final Function<Object, Object> converter;
+
+        private Property(ReflectField from, ReflectField to, FieldKind kind, Function<Object, Object> converter) {
+            this.from = from.accessor();
+            this.to = to.accessor();
+            this.kind = kind;
+            this.primitive = to.getType().isPrimitive();
+            this.converter = converter;
+        }
+
+        private static Property of(ReflectField from, ReflectField to, Function<Object, Object> converter) {
+            Class<?> fromType = from.getType();
+            Class<?> toType = to.getType();
+            if (converter != null) {
+                return new Property(from, to, FieldKind.OBJECT, converter);
+            }
+            FieldKind fromKind = FieldKind.of(fromType);
+            FieldKind toKind = FieldKind.of(toType);
+            if (fromKind.isPrimitive() && toKind.isPrimitive()) {
+                return fromKind.widensTo(toKind) ? new Property(from, to, toKind, null) : null;
+            }
+            if (toType.isAssignableFrom(ReflectLookup.box(fromType)) || ReflectLookup.box(toType) == fromType) {
+                return new Property(from, to, FieldKind.OBJECT, null);
+            }
+            return null;
+        }
+    }
+
+    public static final class Builder<S, D> {
+        private final Class<S> source;
+        private final Class<D> target;
+        private final Map<String, Function<Object, Object>> converters = new HashMap<>();
+        private final Set<String> excluded = new HashSet<>();
+
+        private Builder(Class<S> source, Class<D> target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <A, B> Builder<S, D> convert(String field, Function<A, B> converter) {
+            this.converters.put(field, (Function<Object, Object>) converter);
+            return this;
+        }
+
+        public Builder<S, D> exclude(String... fields) {
+            this.excluded.addAll(List.of(fields));
+            return this;
+        }
+
+        public BeanMapper<S, D> build() {
+            return new BeanMapper<>(this.source, this.target, Map.copyOf(this.converters), Set.copyOf(this.excluded));
+        }
+    }
+}
@@ -0,0 +1,865 @@
+package dev.ckateptb.reflection;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Schema-driven binary codec. The schema is every non-static, non-transient field, superclass fields
+// first and then by name (records keep component order). Primitive fields go straight between the
+// VarHandle and the buffer. A stream starts with the schema fingerprint, which covers nested schemas
+// and enum constants, so data written by a different class layout is rejected on read.
+// Object values carry a tag byte: null, the declared type, or a runtime subtype named in the stream
+// together with its own schema fingerprint. Named types must be subtypes of the declared type; where
+// the declared type is Object only strings, boxed primitives, enums, collections, maps and arrays of
+// those are accepted, so a stream cannot make the reader allocate arbitrary classes. Runtime JDK
+// collections without an accessible no-args constructor are written as their collection interface.
+// Values are written as trees; shared references are duplicated and cycles are not supported.
+public final class BinarySerializer<T> {
+    private static final byte NULL = 0;
+    private static final byte DECLARED = 1;
+    private static final byte NAMED = 2;
+
+    private final Class<T> type;
+    private final Property[] properties;
+    private final ReflectConstructor<T> canonical;
+    private final Supplier<T> factory;
+    // Only classes this type's loader resolves are cached, so the serializer never pins a foreign loader.
+    private final Map<Class<?>, RuntimeCodec> runtimeCodecs = new ConcurrentHashMap<>();
+    private volatile long fingerprint;
+
+    BinarySerializer(ReflectClass<T> reflectClass) {
+        this.type = reflectClass.get();
+        List<ReflectField> fields = new ArrayList<>();
+        if (this.type.isRecord()) {
+            RecordComponent[] components = this.type.getRecordComponents();
+            Class<?>[] parameters = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                fields.add(reflectClass.getFieldByName(components[i].getName()));
+                parameters[i] = components[i].getType();
+            }
+            this.canonical = reflectClass.getConstructorWithParams(parameters);
+            this.factory = null;
+        } else {
+            for (ReflectField field : reflectClass.getFields()) {
+                if (!field.isStatic() && !field.isTransient() && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+            fields.sort(Comparator.comparingInt((ReflectField field) -> depth(field.getDeclaringClass()))
+                    .thenComparing(ReflectField::getName));
+            this.canonical = null;
+            this.factory = this.factory(reflectClass);
+        }
+        this.properties = fields.stream().map(field -> new Property(field, this.codec(field.getGenericType())))
+                .toArray(Property[]::new);
+    }
+
+    private static int depth(Class<?> clazz) {
+        int depth = 0;
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            depth++;
+        }
+        return depth;
+    }
+
+    // The no-args constructor keeps transient field initializers; classes without one are allocated bare.
+    private Supplier<T> factory(ReflectClass<T> reflectClass) {
+        if (this.type.isInterface() || Modifier.isAbstract(this.type.getModifiers())) {
+            return null;
+        }
+        ReflectConstructor<T> constructor = reflectClass.getConstructorWithParams();
+        return constructor != null ? constructor.supplier() : reflectClass.getAllocator();
+    }
+
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    public long fingerprint() {
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            StringBuilder schema = new StringBuilder();
+            this.describe(schema, new HashSet<>());
+            this.fingerprint = fingerprint = hash(schema);
+        }
+        return fingerprint;
+    }
+
+    private static long hash(CharSequence schema) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte value : schema.toString().getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (value & 0xFF)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private void describe(StringBuilder schema, Set<Class<?>> visited) {
+        schema.append(this.type.getName());
+        if (!visited.add(this.type)) {
+            return;
+        }
+        schema.append('{');
+        for (Property property : this.properties) {
+            schema.append(property.field.getName()).append(':');
+            if (property.codec == null) {
+                schema.append(property.kind == FieldKind.OBJECT ? "?" + property.field.getType().getName() : property.kind.name());
+            } else {
+                property.codec.describe(schema, visited);
+            }
+            schema.append(';');
+        }
+        schema.append('}');
+    }
+
+    public void write(T object, ByteBuffer buffer) {
+        buffer.putLong(this.fingerprint());
+        this.writeFields(object, buffer);
+    }
+
+    public T read(ByteBuffer buffer) {
+        long fingerprint = buffer.getLong();
+        if (fingerprint != this.fingerprint()) {
+            throw new IllegalStateException("Schema mismatch for " + this.type.getName() + ": expected "
+                    + Long.toHexString(this.fingerprint()) + ", found " + Long.toHexString(fingerprint));
+        }
+        return this.readFields(buffer);
+    }
+
+    public byte[] toByteArray(T object) {
+        int capacity = 256;
+        while (true) {
+            ByteBuffer buffer = ByteBuffer.allocate(capacity);
+            try {
+                this.write(object, buffer);
+                return Arrays.copyOf(buffer.array(), buffer.position());
+            } catch (BufferOverflowException e) {
+                capacity <<= 1;
+            }
+        }
+    }
+
+    public T fromByteArray(byte[] bytes) {
+        return this.read(ByteBuffer.wrap(bytes));
+    }
+
+    private void writeFields(Object object, ByteBuffer buffer) {
+        for (Property property : this.properties) {
+            FieldAccessor accessor = property.accessor;
+            switch (property.kind) {
+                case BOOLEAN -> buffer.put(accessor.getBoolean(object) ? (byte) 1 : 0);
+                case BYTE -> buffer.put(accessor.getByte(object));
+                case CHAR -> buffer.putChar(accessor.getChar(object));
+                case SHORT -> buffer.putShort(accessor.getShort(object));
+                case INT -> buffer.putInt(accessor.getInt(object));
+                case LONG -> buffer.putLong(accessor.getLong(object));
+                case FLOAT -> buffer.putFloat(accessor.getFloat(object));
+                case DOUBLE -> buffer.putDouble(accessor.getDouble(object));
+                case OBJECT -> this.writeValue(buffer, property.type, property.codec, accessor.getObject(object));
+            }
+        }
+    }
+
+    private T readFields(ByteBuffer buffer) {
+        if (this.canonical != null) {
+            Object[] values = new Object[this.properties.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = this.readBoxed(buffer, this.properties[i]);
+            }
+            return this.canonical.invoker().newInstanceWithArguments(values);
+        }
+        if (this.factory == null) {
+            throw new IllegalStateException(this.type.getName() + " cannot be instantiated");
+        }
+        T object = this.factory.get();
+        for (Property property : this.properties) {
+            if (!property.settable) {
+                property.field.setValue(object, this.readBoxed(buffer, property));
+                continue;
+            }
+            FieldAccessor accessor = property.accessor;
+            switch (property.kind) {
+                case BOOLEAN -> accessor.setBoolean(object, buffer.get() != 0);
+                case BYTE -> accessor.setByte(object, buffer.get());
+                case CHAR -> accessor.setChar(object, buffer.getChar());
+                case SHORT -> accessor.setShort(object, buffer.getShort());
+                case INT -> accessor.setInt(object, buffer.getInt());
+                case LONG -> accessor.setLong(object, buffer.getLong());
+                case FLOAT -> accessor.setFloat(object, buffer.getFloat());
+                case DOUBLE -> accessor.setDouble(object, buffer.getDouble());
+                case OBJECT -> accessor.setObject(object, this.readValue(buffer, property.type, property.codec));
+            }
+        }
+        return object;
+    }
+
+    // Final fields and record components cannot go through the VarHandle, so they take the boxed path.
+    private Object readBoxed(ByteBuffer buffer, Property property) {
+        return switch (property.kind) {
+            case BOOLEAN -> buffer.get() != 0;
+            case BYTE -> buffer.get();
+            case CHAR -> buffer.getChar();
+            case SHORT -> buffer.getShort();
+            case INT -> buffer.getInt();
+            case LONG -> buffer.getLong();
+            case FLOAT -> buffer.getFloat();
+            case DOUBLE -> buffer.getDouble();
+            case OBJECT -> this.readValue(buffer, property.type, property.codec);
+        };
+    }
+
+    private void writeValue(ByteBuffer buffer, Class<?> declared, Codec codec, Object value) {
+        if (value == null) {
+            buffer.put(NULL);
+        } else if (codec != null && codec.accepts(value)) {
+            buffer.put(DECLARED);
+            codec.write(buffer, value);
+        } else {
+            Class<?> type = portable(value.getClass());
+            if (!permitted(declared, type)) {
+                throw new IllegalArgumentException(type.getName() + " cannot be written where " + declared.getName()
+                        + " is declared; declare a narrower type than Object for values of other classes");
+            }
+            RuntimeCodec runtime = this.runtimeCodec(type);
+            buffer.put(NAMED);
+            writeString(buffer, type.getName());
+            buffer.putLong(runtime.fingerprint);
+            runtime.codec.write(buffer, value);
+        }
+    }
+
+    private Object readValue(ByteBuffer buffer, Class<?> declared, Codec codec) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case DECLARED:
+                return codec.read(buffer);
+            case NAMED:
+                Class<?> type = this.named(readString(buffer), declared);
+                long fingerprint = buffer.getLong();
+                RuntimeCodec runtime = this.runtimeCodec(type);
+                if (fingerprint != runtime.fingerprint) {
+                    throw new IllegalStateException("Schema mismatch for " + type.getName() + " in " + this.type.getName()
+                            + ": expected " + Long.toHexString(runtime.fingerprint) + ", found " + Long.toHexString(fingerprint));
+                }
+                return runtime.codec.read(buffer);
+            default:
+                throw new IllegalStateException("Corrupt value tag " + tag + " while reading " + this.type.getName());
+        }
+    }
+
+    // The class is checked against the declared type before anything is initialized or allocated.
+    private Class<?> named(String name, Class<?> declared) {
+        Class<?> type;
+        try {
+            type = Class.forName(name, false, this.type.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Unknown class " + name + " while reading " + this.type.getName(), e);
+        }
+        if (!permitted(declared, type)) {
+            throw new IllegalStateException(name + " is not permitted where " + declared.getName() + " is declared in "
+                    + this.type.getName());
+        }
+        return type;
+    }
+
+    private static boolean permitted(Class<?> declared, Class<?> type) {
+        if (!declared.isAssignableFrom(type)) return false;
+        return declared != Object.class || plain(type);
+    }
+
+    private static boolean plain(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        return type.isPrimitive() || type == String.class || Enum.class.isAssignableFrom(type)
+                || MethodType.methodType(type).unwrap().returnType().isPrimitive()
+                || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type);
+    }
+
+    // Collections and maps the reader could not construct travel as their interface, read back into the
+    // default implementation of that interface.
+    private static Class<?> portable(Class<?> type) {
+        boolean collection = Collection.class.isAssignableFrom(type);
+        if (!collection && !Map.class.isAssignableFrom(type) || constructible(type)) {
+            return type;
+        }
+        Class<?>[] interfaces = collection
+                ? new Class<?>[]{SortedSet.class, Set.class, List.class, Deque.class, Queue.class, Collection.class}
+                : new Class<?>[]{SortedMap.class, Map.class};
+        for (Class<?> candidate : interfaces) {
+            if (candidate.isAssignableFrom(type)) return candidate;
+        }
+        return type;
+    }
+
+    private static boolean constructible(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) return false;
+        ReflectConstructor<?> constructor = Reflect.classOf(type).getConstructorWithParams();
+        if (constructor == null) return false;
+        if (Modifier.isPublic(type.getModifiers()) && constructor.isPublic()) return true;
+        return type.getModule().isOpen(type.getPackageName(), BinarySerializer.class.getModule());
+    }
+
+    private RuntimeCodec runtimeCodec(Class<?> type) {
+        RuntimeCodec codec = this.runtimeCodecs.get(type);
+        if (codec == null) {
+            if (!AccessorGenerator.resolves(this.type.getClassLoader(), type)) {
+                return new RuntimeCodec(this.codec(type));
+            }
+            codec = this.runtimeCodecs.computeIfAbsent(type, key -> new RuntimeCodec(this.codec(key)));
+        }
+        return codec;
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[this.readLength(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Lengths come from the stream, so they are bounded by what is left of it before anything is allocated:
+    // every element takes at least elementSize bytes.
+    private int readLength(ByteBuffer buffer, int elementSize) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() / elementSize) {
+            throw new IllegalStateException("Corrupt length " + length + " while reading " + this.type.getName());
+        }
+        return length;
+    }
+
+    private static Class<?> raw(Type type) {
+        if (type instanceof Class<?> clazz) return clazz;
+        if (type instanceof ParameterizedType parameterized) return raw(parameterized.getRawType());
+        if (type instanceof GenericArrayType array) return Array.newInstance(raw(array.getGenericComponentType()), 0).getClass();
+        return Object.class;
+    }
+
+    private static Type argument(Type type, int index) {
+        return type instanceof ParameterizedType parameterized ? parameterized.getActualTypeArguments()[index] : Object.class;
+    }
+
+    // Null means the declared type says nothing useful, so every value is written with its runtime class.
+    private Codec codec(Type type) {
+        Class<?> raw = raw(type);
+        if (raw.isPrimitive()) {
+            return null;
+        }
+        if (raw == String.class) {
+            return new StringCodec(this);
+        }
+        if (raw == Boolean.class || raw == Byte.class || raw == Character.class || raw == Short.class
+                || raw == Integer.class || raw == Long.class || raw == Float.class || raw == Double.class) {
+            return new BoxedCodec(this, raw);
+        }
+        if (raw.isEnum()) {
+            return new EnumCodec(this, raw);
+        }
+        if (raw.isArray()) {
+            Class<?> component = raw.getComponentType();
+            if (component.isPrimitive()) {
+                return new PrimitiveArrayCodec(this, raw);
+            }
+            Type componentType = type instanceof GenericArrayType array ? array.getGenericComponentType() : component;
+            return new ObjectArrayCodec(this, raw, this.codec(componentType));
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            Type element = argument(type, 0);
+            return new CollectionCodec(this, raw, raw(element), this.codec(element));
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            Type key = argument(type, 0);
+            Type value = argument(type, 1);
+            return new MapCodec(this, raw, raw(key), this.codec(key), raw(value), this.codec(value));
+        }
+        if (raw == Object.class || raw.isInterface() || Modifier.isAbstract(raw.getModifiers())) {
+            return null;
+        }
+        return new ObjectCodec(this, raw);
+    }
+
+    private static void describeValue(Codec codec, StringBuilder schema, Set<Class<?>> visited) {
+        if (codec == null) {
+            schema.append('?');
+        } else {
+            codec.describe(schema, visited);
+        }
+    }
+
+    private static final class Property {
+        private final ReflectField field;
+        private final FieldAccessor accessor;
+        private final FieldKind kind;
+        private final Class<?> type;
+        private final boolean settable;
+        private final Codec codec;
+
+        private Property(ReflectField field, Codec codec) {
+            this.field = field;
+            this.accessor = field.accessor();
+            this.kind = FieldKind.of(field.getType());
+            this.type = field.getType();
+            this.settable = !field.isFinal();
+            this.codec = codec;
+        }
+    }
+
+    private static final class RuntimeCodec {
+        private final Codec codec;
+        private final long fingerprint;
+
+        private RuntimeCodec(Codec codec) {
+            this.codec = codec;
+            StringBuilder schema = new StringBuilder();
+            codec.describe(schema, new HashSet<>());
+            this.fingerprint = hash(schema);
+        }
+    }
+
+    private abstract static class Codec {
+        protected final BinarySerializer<?> owner;
+        protected final Class<?> type;
+
+        private Codec(BinarySerializer<?> owner, Class<?> type) {
+            this.owner = owner;
+            this.type = type;
+        }
+
+        boolean accepts(Object value) {
+            return value.getClass() == this.type;
+        }
+
+        void describe(StringBuilder schema, Set<Class<?>> visited) {
+            schema.append(this.type.getName());
+        }
+
+        abstract void write(ByteBuffer buffer, Object value);
+
+        abstract Object read(ByteBuffer buffer);
+    }
+
+    private static final class StringCodec extends Codec {
+        private StringCodec(BinarySerializer<?> owner) {
+            super(owner, String.class);
+        }
+
+        @Override
+        void write(ByteBuffer buffer, Object value) {
+            writeString(buffer, (String) value);
+        }
+
+        @Override
+        Object read(ByteBuffer buffer) {
+            return this.owner.readString(buffer);
+        }
+    }
+
+    private static final class BoxedCodec extends Codec {
+        private final FieldKind kind;
+
+        private BoxedCodec(BinarySerializer<?> owner, Class<?> type) {
+            super(owner, type);
+            this.kind = FieldKind.of(MethodType.methodType(type).unwrap().returnType());
+        }
+
+        @Override
+        void write(ByteBuffer buffer, Object value) {
+            switch (this.kind) {
+                case BOOLEAN -> buffer.put((Boolean) value ? (byte) 1 : 0);
+                case BYTE -> buffer.put((Byte) value);
+                case CHAR -> buffer.putChar((Character) value);
+                case SHORT -> buffer.putShort((Short) value);
+                case INT -> buffer.putInt((Integer) value);
+                case LONG -> buffer.putLong((Long) value);
+                case FLOAT -> buffer.putFloat((Float) value);
+                case DOUBLE -> buffer.putDouble((Double) value);
+                default -> throw new IllegalStateException();
+            }
+        }
+
+        @Override
+        Object read(ByteBuffer buffer) {
+            return switch (this.kind) {
+                case BOOLEAN -> buffer.get() != 0;
+                case BYTE -> buffer.get();
+                case CHAR -> buffer.getChar();
+                case SHORT -> buffer.getShort();
+                case INT -> buffer.getInt();
+                case LONG -> buffer.getLong();
+                case FLOAT -> buffer.getFloat();
+                case DOUBLE -> buffer.getDouble();
+                default -> throw new IllegalStateException();
+            };
+        }
+    }
+
+    private static final class EnumCodec extends Codec {
+        private final Object[] constants;
+
+        private EnumCodec(BinarySerializer<?> owner, Class<?> type) {
+            super(owner, type);
+            this.constants = type.getEnumConstants();
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return this.type.isInstance(value);
+        }
+
+        @Override
+        void describe(StringBuilder schema, Set<Class<?>> visited) {
+            schema.append(this.type.getName()).append(Arrays.toString(this.constants));
+        }
+
+        @Override
+        void write(ByteBuffer buffer, Object value) {
+            buffer.putInt(((Enum<?>) value).ordinal());
+        }
+
+        @Override
+        Object read(ByteBuffer buffer) {
+            int ordinal = buffer.getInt();
+            if (ordinal < 0 || ordinal >= this.constants.length) {
+                throw new IllegalStateException("Corrupt ordinal " + ordinal + " of " + this.type.getName()
+                        + " while reading " + this.owner.type.getName());
+            }
+            return this.constants[ordinal];
+        }
+    }
+
+    // Bulk copies through typed views of the buffer instead of one put per element.
+    private static final class PrimitiveArrayCodec extends Codec {
+        private final FieldKind kind;
+
+        private PrimitiveArrayCodec(BinarySerializer<?> owner, Class<?> type) {
+            super(owner, type);
+            this.kind = FieldKind.of(type.getComponentType());
+        }
+
+        @Override
+        void write(ByteBuffer buffer, Object value) {
+            int length = Array.getLength(value);
+            buffer.putInt(length);
+            int position = buffer.position();
+            switch (this.kind) {
+                case BOOLEAN -> {
+                    for (boolean element : (boolean[]) value) {
+                        buffer.put(element ? (byte) 1 : 0);
+                    }
+                }
+                case BYTE -> buffer.put((byte[]) value);
+                case CHAR -> {
+                    checkRemaining(buffer, length * Character.BYTES);
+                    buffer.asCharBuffer().put((char[]) value);
+                    buffer.position(position + length * Character.BYTES);
+                }
+                case SHORT -> {
+                    checkRemaining(buffer, length * Short.BYTES);
+                    buffer.asShortBuffer().put((short[]) value);
+                    buffer.position(position + length * Short.BYTES);
+                }
+                case INT -> {
+                    checkRemaining(buffer, length * Integer.BYTES);
+                    buffer.asIntBuffer().put((int[]) value);
+                    buffer.position(position + length * Integer.BYTES);
+                }
+                case LONG -> {
+                    checkRemaining(buffer, length * Long.BYTES);
+                    buffer.asLongBuffer().put((long[]) value);
+                    buffer.position(position + length * Long.BYTES);
+                }
+                case FLOAT -> {
+                    checkRemaining(buffer, length * Float.BYTES);
+                    buffer.asFloatBuffer().put((float[]) value);
+                    buffer.position(position + length * Float.BYTES);
+                }
+                case DOUBLE -> {
+                    checkRemaining(buffer, length * Double.BYTES);
+                    buffer.asDoubleBuffer().put((double[]) value);
+                    buffer.position(position + length * Double.BYTES);
+                }
+                default -> throw new IllegalStateException();
+            }
+        }
+
+        private void checkRemaining(ByteBuffer buffer, int bytes) {
+            if (buffer.remaining() < bytes) {
+                throw new BufferOverflowException();
+            }
+        }
+
+        @Override
+        Object read(ByteBuffer buffer) {
+            int length = this.owner.readLength(buffer, GraphPlan.primitiveSize(this.type.getComponentType()));
+            int position = buffer.position();
+            switch (this.kind) {
+                case BOOLEAN -> {
+                    boolean[] array = new boolean[length];
+                    for (int i = 0; i < length; i++) {
+                        array[i] = buffer.get() != 0;
+                    }
+                    return array;
+                }
+                case BYTE -> {
+                    byte[] array = new byte[length];
+                    buffer.get(array);
+                    return array;
+                }
+                case CHAR -> {
+                    char[] array = new char[length];
+                    buffer.asCharBuffer().get(array);
+                    buffer.position(position + length * Character.BYTES);
+                    return array;
+                }
+                case SHORT -> {
+                    short[] array = new short[length];
+                    buffer.asShortBuffer().get(array);
+                    buffer.position(position + length * Short.BYTES);
+                    return array;
+                }
+                case INT -> {
+                    int[] array = new int[length];
+                    buffer.asIntBuffer().get(array);
+                    buffer.position(position + length * Integer.BYTES);
+                    return array;
+                }
+                case LONG -> {
+                    long[] array = new long[length];
+                    buffer.asLongBuffer().get(array);
+                    buffer.position(position + length * Long.BYTES);
+                    return array;
+                }
+                case FLOAT -> {
+                    float[] array = new float[length];
+                    buffer.asFloatBuffer().get(array);
+                    buffer.position(position + length * Float.BYTES);
+                    return array;
+                }
+                case DOUBLE -> {
+                    double[] array = new double[length];
+                    buffer.asDoubleBuffer().get(array);
+                    buffer.position(position + length * Double.BYTES);
+                    return array;
+                }
+                default -> throw new IllegalStateException();
+            }
+        }
+    }
+
+    private static final class ObjectArrayCodec extends Codec {
+        private final Codec element;
+
+        private ObjectArrayCodec(BinarySerializer<?> owner, Class<?> type, Codec element) {
+            super(owner, type);
+            this.element = element;
+        }
+
+        @Override
+        void describe(StringBuilder schema, Set<Class<?>> visited) {
+            describeValue(this.element, schema, visited);
+            schema.append("[]");
+        }
+
+        @Override
+        void write(ByteBuffer buffer, Object value) {
+            Object[] array = (Object[]) value;
+            buffer.putInt(array.length);
+            for (Object element : array) {
+                this.owner.writeValue(buffer, this.type.getComponentType(), this.element, element);
+            }
+        }
+
+        @Override
+        Object read(ByteBuffer buffer) {
+            // Every element starts with its value tag.
+            int length = this.owner.readLength(buffer, 1);
+            Object[] array = (Object[]) Array.newInstance(this.type.getComponentType(), length);
+            for (int i = 0; i < array.length; i++) {
+                array[i] = this.owner.readValue(buffer, this.type.getComponentType(), this.element);
+            }
+            return array;
+        }
+    }
+
+    private static final class CollectionCodec extends Codec {
+        private final Class<?> elementType;
+        private final Codec element;
+        private final Supplier<?> factory;
+
+        private CollectionCodec(BinarySerializer<?> owner, Class<?> type, Class<?> elementType, Codec element) {
+            super(owner, type);
+            this.elementType = elementType;
+            this.element = element;
+            this.factory = containerFactory(type);
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return this.type.isInterface() || Modifier.isAbstract(this.type.getModifiers())
+                    ? this.type.isInstance(value) : value.getClass() == this.type;
+        }
+
+        @Override
+        void describe(StringBuilder schema, Set<Class<?>> visited) {
+            schema.append(this.type.getName()).append('<');
+            describeValue(this.element, schema, visited);
+            schema.append('>');
+        }
+
+        @Override
+        void write(ByteBuffer buffer, Object value) {
+            Collection<?> collection = (Collection<?>) value;
+            buffer.putInt(collection.size());
+            for (Object element : collection) {
+                this.owner.writeValue(buffer, this.elementType, this.element, element);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object read(ByteBuffer buffer) {
+            int size = this.owner.readLength(buffer, 1);
+            Collection<Object> collection = (Collection<Object>) this.factory.get();
+            for (int i = 0; i < size; i++) {
+                collection.add(this.owner.readValue(buffer, this.elementType, this.element));
+            }
+            return collection;
+        }
+    }
+
+    private static final class MapCodec extends Codec {
+        private final Class<?> keyType;
+        private final Class<?> valueType;
+        private final Codec key;
+        private final Codec value;
+        private final Supplier<?> factory;
+
+        private MapCodec(BinarySerializer<?> owner, Class<?> type, Class<?> keyType, Codec key, Class<?> valueType, Codec value) {
+            super(owner, type);
+            this.keyType = keyType;
+            this.valueType = valueType;
+            this.key = key;
+            this.value = value;
+            this.factory = containerFactory(type);
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return this.type.isInterface() || Modifier.isAbstract(this.type.getModifiers())
+                    ? this.type.isInstance(value) : value.getClass() == this.type;
+        }
+
+        @Override
+        void describe(StringBuilder schema, Set<Class<?>> visited) {
+            schema.append(this.type.getName()).append('<');
+            describeValue(this.key, schema, visited);
+            schema.append(',');
+            describeValue(this.value, schema, visited);
+            schema.append('>');
+        }
+
+        @Override
+        void write(ByteBuffer buffer, Object value) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            buffer.putInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                this.owner.writeValue(buffer, this.keyType, this.key, entry.getKey());
+                this.owner.writeValue(buffer, this.valueType, this.value, entry.getValue());
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object read(ByteBuffer buffer) {
+            int size = this.owner.readLength(buffer, 2);
+            Map<Object, Object> map = (Map<Object, Object>) this.factory.get();
+            for (int i = 0; i < size; i++) {
+                map.put(this.owner.readValue(buffer, this.keyType, this.key),
+                        this.owner.readValue(buffer, this.valueType, this.value));
+            }
+            return map;
+        }
+    }
+
+    private static Supplier<?> containerFactory(Class<?> type) {
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+            ReflectConstructor<?> constructor = Reflect.classOf(type).getConstructorWithParams();
+            if (constructor == null) {
+                throw new IllegalArgumentException(type.getName() + " has no no-args constructor");
+            }
+            return constructor.supplier();
+        }
+        if (type.isAssignableFrom(ArrayList.class)) return ArrayList::new;
+        if (type.isAssignableFrom(LinkedHashSet.class)) return LinkedHashSet::new;
+        if (type.isAssignableFrom(TreeSet.class)) return TreeSet::new;
+        if (type.isAssignableFrom(ArrayDeque.class)) return ArrayDeque::new;
+        if (type.isAssignableFrom(LinkedHashMap.class)) return LinkedHashMap::new;
+        if (type.isAssignableFrom(TreeMap.class)) return TreeMap::new;
+        if (type.isAssignableFrom(ConcurrentHashMap.class)) return ConcurrentHashMap::new;
+        throw new IllegalArgumentException("No default implementation for " + type.getName());
+    }
+
+    private static final class ObjectCodec extends Codec {
+        private volatile BinarySerializer<?> serializer;
+
+        private ObjectCodec(BinarySerializer<?> owner, Class<?> type) {
+            super(owner, type);
+        }
+
+        // Resolved on first use so self-referencing types do not recurse while their schema is built.
+        private BinarySerializer<?> serializer() {
+            BinarySerializer<?> serializer = this.serializer;
+            if (serializer == null) {
+                this.serializer = serializer = Reflect.classOf(this.type).getSerializer();
+            }
+            return serializer;
+        }
+
+        @Override
+        void describe(StringBuilder schema, Set<Class<?>> visited) {
+            this.serializer().describe(schema, visited);
+        }
+
+        @Override
+        void write(ByteBuffer buffer, Object value) {
+            this.serializer().writeFields(value, buffer);
+        }
+
+        @Override
+        Object read(ByteBuffer buffer) {
+            return this.serializer().readFields(buffer);
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package dev.ckateptb.reflection;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Minimal class file writer for the generated accessors and proxies: a constant pool, fields and
+// methods whose only branch targets share the method's initial frame (so every StackMapTable entry
+// is a same_frame).
+final class ClassFileWriter {
+    static final int VERSION = 52;
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+    static final int ACC_SYNTHETIC = 0x1000;
+
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOutput = new DataOutputStream(this.pool);
+    private final Map<String, Integer> constants = new HashMap<>();
+    private final List<byte[]> fields = new ArrayList<>();
+    private final List<byte[]> methods = new ArrayList<>();
+    private final int access;
+    private final int thisClass;
+    private final int superClass;
+    private final int[] interfaces;
+    private int poolCount = 1;
+
+    ClassFileWriter(int access, String name, String superName, String... interfaces) {
+        this.access = access;
+        this.thisClass = this.classRef(name);
+        this.superClass = this.classRef(superName);
+        this.interfaces = new int[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) {
+            this.interfaces[i] = this.classRef(interfaces[i]);
+        }
+    }
+
+    static String internalName(Class<?> type) {
+        return type.isArray() ? descriptor(type) : type.getName().replace('.', '/');
+    }
+
+    static String descriptor(Class<?> type) {
+        if (type == void.class) return "V";
+        if (type == boolean.class) return "Z";
+        if (type == byte.class) return "B";
+        if (type == char.class) return "C";
+        if (type == short.class) return "S";
+        if (type == int.class) return "I";
+        if (type == long.class) return "J";
+        if (type == float.class) return "F";
+        if (type == double.class) return "D";
+        if (type.isArray()) return type.getName().replace('.', '/');
+        return "L" + type.getName().replace('.', '/') + ";";
+    }
+
+    static String methodDescriptor(Class<?> returnType, Class<?>... parameters) {
+        StringBuilder builder = new StringBuilder("(");
+        for (Class<?> parameter : parameters) {
+            builder.append(descriptor(parameter));
+        }
+        return builder.append(')').append(descriptor(returnType)).toString();
+    }
+
+    private int constant(String key, int slots, PoolEntry entry) {
+        Integer index = this.constants.get(key);
+        if (index != null) return index;
+        try {
+            entry.write(this.poolOutput);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        index = this.poolCount;
+        this.poolCount += slots;
+        this.constants.put(key, index);
+        return index;
+    }
+
+    int utf8(String value) {
+        return this.constant("U" + value, 1, output -> {
+            output.writeByte(1);
+            output.writeUTF(value);
+        });
+    }
+
+    int classRef(String internalName) {
+        int name = this.utf8(internalName);
+        return this.constant("C" + internalName, 1, output -> {
+            output.writeByte(7);
+            output.writeShort(name);
+        });
+    }
+
+    int integer(int value) {
+        return this.constant("I" + value, 1, output -> {
+            output.writeByte(3);
+            output.writeInt(value);
+        });
+    }
+
+    int string(String value) {
+        int utf8 = this.utf8(value);
+        return this.constant("S" + value, 1, output -> {
+            output.writeByte(8);
+            output.writeShort(utf8);
+        });
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        int nameIndex = this.utf8(name);
+        int descriptorIndex = this.utf8(descriptor);
+        return this.constant("N" + name + ":" + descriptor, 1, output -> {
+            output.writeByte(12);
+            output.writeShort(nameIndex);
+            output.writeShort(descriptorIndex);
+        });
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int ownerIndex = this.classRef(owner);
+        int nameAndType = this.nameAndType(name, descriptor);
+        return this.constant("M" + tag + owner + "." + name + ":" + descriptor, 1, output -> {
+            output.writeByte(tag);
+            output.writeShort(ownerIndex);
+            output.writeShort(nameAndType);
+        });
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return this.memberRef(9, owner, name, descriptor);
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return this.memberRef(10, owner, name, descriptor);
+    }
+
+    int interfaceMethodRef(String owner, String name, String descriptor) {
+        return this.memberRef(11, owner, name, descriptor);
+    }
+
+    void field(int access, String name, String descriptor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        try {
+            output.writeShort(access);
+            output.writeShort(this.utf8(name));
+            output.writeShort(this.utf8(descriptor));
+            output.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.fields.add(bytes.toByteArray());
+    }
+
+    Code method(int access, String name, String descriptor) {
+        return new Code(access, name, descriptor);
+    }
+
+    byte[] toByteArray() {
+        if (this.poolCount > 0xFFFF) {
+            throw new TooLargeException("Constant pool has " + this.poolCount + " entries");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        try {
+            output.writeInt(0xCAFEBABE);
+            output.writeShort(0);
+            output.writeShort(VERSION);
+            output.writeShort(this.poolCount);
+            output.write(this.pool.toByteArray());
+            output.writeShort(this.access);
+            output.writeShort(this.thisClass);
+            output.writeShort(this.superClass);
+            output.writeShort(this.interfaces.length);
+            for (int iface : this.interfaces) {
+                output.writeShort(iface);
+            }
+            output.writeShort(this.fields.size());
+            for (byte[] field : this.fields) {
+                output.write(field);
+            }
+            output.writeShort(this.methods.size());
+            for (byte[] method : this.methods) {
+                output.write(method);
+            }
+            output.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // The class file format caps method code and the constant pool at 65535; classes with thousands of
+    // members can exceed that and have to stay on the non-generated backends.
+    @SuppressWarnings("serial")
+    static final class TooLargeException extends RuntimeException {
+        TooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    private interface PoolEntry {
+        void write(DataOutputStream output) throws IOException;
+    }
+
+    final class Code {
+        static final int ACONST_NULL = 0x01;
+        static final int ALOAD = 0x19;
+        static final int AALOAD = 0x32;
+        static final int DUP = 0x59;
+        static final int POP = 0x57;
+        static final int POP2 = 0x58;
+        static final int IRETURN = 0xAC;
+        static final int LRETURN = 0xAD;
+        static final int FRETURN = 0xAE;
+        static final int DRETURN = 0xAF;
+        static final int ARETURN = 0xB0;
+        static final int RETURN = 0xB1;
+        static final int GETSTATIC = 0xB2;
+        static final int PUTSTATIC = 0xB3;
+        static final int GETFIELD = 0xB4;
+        static final int PUTFIELD = 0xB5;
+        static final int INVOKEVIRTUAL = 0xB6;
+        static final int INVOKESPECIAL = 0xB7;
+        static final int INVOKESTATIC = 0xB8;
+        static final int INVOKEINTERFACE = 0xB9;
+        static final int NEW = 0xBB;
+        static final int ATHROW = 0xBF;
+        static final int CHECKCAST = 0xC0;
+
+        private final int access;
+        private final String name;
+        private final String descriptor;
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        private final List<Integer> frames = new ArrayList<>();
+
+        private Code(int access, String name, String descriptor) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+
+        int position() {
+            return this.code.size();
+        }
+
+        Code op(int opcode) {
+            this.code.write(opcode);
+            return this;
+        }
+
+        private Code u2(int value) {
+            this.code.write(value >>> 8);
+            this.code.write(value);
+            return this;
+        }
+
+        private Code u4(int value) {
+            this.u2(value >>> 16);
+            return this.u2(value);
+        }
+
+        Code op(int opcode, int index) {
+            return this.op(opcode).u2(index);
+        }
+
+        Code load(Class<?> type, int slot) {
+            int opcode;
+            if (type == long.class) opcode = 0x16;
+            else if (type == float.class) opcode = 0x17;
+            else if (type == double.class) opcode = 0x18;
+            else if (type.isPrimitive()) opcode = 0x15;
+            else opcode = ALOAD;
+            return this.op(opcode).op(slot);
+        }
+
+        Code returns(Class<?> type) {
+            if (type == void.class) return this.op(RETURN);
+            if (type == long.class) return this.op(LRETURN);
+            if (type == float.class) return this.op(FRETURN);
+            if (type == double.class) return this.op(DRETURN);
+            if (type.isPrimitive()) return this.op(IRETURN);
+            return this.op(ARETURN);
+        }
+
+        Code push(int value) {
+            if (value >= -1 && value <= 5) return this.op(0x03 + value);
+            if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) return this.op(0x10).op(value);
+            if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) return this.op(0x11).u2(value);
+            int index = ClassFileWriter.this.integer(value);
+            return index < 256 ? this.op(0x12).op(index) : this.op(0x13, index);
+        }
+
+        Code invokeInterface(String owner, String name, String descriptor, int argumentSlots) {
+            return this.op(INVOKEINTERFACE, ClassFileWriter.this.interfaceMethodRef(owner, name, descriptor))
+                    .op(argumentSlots + 1).op(0);
+        }
+
+        Code checkcast(Class<?> type) {
+            if (type == Object.class) return this;
+            return this.op(CHECKCAST, ClassFileWriter.this.classRef(internalName(type)));
+        }
+
+        Code box(Class<?> type) {
+            if (!type.isPrimitive()) return this;
+            if (type == void.class) return this.op(ACONST_NULL);
+            Class<?> wrapper = ReflectLookup.box(type);
+            return this.op(INVOKESTATIC, ClassFileWriter.this.methodRef(internalName(wrapper), "valueOf",
+                    methodDescriptor(wrapper, type)));
+        }
+
+        Code unbox(Class<?> type) {
+            if (!type.isPrimitive()) return this.checkcast(type);
+            Class<?> owner = type == boolean.class ? Boolean.class : type == char.class ? Character.class : Number.class;
+            this.checkcast(owner);
+            return this.op(INVOKEVIRTUAL, ClassFileWriter.this.methodRef(internalName(owner),
+                    type.getName() + "Value", methodDescriptor(type)));
+        }
+
+        Code throwNew(Class<? extends Throwable> type, String message) {
+            String owner = internalName(type);
+            this.op(NEW, ClassFileWriter.this.classRef(owner)).op(DUP);
+            if (message == null) {
+                return this.op(INVOKESPECIAL, ClassFileWriter.this.methodRef(owner, "<init>", "()V")).op(ATHROW);
+            }
+            int string = ClassFileWriter.this.string(message);
+            if (string < 256) this.op(0x12).op(string);
+            else this.op(0x13, string);
+            return this.op(INVOKESPECIAL, ClassFileWriter.this.methodRef(owner, "<init>", "(Ljava/lang/String;)V"))
+                    .op(ATHROW);
+        }
+
+        // Emits a tableswitch over [0, targets.length) and returns the position of each jump slot so that
+        // the caller can bind them once the case bodies are written; slot -1 is the default target.
+        int[] tableswitch(int cases) {
+            int opcode = this.position();
+            this.op(0xAA);
+            while (this.position() % 4 != 0) {
+                this.op(0);
+            }
+            int[] slots = new int[cases + 2];
+            slots[0] = opcode;
+            slots[1] = this.position();
+            this.u4(0).u4(0).u4(cases - 1);
+            for (int i = 0; i < cases; i++) {
+                slots[i + 2] = this.position();
+                this.u4(0);
+            }
+            return slots;
+        }
+
+        void bind(int[] switchSlots, int slot, int target) {
+            byte[] bytes = this.code.toByteArray();
+            int offset = target - switchSlots[0];
+            int position = switchSlots[slot + 2];
+            bytes[position] = (byte) (offset >>> 24);
+            bytes[position + 1] = (byte) (offset >>> 16);
+            bytes[position + 2] = (byte) (offset >>> 8);
+            bytes[position + 3] = (byte) offset;
+            this.code.reset();
+            this.code.write(bytes, 0, bytes.length);
+        }
+
+        void bindDefault(int[] switchSlots, int target) {
+            this.bind(switchSlots, -1, target);
+        }
+
+        Code frame(int position) {
+            if (!this.frames.contains(position)) this.frames.add(position);
+            return this;
+        }
+
+        void end(int maxStack, int maxLocals) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            if (this.code.size() > 0xFFFF) {
+                throw new TooLargeException("Method " + this.name + " has " + this.code.size() + " bytes of code");
+            }
+            try {
+                byte[] code = this.code.toByteArray();
+                byte[] stackMap = this.stackMap();
+                output.writeShort(this.access);
+                output.writeShort(ClassFileWriter.this.utf8(this.name));
+                output.writeShort(ClassFileWriter.this.utf8(this.descriptor));
+                output.writeShort(1);
+                output.writeShort(ClassFileWriter.this.utf8("Code"));
+                int stackMapLength = stackMap == null ? 0 : 6 + stackMap.length;
+                output.writeInt(2 + 2 + 4 + code.length + 2 + 2 + stackMapLength);
+                output.writeShort(maxStack);
+                output.writeShort(maxLocals);
+                output.writeInt(code.length);
+                output.write(code);
+                output.writeShort(0);
+                if (stackMap == null) {
+                    output.writeShort(0);
+                } else {
+                    output.writeShort(1);
+                    output.writeShort(ClassFileWriter.this.utf8("StackMapTable"));
+                    output.writeInt(stackMap.length);
+                    output.write(stackMap);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            ClassFileWriter.this.methods.add(bytes.toByteArray());
+        }
+
+        private byte[] stackMap() throws IOException {
+            if (this.frames.isEmpty()) return null;
+            this.frames.sort(Integer::compare);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeShort(this.frames.size());
+            int previous = -1;
+            for (int frame : this.frames) {
+                int delta = previous < 0 ? frame : frame - previous - 1;
+                if (delta < 64) {
+                    output.writeByte(delta);
+                } else {
+                    output.writeByte(251);
+                    output.writeShort(delta);
+                }
+                previous = frame;
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
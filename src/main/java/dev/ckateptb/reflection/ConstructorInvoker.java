@@ -0,0 +1,130 @@
+package dev.ckateptb.reflection;
+
+import lombok.SneakyThrows;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public final class ConstructorInvoker<T> {
+    private final Constructor<T> constructor;
+    private final MethodHandle direct;
+    private final MethodHandle exact;
+    private final MethodHandle spreader;
+    private final int arity;
+    private final Map<Class<?>, Object> lambdas = new ConcurrentHashMap<>();
+
+    @SneakyThrows
+    ConstructorInvoker(Constructor<T> constructor) {
+        this.constructor = constructor;
+        this.arity = constructor.getParameterCount();
+        this.direct = ReflectLookup.unreflect(constructor);
+        this.exact = this.direct.asType(MethodType.genericMethodType(this.arity));
+        this.spreader = this.exact.asSpreader(Object[].class, this.arity);
+    }
+
+    public Constructor<T> getConstructor() {
+        return this.constructor;
+    }
+
+    public int arity() {
+        return this.arity;
+    }
+
+    public MethodHandle handle() {
+        return this.direct;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <F> F lambda(Class<F> functionalInterface) {
+        return (F) this.lambdas.computeIfAbsent(functionalInterface,
+                type -> ReflectLookup.lambda(type, this.constructor.getDeclaringClass(), this.direct));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Supplier<T> supplier() {
+        this.checkArity(0);
+        return this.lambda(Supplier.class, () -> (Supplier<T>) this::newInstance);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <A> Function<A, T> function() {
+        this.checkArity(1);
+        return this.lambda(Function.class, () -> (Function<A, T>) this::newInstance);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <A, B> BiFunction<A, B, T> biFunction() {
+        this.checkArity(2);
+        return this.lambda(BiFunction.class, () -> (BiFunction<A, B, T>) this::newInstance);
+    }
+
+    // Classes the library cannot spin lambdas next to, such as plugin classes without a registered lookup,
+    // get plain lambdas over the exact handle instead of the library-side adapters.
+    @SuppressWarnings("unchecked")
+    private <F> F lambda(Class<?> functionalInterface, Supplier<F> fallback) {
+        Class<T> type = this.constructor.getDeclaringClass();
+        return (F) this.lambdas.computeIfAbsent(functionalInterface, key -> ReflectLookup.full(type) == null
+                ? fallback.get() : ReflectLookup.lambda(key, type, this.direct));
+    }
+
+    // Not spun by LambdaMetafactory, which cannot spread an argument array: this is the spreading
+    // handle behind newInstanceWithArguments, without the per-call arity switch of the varargs path.
+    @SuppressWarnings("unchecked")
+    public ObjectFactory<T> factory() {
+        return (ObjectFactory<T>) this.lambdas.computeIfAbsent(ObjectFactory.class,
+                type -> (ObjectFactory<T>) this::newInstanceWithArguments);
+    }
+
+    private void checkArity(int arity) {
+        if (this.arity != arity) {
+            throw new IllegalArgumentException(this.constructor + " takes " + this.arity + " arguments, not " + arity);
+        }
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public T newInstance() {
+        if (this.arity != 0) return this.newInstanceWithArguments();
+        return (T) (Object) this.exact.invokeExact();
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public T newInstance(Object a) {
+        if (this.arity != 1) return this.newInstanceWithArguments(a);
+        return (T) (Object) this.exact.invokeExact(a);
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public T newInstance(Object a, Object b) {
+        if (this.arity != 2) return this.newInstanceWithArguments(a, b);
+        return (T) (Object) this.exact.invokeExact(a, b);
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public T newInstance(Object a, Object b, Object c) {
+        if (this.arity != 3) return this.newInstanceWithArguments(a, b, c);
+        return (T) (Object) this.exact.invokeExact(a, b, c);
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public T newInstance(Object a, Object b, Object c, Object d) {
+        if (this.arity != 4) return this.newInstanceWithArguments(a, b, c, d);
+        return (T) (Object) this.exact.invokeExact(a, b, c, d);
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public T newInstanceWithArguments(Object... args) {
+        return (T) (Object) this.spreader.invokeExact(args);
+    }
+}
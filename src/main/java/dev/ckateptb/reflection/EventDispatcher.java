@@ -0,0 +1,139 @@
+package dev.ckateptb.reflection;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+// Handlers are kept in an immutable table that is replaced on every (un)registration, so dispatch is a
+// volatile read, one map lookup per event class and a loop over a cached array of compiled invokers.
+public final class EventDispatcher<A extends Annotation> {
+    private static final Handler[] NO_HANDLERS = new Handler[0];
+
+    private final Class<A> annotation;
+    private final AnnotationScope scope;
+    private final ToIntFunction<A> priority;
+    private volatile Table table = new Table(List.of());
+    private long registrations;
+
+    public EventDispatcher(Class<A> annotation) {
+        this(annotation, handler -> 0);
+    }
+
+    public EventDispatcher(Class<A> annotation, ToIntFunction<A> priority) {
+        this(annotation, AnnotationScope.DIRECT, priority);
+    }
+
+    public EventDispatcher(Class<A> annotation, AnnotationScope scope, ToIntFunction<A> priority) {
+        this.annotation = Objects.requireNonNull(annotation);
+        this.scope = Objects.requireNonNull(scope);
+        this.priority = Objects.requireNonNull(priority);
+    }
+
+    public void register(Object listener) {
+        this.register(listener.getClass(), listener);
+    }
+
+    public void register(Class<?> listener) {
+        this.register(listener, null);
+    }
+
+    private synchronized void register(Class<?> type, Object listener) {
+        List<Handler> handlers = new ArrayList<>(this.table.handlers);
+        for (ReflectMethod method : Reflect.classOf(type).getMethodsWithAnnotation(this.annotation, this.scope)) {
+            if (method.getParameterCount() != 1 || method.isStatic() != (listener == null)) {
+                continue;
+            }
+            Class<?> eventType = method.getParameterTypes()[0];
+            if (eventType.isPrimitive()) {
+                continue;
+            }
+            A annotation = method.getAnnotation(this.annotation);
+            int priority = annotation == null ? 0 : this.priority.applyAsInt(annotation);
+            handlers.add(new Handler(type, listener, method.invoker(), eventType, priority, this.registrations++));
+        }
+        this.table = new Table(handlers);
+    }
+
+    public void unregister(Object listener) {
+        this.unregister(handler -> handler.listener == listener);
+    }
+
+    // Matches the class the handlers were registered with, which for inherited static handlers is not the
+    // class declaring the method.
+    public void unregister(Class<?> listener) {
+        this.unregister(handler -> handler.listener == null && handler.owner == listener);
+    }
+
+    private synchronized void unregister(Predicate<Handler> filter) {
+        List<Handler> handlers = new ArrayList<>(this.table.handlers);
+        if (handlers.removeIf(filter)) {
+            this.table = new Table(handlers);
+        }
+    }
+
+    public boolean hasHandlers(Class<?> eventType) {
+        return this.table.handlers(eventType).length != 0;
+    }
+
+    public int dispatch(Object event) {
+        Handler[] handlers = this.table.handlers(event.getClass());
+        for (Handler handler : handlers) {
+            handler.invoker.invoke(handler.listener, event);
+        }
+        return handlers.length;
+    }
+
+    private static final class Handler {
+        private final Class<?> owner;
+        private final Object listener;
+        private final MethodInvoker<?> invoker;
+        private final Class<?> eventType;
+        private final int priority;
+        private final long order;
+
+        private Handler(Class<?> owner, Object listener, MethodInvoker<?> invoker, Class<?> eventType, int priority, long order) {
+            this.owner = owner;
+            this.listener = listener;
+            this.invoker = invoker;
+            this.eventType = eventType;
+            this.priority = priority;
+            this.order = order;
+        }
+    }
+
+    private static final class Table {
+        private static final Comparator<Handler> ORDER = Comparator.<Handler>comparingInt(handler -> handler.priority)
+                .thenComparingLong(handler -> handler.order);
+
+        private final List<Handler> handlers;
+        private final Map<Class<?>, Handler[]> resolved = new ConcurrentHashMap<>();
+
+        private Table(List<Handler> handlers) {
+            this.handlers = List.copyOf(handlers);
+        }
+
+        // Resolved once per concrete event class; a handler matches when its parameter is the event's
+        // class or any of its supertypes.
+        private Handler[] handlers(Class<?> eventType) {
+            Handler[] handlers = this.resolved.get(eventType);
+            if (handlers == null) {
+                handlers = this.resolved.computeIfAbsent(eventType, this::resolve);
+            }
+            return handlers;
+        }
+
+        private Handler[] resolve(Class<?> eventType) {
+            Handler[] handlers = this.handlers.stream()
+                    .filter(handler -> handler.eventType.isAssignableFrom(eventType))
+                    .sorted(ORDER)
+                    .toArray(Handler[]::new);
+            return handlers.length == 0 ? NO_HANDLERS : handlers;
+        }
+    }
+}
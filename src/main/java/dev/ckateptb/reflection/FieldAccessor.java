@@ -0,0 +1,284 @@
+package dev.ckateptb.reflection;
+
+import lombok.SneakyThrows;
+
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+public final class FieldAccessor {
+    private final Field field;
+    private final VarHandle handle;
+    private final boolean isStatic;
+
+    @SneakyThrows
+    FieldAccessor(Field field) {
+        this.field = field;
+        this.handle = ReflectLookup.unreflect(field);
+        this.isStatic = Modifier.isStatic(field.getModifiers());
+    }
+
+    public Field getField() {
+        return this.field;
+    }
+
+    public VarHandle handle() {
+        return this.handle;
+    }
+
+    public Object getObject(Object target) {
+        return this.isStatic ? this.handle.get() : this.handle.get(target);
+    }
+
+    public void setObject(Object target, Object value) {
+        if (this.isStatic) {
+            this.handle.set(value);
+        } else {
+            this.handle.set(target, value);
+        }
+    }
+
+    public boolean getBoolean(Object target) {
+        return this.isStatic ? (boolean) this.handle.get() : (boolean) this.handle.get(target);
+    }
+
+    public void setBoolean(Object target, boolean value) {
+        if (this.isStatic) {
+            this.handle.set(value);
+        } else {
+            this.handle.set(target, value);
+        }
+    }
+
+    public byte getByte(Object target) {
+        return this.isStatic ? (byte) this.handle.get() : (byte) this.handle.get(target);
+    }
+
+    public void setByte(Object target, byte value) {
+        if (this.isStatic) {
+            this.handle.set(value);
+        } else {
+            this.handle.set(target, value);
+        }
+    }
+
+    public char getChar(Object target) {
+        return this.isStatic ? (char) this.handle.get() : (char) this.handle.get(target);
+    }
+
+    public void setChar(Object target, char value) {
+        if (this.isStatic) {
+            this.handle.set(value);
+        } else {
+            this.handle.set(target, value);
+        }
+    }
+
+    public short getShort(Object target) {
+        return this.isStatic ? (short) this.handle.get() : (short) this.handle.get(target);
+    }
+
+    public void setShort(Object target, short value) {
+        if (this.isStatic) {
+            this.handle.set(value);
+        } else {
+            this.handle.set(target, value);
+        }
+    }
+
+    public int getInt(Object target) {
+        return this.isStatic ? (int) this.handle.get() : (int) this.handle.get(target);
+    }
+
+    public void setInt(Object target, int value) {
+        if (this.isStatic) {
+            this.handle.set(value);
+        } else {
+            this.handle.set(target, value);
+        }
+    }
+
+    public long getLong(Object target) {
+        return this.isStatic ? (long) this.handle.get() : (long) this.handle.get(target);
+    }
+
+    public void setLong(Object target, long value) {
+        if (this.isStatic) {
+            this.handle.set(value);
+        } else {
+            this.handle.set(target, value);
+        }
+    }
+
+    public float getFloat(Object target) {
+        return this.isStatic ? (float) this.handle.get() : (float) this.handle.get(target);
+    }
+
+    public void setFloat(Object target, float value) {
+        if (this.isStatic) {
+            this.handle.set(value);
+        } else {
+            this.handle.set(target, value);
+        }
+    }
+
+    public double getDouble(Object target) {
+        return this.isStatic ? (double) this.handle.get() : (double) this.handle.get(target);
+    }
+
+    public void setDouble(Object target, double value) {
+        if (this.isStatic) {
+            this.handle.set(value);
+        } else {
+            this.handle.set(target, value);
+        }
+    }
+
+    public Object getObjectVolatile(Object target) {
+        return this.isStatic ? this.handle.getVolatile() : this.handle.getVolatile(target);
+    }
+
+    public void setObjectVolatile(Object target, Object value) {
+        if (this.isStatic) {
+            this.handle.setVolatile(value);
+        } else {
+            this.handle.setVolatile(target, value);
+        }
+    }
+
+    public int getIntVolatile(Object target) {
+        return this.isStatic ? (int) this.handle.getVolatile() : (int) this.handle.getVolatile(target);
+    }
+
+    public void setIntVolatile(Object target, int value) {
+        if (this.isStatic) {
+            this.handle.setVolatile(value);
+        } else {
+            this.handle.setVolatile(target, value);
+        }
+    }
+
+    public long getLongVolatile(Object target) {
+        return this.isStatic ? (long) this.handle.getVolatile() : (long) this.handle.getVolatile(target);
+    }
+
+    public void setLongVolatile(Object target, long value) {
+        if (this.isStatic) {
+            this.handle.setVolatile(value);
+        } else {
+            this.handle.setVolatile(target, value);
+        }
+    }
+
+    public double getDoubleVolatile(Object target) {
+        return this.isStatic ? (double) this.handle.getVolatile() : (double) this.handle.getVolatile(target);
+    }
+
+    public void setDoubleVolatile(Object target, double value) {
+        if (this.isStatic) {
+            this.handle.setVolatile(value);
+        } else {
+            this.handle.setVolatile(target, value);
+        }
+    }
+
+    public Object getObjectAcquire(Object target) {
+        return this.isStatic ? this.handle.getAcquire() : this.handle.getAcquire(target);
+    }
+
+    public void setObjectRelease(Object target, Object value) {
+        if (this.isStatic) {
+            this.handle.setRelease(value);
+        } else {
+            this.handle.setRelease(target, value);
+        }
+    }
+
+    public int getIntAcquire(Object target) {
+        return this.isStatic ? (int) this.handle.getAcquire() : (int) this.handle.getAcquire(target);
+    }
+
+    public void setIntRelease(Object target, int value) {
+        if (this.isStatic) {
+            this.handle.setRelease(value);
+        } else {
+            this.handle.setRelease(target, value);
+        }
+    }
+
+    public long getLongAcquire(Object target) {
+        return this.isStatic ? (long) this.handle.getAcquire() : (long) this.handle.getAcquire(target);
+    }
+
+    public void setLongRelease(Object target, long value) {
+        if (this.isStatic) {
+            this.handle.setRelease(value);
+        } else {
+            this.handle.setRelease(target, value);
+        }
+    }
+
+    public double getDoubleAcquire(Object target) {
+        return this.isStatic ? (double) this.handle.getAcquire() : (double) this.handle.getAcquire(target);
+    }
+
+    public void setDoubleRelease(Object target, double value) {
+        if (this.isStatic) {
+            this.handle.setRelease(value);
+        } else {
+            this.handle.setRelease(target, value);
+        }
+    }
+
+    public boolean compareAndSetObject(Object target, Object expected, Object value) {
+        return this.isStatic
+                ? this.handle.compareAndSet(expected, value)
+                : this.handle.compareAndSet(target, expected, value);
+    }
+
+    public Object getAndSetObject(Object target, Object value) {
+        return this.isStatic ? this.handle.getAndSet(value) : this.handle.getAndSet(target, value);
+    }
+
+    public boolean compareAndSetInt(Object target, int expected, int value) {
+        return this.isStatic
+                ? this.handle.compareAndSet(expected, value)
+                : this.handle.compareAndSet(target, expected, value);
+    }
+
+    public int getAndSetInt(Object target, int value) {
+        return this.isStatic ? (int) this.handle.getAndSet(value) : (int) this.handle.getAndSet(target, value);
+    }
+
+    public boolean compareAndSetLong(Object target, long expected, long value) {
+        return this.isStatic
+                ? this.handle.compareAndSet(expected, value)
+                : this.handle.compareAndSet(target, expected, value);
+    }
+
+    public long getAndSetLong(Object target, long value) {
+        return this.isStatic ? (long) this.handle.getAndSet(value) : (long) this.handle.getAndSet(target, value);
+    }
+
+    public boolean compareAndSetDouble(Object target, double expected, double value) {
+        return this.isStatic
+                ? this.handle.compareAndSet(expected, value)
+                : this.handle.compareAndSet(target, expected, value);
+    }
+
+    public double getAndSetDouble(Object target, double value) {
+        return this.isStatic ? (double) this.handle.getAndSet(value) : (double) this.handle.getAndSet(target, value);
+    }
+
+    public int getAndAddInt(Object target, int delta) {
+        return this.isStatic ? (int) this.handle.getAndAdd(delta) : (int) this.handle.getAndAdd(target, delta);
+    }
+
+    public long getAndAddLong(Object target, long delta) {
+        return this.isStatic ? (long) this.handle.getAndAdd(delta) : (long) this.handle.getAndAdd(target, delta);
+    }
+
+    public double getAndAddDouble(Object target, double delta) {
+        return this.isStatic ? (double) this.handle.getAndAdd(delta) : (double) this.handle.getAndAdd(target, delta);
+    }
+}
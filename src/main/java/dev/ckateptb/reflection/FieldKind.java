@@ -0,0 +1,86 @@
+package dev.ckateptb.reflection;
+
+import java.lang.invoke.MethodType;
+
+enum FieldKind {
+    BOOLEAN(boolean.class),
+    BYTE(byte.class),
+    CHAR(char.class),
+    SHORT(short.class),
+    INT(int.class),
+    LONG(long.class),
+    FLOAT(float.class),
+    DOUBLE(double.class),
+    OBJECT(Object.class);
+
+    private final Class<?> type;
+
+    FieldKind(Class<?> type) {
+        this.type = type;
+    }
+
+    Class<?> type() {
+        return this.type;
+    }
+
+    boolean isPrimitive() {
+        return this != OBJECT;
+    }
+
+    static FieldKind of(Class<?> type) {
+        if (!type.isPrimitive()) return OBJECT;
+        for (FieldKind kind : values()) {
+            if (kind.type == type) return kind;
+        }
+        throw new IllegalArgumentException("Unsupported field type " + type);
+    }
+
+    boolean widensTo(FieldKind target) {
+        if (this == target) return true;
+        switch (this) {
+            case BYTE:
+                return target == SHORT || target == INT || target == LONG || target == FLOAT || target == DOUBLE;
+            case SHORT:
+            case CHAR:
+                return target == INT || target == LONG || target == FLOAT || target == DOUBLE;
+            case INT:
+                return target == LONG || target == FLOAT || target == DOUBLE;
+            case LONG:
+                return target == FLOAT || target == DOUBLE;
+            case FLOAT:
+                return target == DOUBLE;
+            default:
+                return false;
+        }
+    }
+
+    // The boxed primitive converted to this kind by a widening conversion, or null when there is none.
+    Object widen(Object value) {
+        FieldKind from;
+        if (value instanceof Character) {
+            from = CHAR;
+        } else if (value instanceof Number || value instanceof Boolean) {
+            from = of(MethodType.methodType(value.getClass()).unwrap().returnType());
+        } else {
+            return null;
+        }
+        if (from == OBJECT || !from.widensTo(this)) return null;
+        if (from == this) return value;
+        double number = from == CHAR ? (Character) value : ((Number) value).doubleValue();
+        long integral = from == CHAR ? (Character) value : ((Number) value).longValue();
+        switch (this) {
+            case SHORT:
+                return (short) integral;
+            case INT:
+                return (int) integral;
+            case LONG:
+                return integral;
+            case FLOAT:
+                return from == LONG || from == INT ? (float) integral : (float) number;
+            case DOUBLE:
+                return from == LONG ? (double) integral : number;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package dev.ckateptb.reflection;
+
+public interface GeneratedAccessor {
+    Object invoke(int method, Object target, Object[] args);
+
+    Object get(int field, Object target);
+
+    void set(int field, Object target, Object value);
+
+    Object newInstance(int constructor, Object[] args);
+}
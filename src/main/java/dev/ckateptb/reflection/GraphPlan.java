@@ -0,0 +1,214 @@
+package dev.ckateptb.reflection;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.PlatformManagedObject;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+// Per-class traversal plan for ObjectGraph, cached on ReflectClass. Sizes follow the HotSpot layout of the
+// running VM (compressed oops and class pointers when enabled, 8-byte alignment) without field packing,
+// so they are estimates rather than exact footprints.
+final class GraphPlan {
+    static final int REFERENCE;
+    static final int HEADER;
+    static final int ARRAY_HEADER;
+    static final int ALIGNMENT = 8;
+
+    static {
+        boolean compressed = compressedOops();
+        REFERENCE = compressed ? 4 : 8;
+        HEADER = compressed ? 12 : 16;
+        ARRAY_HEADER = (int) align(HEADER + 4);
+    }
+
+    enum Kind {
+        // Immutable or opaque to deep access: shared by clones and compared with equals.
+        VALUE,
+        OBJECT,
+        ARRAY,
+        // Library collections whose internals cannot be read; traversed through their public API.
+        COLLECTION,
+        MAP
+    }
+
+    final Kind kind;
+    final long shallowSize;
+    final Supplier<?> allocator;
+    // Records cannot be allocated and filled in place: their copies go through the canonical constructor,
+    // with the component fields in parameter order.
+    final ReflectConstructor<?> canonical;
+    final ReflectField[] components;
+    final UnaryOperator<Object> emptyCopy;
+    final UnaryOperator<Object> valueCopy;
+    final ReflectField[] references;
+    final FieldAccessor[] referenceAccessors;
+    final ReflectField[] primitives;
+    final FieldAccessor[] primitiveAccessors;
+    final FieldKind[] primitiveKinds;
+
+    GraphPlan(ReflectClass<?> reflectClass) {
+        Class<?> type = reflectClass.get();
+        this.kind = kind(type);
+        List<ReflectField> references = new ArrayList<>();
+        List<ReflectField> primitives = new ArrayList<>();
+        long size = HEADER;
+        for (Class<?> clazz = type; clazz != null && !clazz.isArray(); clazz = clazz.getSuperclass()) {
+            for (ReflectField field : Reflect.classOf(clazz).getFields()) {
+                if (field.isStatic() || field.getDeclaringClass() != clazz) continue;
+                size += field.getType().isPrimitive() ? primitiveSize(field.getType()) : REFERENCE;
+                if (this.kind == Kind.OBJECT) {
+                    (field.getType().isPrimitive() ? primitives : references).add(field);
+                }
+            }
+        }
+        this.shallowSize = align(size);
+        boolean record = this.kind == Kind.OBJECT && type.isRecord();
+        this.allocator = this.kind == Kind.OBJECT && !record ? reflectClass.getAllocator() : null;
+        if (record) {
+            RecordComponent[] components = type.getRecordComponents();
+            this.components = new ReflectField[components.length];
+            Class<?>[] parameters = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                this.components[i] = reflectClass.getFieldByName(components[i].getName());
+                parameters[i] = components[i].getType();
+            }
+            this.canonical = reflectClass.getConstructorWithParams(parameters);
+        } else {
+            this.components = null;
+            this.canonical = null;
+        }
+        this.emptyCopy = this.kind == Kind.COLLECTION || this.kind == Kind.MAP ? emptyCopy(reflectClass) : null;
+        this.valueCopy = this.kind == Kind.VALUE ? valueCopy(type) : null;
+        this.references = references.toArray(ReflectField[]::new);
+        this.referenceAccessors = references.stream().map(ReflectField::accessor).toArray(FieldAccessor[]::new);
+        this.primitives = primitives.toArray(ReflectField[]::new);
+        this.primitiveAccessors = primitives.stream().map(ReflectField::accessor).toArray(FieldAccessor[]::new);
+        this.primitiveKinds = primitives.stream().map(field -> FieldKind.of(field.getType())).toArray(FieldKind[]::new);
+    }
+
+    private static Kind kind(Class<?> type) {
+        if (type.isArray()) return Kind.ARRAY;
+        if (type.isPrimitive() || type.isEnum() || type.isHidden() || type == String.class || type == Class.class) {
+            return Kind.VALUE;
+        }
+        for (Class<?> clazz = type; clazz != Object.class && clazz != Record.class; clazz = clazz.getSuperclass()) {
+            if (ReflectLookup.in(clazz) == null) {
+                if (Collection.class.isAssignableFrom(type)) return Kind.COLLECTION;
+                if (Map.class.isAssignableFrom(type)) return Kind.MAP;
+                return Kind.VALUE;
+            }
+        }
+        return Kind.OBJECT;
+    }
+
+    // Prefers clone() so comparators and enum key types survive, then a public no-args constructor. Anything else,
+    // such as the immutable List.of family, is rebuilt as the closest general-purpose mutable collection.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static UnaryOperator<Object> emptyCopy(ReflectClass<?> reflectClass) {
+        Class<?> type = reflectClass.get();
+        if (Cloneable.class.isAssignableFrom(type) && Modifier.isPublic(type.getModifiers())) {
+            ReflectMethod clone = reflectClass.getMethodByNameAndParams("clone");
+            if (clone != null && clone.isPublic()) {
+                return Map.class.isAssignableFrom(type)
+                        ? original -> clear((Map<?, ?>) clone.call(original))
+                        : original -> clear((Collection<?>) clone.call(original));
+            }
+        }
+        ReflectConstructor<?> constructor = reflectClass.getConstructorWithParams();
+        if (constructor != null && constructor.isPublic() && Modifier.isPublic(type.getModifiers())) {
+            Supplier<?> supplier = constructor.supplier();
+            return original -> supplier.get();
+        }
+        if (SortedMap.class.isAssignableFrom(type)) return original -> new TreeMap<>(((SortedMap) original).comparator());
+        if (Map.class.isAssignableFrom(type)) return original -> new LinkedHashMap<>();
+        if (SortedSet.class.isAssignableFrom(type)) return original -> new TreeSet<>(((SortedSet) original).comparator());
+        if (Set.class.isAssignableFrom(type)) return original -> new LinkedHashSet<>();
+        if (Deque.class.isAssignableFrom(type) || (Queue.class.isAssignableFrom(type) && !List.class.isAssignableFrom(type))) {
+            return original -> new ArrayDeque<>();
+        }
+        return original -> new ArrayList<>();
+    }
+
+    // Mutable JDK types that are opaque to deep access but cheap to copy through their public API. A clone
+    // must not alias them with the original; everything else of kind VALUE is immutable or stays shared.
+    private static UnaryOperator<Object> valueCopy(Class<?> type) {
+        if (type == AtomicInteger.class) return original -> new AtomicInteger(((AtomicInteger) original).get());
+        if (type == AtomicLong.class) return original -> new AtomicLong(((AtomicLong) original).get());
+        if (type == AtomicBoolean.class) return original -> new AtomicBoolean(((AtomicBoolean) original).get());
+        if (type == StringBuilder.class) return original -> new StringBuilder((StringBuilder) original);
+        if (type == StringBuffer.class) return original -> new StringBuffer((StringBuffer) original);
+        if (Date.class.isAssignableFrom(type)) return original -> ((Date) original).clone();
+        if (Calendar.class.isAssignableFrom(type)) return original -> ((Calendar) original).clone();
+        if (type == BitSet.class) return original -> ((BitSet) original).clone();
+        return null;
+    }
+
+    // Copied atomics and builders keep identity equals, so ObjectGraph.diff compares them by content.
+    static boolean equalValues(Object a, Object b) {
+        if (a instanceof AtomicInteger first) return first.get() == ((AtomicInteger) b).get();
+        if (a instanceof AtomicLong first) return first.get() == ((AtomicLong) b).get();
+        if (a instanceof AtomicBoolean first) return first.get() == ((AtomicBoolean) b).get();
+        if (a instanceof StringBuilder first) return first.compareTo((StringBuilder) b) == 0;
+        if (a instanceof StringBuffer first) return first.compareTo((StringBuffer) b) == 0;
+        return a.equals(b);
+    }
+
+    private static Object clear(Collection<?> collection) {
+        collection.clear();
+        return collection;
+    }
+
+    private static Object clear(Map<?, ?> map) {
+        map.clear();
+        return map;
+    }
+
+    static long arraySize(Class<?> componentType, int length) {
+        return align(ARRAY_HEADER + (long) length * (componentType.isPrimitive() ? primitiveSize(componentType) : REFERENCE));
+    }
+
+    static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) return 8;
+        if (type == int.class || type == float.class) return 4;
+        if (type == short.class || type == char.class) return 2;
+        return 1;
+    }
+
+    static long align(long size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    // jdk.management may be absent; HotSpot enables compressed oops by default below 32 GB of heap.
+    private static boolean compressedOops() {
+        try {
+            Class<?> bean = Class.forName("com.sun.management.HotSpotDiagnosticMXBean");
+            Object diagnostic = ManagementFactory.getPlatformMXBean(bean.asSubclass(PlatformManagedObject.class));
+            Object option = bean.getMethod("getVMOption", String.class).invoke(diagnostic, "UseCompressedOops");
+            return Boolean.parseBoolean((String) option.getClass().getMethod("getValue").invoke(option));
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package dev.ckateptb.reflection;
+
+// Open-addressing identity map for graph traversals. Keys and values sit in flat arrays with linear probing,
+// which avoids the per-entry work of IdentityHashMap on graphs with millions of nodes. Not thread-safe.
+final class IdentityTable {
+    private Object[] keys;
+    private Object[] values;
+    private int size;
+
+    IdentityTable() {
+        this.keys = new Object[64];
+        this.values = new Object[64];
+    }
+
+    private static int index(Object key, int mask) {
+        return (System.identityHashCode(key) * 0x9E3779B9 >>> 1) & mask;
+    }
+
+    Object get(Object key) {
+        Object[] keys = this.keys;
+        int mask = keys.length - 1;
+        for (int i = index(key, mask); ; i = (i + 1) & mask) {
+            Object candidate = keys[i];
+            if (candidate == key) return this.values[i];
+            if (candidate == null) return null;
+        }
+    }
+
+    // Returns the value already mapped to the key, or null after storing the new one.
+    Object putIfAbsent(Object key, Object value) {
+        Object[] keys = this.keys;
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        for (Object candidate; (candidate = keys[i]) != null; i = (i + 1) & mask) {
+            if (candidate == key) return this.values[i];
+        }
+        keys[i] = key;
+        this.values[i] = value;
+        if (++this.size * 2 > keys.length) {
+            this.grow();
+        }
+        return null;
+    }
+
+    void replace(Object key, Object value) {
+        Object[] keys = this.keys;
+        int mask = keys.length - 1;
+        for (int i = index(key, mask); keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                this.values[i] = value;
+                return;
+            }
+        }
+        throw new IllegalArgumentException("No mapping to replace");
+    }
+
+    boolean add(Object key) {
+        return this.putIfAbsent(key, key) == null;
+    }
+
+    private void grow() {
+        Object[] keys = this.keys;
+        Object[] values = this.values;
+        this.keys = new Object[keys.length * 2];
+        this.values = new Object[keys.length * 2];
+        int mask = this.keys.length - 1;
+        for (int j = 0; j < keys.length; j++) {
+            Object key = keys[j];
+            if (key == null) continue;
+            int i = index(key, mask);
+            while (this.keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            this.keys[i] = key;
+            this.values[i] = values[j];
+        }
+    }
+}
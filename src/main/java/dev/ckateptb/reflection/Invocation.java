@@ -0,0 +1,54 @@
+package dev.ckateptb.reflection;
+
+// Argument and receiver checks with the outcomes of java.lang.reflect, run before the MethodHandle and
+// generated backends so that a member fails the same way whichever backend it is on: a missing receiver
+// is a NullPointerException, a mismatched receiver, argument or value an IllegalArgumentException.
+final class Invocation {
+    private Invocation() {
+    }
+
+    static void receiver(Class<?> declaringClass, Object target) {
+        if (target == null) {
+            throw new NullPointerException("Cannot invoke an instance member of " + declaringClass.getName() + " on null");
+        }
+        if (!declaringClass.isInstance(target)) {
+            throw new IllegalArgumentException("object of " + target.getClass().getName()
+                    + " is not an instance of " + declaringClass.getName());
+        }
+    }
+
+    // Returns the arguments, or a copy with primitive arguments widened to the parameter types.
+    static Object[] arguments(Class<?>[] parameters, Object[] args) {
+        int length = args == null ? 0 : args.length;
+        if (length != parameters.length) {
+            throw new IllegalArgumentException("wrong number of arguments: " + length + " expected: " + parameters.length);
+        }
+        Object[] converted = args;
+        for (int i = 0; i < length; i++) {
+            Object value = value(parameters[i], args[i]);
+            if (value != args[i]) {
+                if (converted == args) converted = args.clone();
+                converted[i] = value;
+            }
+        }
+        return converted;
+    }
+
+    static Object value(Class<?> type, Object value) {
+        if (!type.isPrimitive()) {
+            if (value != null && !type.isInstance(value)) {
+                throw new IllegalArgumentException("Cannot convert " + value.getClass().getName() + " to " + type.getName());
+            }
+            return value;
+        }
+        if (value != null && ReflectLookup.box(type) == value.getClass()) {
+            return value;
+        }
+        Object widened = value == null ? null : FieldKind.of(type).widen(value);
+        if (widened == null) {
+            throw new IllegalArgumentException("Cannot convert " + (value == null ? "null" : value.getClass().getName())
+                    + " to " + type.getName());
+        }
+        return widened;
+    }
+}
@@ -0,0 +1,378 @@
+package dev.ckateptb.reflection;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+// Binary, memory-mappable scan index of a jar. Layout (big-endian):
+//   header:  magic, version, jar size, jar mtime, central directory crc, string count, class count, pool size,
+//            name count, relation pool size
+//   strings: (string count + 1) offsets into the string data, strings sorted for binary search
+//   classes: class count records of RECORD ints (name, access, super, then pool starts of interfaces,
+//            class, field and method annotations, and the end of the record's pool range)
+//   pool:    string indices referenced by the class records
+//   names:   string indices of every .class entry in the jar, parsed or not, as listed by a plain scan
+//   relations: RELATIONS tables of (string count + 1) running offsets into the relation pool, one table each
+//            for direct subtypes, class, field and method annotations, keyed by the string index of the
+//            supertype or annotation
+//   relation pool: string indices of the classes named by the relations
+//   data:    UTF-8 string bytes
+final class JarIndex {
+    private static final int MAGIC = 0x524A4958;
+    private static final int VERSION = 3;
+    private static final int HEADER = 4 + 4 + 8 + 8 + 8 + 4 + 4 + 4 + 4 + 4;
+    private static final int RECORD = 8;
+    private static final int INTERFACES = 3;
+    private static final int ANNOTATIONS = 4;
+    private static final int FIELD_ANNOTATIONS = 5;
+    private static final int METHOD_ANNOTATIONS = 6;
+    private static final int END = 7;
+    private static final int RELATIONS = 4;
+    private static final int SUBTYPES = 0;
+
+    private final ByteBuffer buffer;
+    private final int strings;
+    private final int classes;
+    private final int stringOffsets;
+    private final int records;
+    private final int pool;
+    private final int nameCount;
+    private final int names;
+    private final int relations;
+    private final int relationPool;
+    private final int data;
+
+    private JarIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.strings = buffer.getInt(32);
+        this.classes = buffer.getInt(36);
+        int poolSize = buffer.getInt(40);
+        this.nameCount = buffer.getInt(44);
+        int relationPoolSize = buffer.getInt(48);
+        this.stringOffsets = HEADER;
+        this.records = this.stringOffsets + (this.strings + 1) * 4;
+        this.pool = this.records + this.classes * RECORD * 4;
+        this.names = this.pool + poolSize * 4;
+        this.relations = this.names + this.nameCount * 4;
+        this.relationPool = this.relations + RELATIONS * (this.strings + 1) * 4;
+        this.data = this.relationPool + relationPoolSize * 4;
+    }
+
+    static long[] key(File jar) throws IOException {
+        long crc = -1;
+        ZipDirectory directory = ZipDirectory.open(jar);
+        if (directory != null) {
+            CRC32 checksum = new CRC32();
+            checksum.update(directory.directory());
+            crc = checksum.getValue();
+        }
+        return new long[]{jar.length(), jar.lastModified(), crc};
+    }
+
+    static JarIndex read(File file, long[] key) throws IOException {
+        if (!file.isFile()) return null;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER) return null;
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) return null;
+            if (buffer.getLong(8) != key[0] || buffer.getLong(16) != key[1] || buffer.getLong(24) != key[2]) return null;
+            return intact(buffer) ? new JarIndex(buffer) : null;
+        }
+    }
+
+    // A truncated or otherwise damaged file is treated like a missing one and rebuilt: every section has to
+    // fit in the file, neither the string nor the relation offsets may run backwards or past their pool, and
+    // the string data ends exactly at its end.
+    private static boolean intact(ByteBuffer buffer) {
+        long strings = buffer.getInt(32);
+        long classes = buffer.getInt(36);
+        long poolSize = buffer.getInt(40);
+        long nameCount = buffer.getInt(44);
+        long relationPoolSize = buffer.getInt(48);
+        if (strings < 0 || classes < 0 || poolSize < 0 || nameCount < 0 || relationPoolSize < 0) return false;
+        long relations = HEADER + (strings + 1 + classes * RECORD + poolSize + nameCount) * 4;
+        long data = relations + (RELATIONS * (strings + 1) + relationPoolSize) * 4;
+        if (data > buffer.capacity()) return false;
+        int last = 0;
+        for (long i = 0; i < RELATIONS * (strings + 1); i++) {
+            int offset = buffer.getInt((int) (relations + i * 4));
+            if (offset < last) return false;
+            last = offset;
+        }
+        if (last != relationPoolSize) return false;
+        int previous = 0;
+        for (int i = 0; i <= strings; i++) {
+            int offset = buffer.getInt(HEADER + i * 4);
+            if (offset < previous) return false;
+            previous = offset;
+        }
+        return data + previous == buffer.capacity();
+    }
+
+    static void write(File file, long[] key, Collection<String> names, Collection<ReflectClassFile> classFiles) throws IOException {
+        TreeSet<String> sorted = new TreeSet<>(names);
+        for (ReflectClassFile classFile : classFiles) {
+            sorted.add(classFile.getName());
+            if (classFile.getSuperName() != null) sorted.add(classFile.getSuperName());
+            sorted.addAll(classFile.getInterfaces());
+            sorted.addAll(classFile.getAnnotations());
+            sorted.addAll(classFile.getFieldAnnotations());
+            sorted.addAll(classFile.getMethodAnnotations());
+        }
+        Map<String, Integer> indices = new HashMap<>();
+        List<byte[]> encoded = new ArrayList<>(sorted.size());
+        for (String string : sorted) {
+            indices.put(string, encoded.size());
+            encoded.add(string.getBytes(StandardCharsets.UTF_8));
+        }
+        List<Integer> pool = new ArrayList<>();
+        List<int[]> records = new ArrayList<>(classFiles.size());
+        for (ReflectClassFile classFile : classFiles) {
+            int[] record = new int[RECORD];
+            record[0] = indices.get(classFile.getName());
+            record[1] = classFile.modifiers();
+            record[2] = classFile.getSuperName() == null ? -1 : indices.get(classFile.getSuperName());
+            record[INTERFACES] = pool.size();
+            classFile.getInterfaces().forEach(name -> pool.add(indices.get(name)));
+            record[ANNOTATIONS] = pool.size();
+            classFile.getAnnotations().forEach(name -> pool.add(indices.get(name)));
+            record[FIELD_ANNOTATIONS] = pool.size();
+            classFile.getFieldAnnotations().forEach(name -> pool.add(indices.get(name)));
+            record[METHOD_ANNOTATIONS] = pool.size();
+            classFile.getMethodAnnotations().forEach(name -> pool.add(indices.get(name)));
+            record[END] = pool.size();
+            records.add(record);
+        }
+        List<List<List<Integer>>> relations = new ArrayList<>(RELATIONS);
+        for (int i = 0; i < RELATIONS; i++) {
+            relations.add(new ArrayList<>(Collections.nCopies(encoded.size(), null)));
+        }
+        for (int[] record : records) {
+            int name = record[0];
+            if (record[2] >= 0) relate(relations.get(SUBTYPES), record[2], name);
+            for (int i = record[INTERFACES]; i < record[ANNOTATIONS]; i++) {
+                relate(relations.get(SUBTYPES), pool.get(i), name);
+            }
+            for (int from = ANNOTATIONS; from < END; from++) {
+                for (int i = record[from]; i < record[from + 1]; i++) {
+                    relate(relations.get(from - ANNOTATIONS + 1), pool.get(i), name);
+                }
+            }
+        }
+        int relationPoolSize = 0;
+        for (List<List<Integer>> relation : relations) {
+            for (List<Integer> values : relation) {
+                if (values != null) relationPoolSize += values.size();
+            }
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        File temporary = File.createTempFile(file.getName(), ".tmp", parent);
+        try (OutputStream stream = Files.newOutputStream(temporary.toPath());
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(key[0]);
+            output.writeLong(key[1]);
+            output.writeLong(key[2]);
+            output.writeInt(encoded.size());
+            output.writeInt(records.size());
+            output.writeInt(pool.size());
+            output.writeInt(names.size());
+            output.writeInt(relationPoolSize);
+            int offset = 0;
+            for (byte[] bytes : encoded) {
+                output.writeInt(offset);
+                offset += bytes.length;
+            }
+            output.writeInt(offset);
+            for (int[] record : records) {
+                for (int value : record) {
+                    output.writeInt(value);
+                }
+            }
+            for (int value : pool) {
+                output.writeInt(value);
+            }
+            for (String name : names) {
+                output.writeInt(indices.get(name));
+            }
+            int related = 0;
+            for (List<List<Integer>> relation : relations) {
+                for (List<Integer> values : relation) {
+                    output.writeInt(related);
+                    if (values != null) related += values.size();
+                }
+                output.writeInt(related);
+            }
+            for (List<List<Integer>> relation : relations) {
+                for (List<Integer> values : relation) {
+                    if (values == null) continue;
+                    for (int value : values) {
+                        output.writeInt(value);
+                    }
+                }
+            }
+            for (byte[] bytes : encoded) {
+                output.write(bytes);
+            }
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void relate(List<List<Integer>> relation, int key, int name) {
+        List<Integer> values = relation.get(key);
+        if (values == null) relation.set(key, values = new ArrayList<>());
+        if (!values.contains(name)) values.add(name);
+    }
+
+    int size() {
+        return this.classes;
+    }
+
+    String string(int index) {
+        int start = this.buffer.getInt(this.stringOffsets + index * 4);
+        int end = this.buffer.getInt(this.stringOffsets + index * 4 + 4);
+        byte[] bytes = new byte[end - start];
+        this.buffer.get(this.data + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    int indexOf(String string) {
+        int low = 0;
+        int high = this.strings - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compare = this.string(middle).compareTo(string);
+            if (compare < 0) low = middle + 1;
+            else if (compare > 0) high = middle - 1;
+            else return middle;
+        }
+        return -1;
+    }
+
+    private int record(int clazz, int field) {
+        return this.buffer.getInt(this.records + (clazz * RECORD + field) * 4);
+    }
+
+    private int poolValue(int index) {
+        return this.buffer.getInt(this.pool + index * 4);
+    }
+
+    private Set<String> strings(int clazz, int from) {
+        int end = this.record(clazz, from + 1);
+        Set<String> strings = new LinkedHashSet<>();
+        for (int i = this.record(clazz, from); i < end; i++) {
+            strings.add(this.string(this.poolValue(i)));
+        }
+        return Collections.unmodifiableSet(strings);
+    }
+
+    String name(int clazz) {
+        return this.string(this.record(clazz, 0));
+    }
+
+    List<String> names() {
+        return IntStream.range(0, this.nameCount)
+                .mapToObj(i -> this.string(this.buffer.getInt(this.names + i * 4)))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    ReflectClassFile classFile(int clazz) {
+        int superIndex = this.record(clazz, 2);
+        return new ReflectClassFile(this.name(clazz), this.record(clazz, 1),
+                superIndex < 0 ? null : this.string(superIndex),
+                List.copyOf(this.strings(clazz, INTERFACES)),
+                this.strings(clazz, ANNOTATIONS),
+                this.strings(clazz, FIELD_ANNOTATIONS),
+                this.strings(clazz, METHOD_ANNOTATIONS));
+    }
+
+    Map<String, ReflectClassFile> classFiles() {
+        Map<String, ReflectClassFile> classFiles = new LinkedHashMap<>();
+        for (int i = 0; i < this.classes; i++) {
+            ReflectClassFile classFile = this.classFile(i);
+            classFiles.put(classFile.getName(), classFile);
+        }
+        return Collections.unmodifiableMap(classFiles);
+    }
+
+    private int relationOffset(int relation, int string) {
+        return this.buffer.getInt(this.relations + (relation * (this.strings + 1) + string) * 4);
+    }
+
+    private int relationValue(int index) {
+        return this.buffer.getInt(this.relationPool + index * 4);
+    }
+
+    private Set<String> annotated(int from, String annotation) {
+        int string = this.indexOf(annotation);
+        if (string < 0) return Set.of();
+        int relation = from - ANNOTATIONS + 1;
+        int end = this.relationOffset(relation, string + 1);
+        Set<String> names = new HashSet<>();
+        for (int i = this.relationOffset(relation, string); i < end; i++) {
+            names.add(this.string(this.relationValue(i)));
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    Set<String> annotated(String annotation) {
+        return this.annotated(ANNOTATIONS, annotation);
+    }
+
+    Set<String> fieldsAnnotated(String annotation) {
+        return this.annotated(FIELD_ANNOTATIONS, annotation);
+    }
+
+    Set<String> methodsAnnotated(String annotation) {
+        return this.annotated(METHOD_ANNOTATIONS, annotation);
+    }
+
+    Set<String> subtypes(String type) {
+        int root = this.indexOf(type);
+        if (root < 0) return Set.of();
+        BitSet visited = new BitSet(this.strings);
+        int[] stack = new int[16];
+        int size = 0;
+        Set<String> result = new HashSet<>();
+        stack[size++] = root;
+        while (size > 0) {
+            int supertype = stack[--size];
+            int end = this.relationOffset(SUBTYPES, supertype + 1);
+            for (int i = this.relationOffset(SUBTYPES, supertype); i < end; i++) {
+                int name = this.relationValue(i);
+                if (visited.get(name)) continue;
+                visited.set(name);
+                result.add(this.string(name));
+                if (size == stack.length) stack = Arrays.copyOf(stack, size * 2);
+                stack[size++] = name;
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+}
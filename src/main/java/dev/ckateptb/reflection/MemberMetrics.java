@@ -0,0 +1,188 @@
+package dev.ckateptb.reflection;
+
+import java.lang.reflect.Member;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class MemberMetrics {
+    // Log-linear buckets: one group per power of two, split into SUB_BUCKETS linear slices,
+    // so every recorded latency lands within 25% of its bucket's upper bound.
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final Member member;
+    private final Operation operation;
+    final int generation;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    MemberMetrics(Member member, Operation operation, int generation) {
+        this.member = member;
+        this.operation = operation;
+        this.generation = generation;
+    }
+
+    public Member getMember() {
+        return this.member;
+    }
+
+    public Operation getOperation() {
+        return this.operation;
+    }
+
+    void record(long nanos) {
+        this.count.increment();
+        this.totalNanos.add(nanos);
+        this.maxNanos.accumulate(nanos);
+        this.buckets.incrementAndGet(bucket(nanos));
+    }
+
+    void error() {
+        this.errors.increment();
+    }
+
+    // Combines two metrics of the same member into a new instance that is not tracked.
+    MemberMetrics merge(MemberMetrics other) {
+        MemberMetrics merged = new MemberMetrics(this.member, this.operation, this.generation);
+        for (MemberMetrics metrics : new MemberMetrics[]{this, other}) {
+            merged.count.add(metrics.count.sum());
+            merged.errors.add(metrics.errors.sum());
+            merged.totalNanos.add(metrics.totalNanos.sum());
+            merged.maxNanos.accumulate(metrics.maxNanos.get());
+            for (int i = 0; i < BUCKETS; i++) {
+                merged.buckets.addAndGet(i, metrics.buckets.get(i));
+            }
+        }
+        return merged;
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+        int slice = (int) (nanos >>> exponent) & (SUB_BUCKETS - 1);
+        return (exponent + 1) * SUB_BUCKETS + slice;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS - 1;
+        long slice = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + slice + 1) << exponent) - 1;
+    }
+
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long recorded = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            recorded += buckets[i] = this.buckets.get(i);
+        }
+        long max = this.maxNanos.get();
+        return new Snapshot(this.member.toString(), this.operation.name(),
+                this.count.sum(), this.errors.sum(), this.totalNanos.sum(), max,
+                percentile(buckets, recorded, 0.50, max), percentile(buckets, recorded, 0.90, max),
+                percentile(buckets, recorded, 0.99, max));
+    }
+
+    private static long percentile(long[] buckets, long recorded, double percentile, long max) {
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(recorded * percentile);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public enum Operation {
+        INVOKE,
+        INSTANTIATE,
+        GET,
+        SET
+    }
+
+    public static final class Snapshot {
+        private final String member;
+        private final String operation;
+        private final long count;
+        private final long errors;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long p50Nanos;
+        private final long p90Nanos;
+        private final long p99Nanos;
+
+        private Snapshot(String member, String operation, long count, long errors, long totalNanos,
+                         long maxNanos, long p50Nanos, long p90Nanos, long p99Nanos) {
+            this.member = member;
+            this.operation = operation;
+            this.count = count;
+            this.errors = errors;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+        }
+
+        public String getMember() {
+            return this.member;
+        }
+
+        public String getOperation() {
+            return this.operation;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public long getErrors() {
+            return this.errors;
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        public long getMeanNanos() {
+            return this.count == 0 ? 0 : this.totalNanos / this.count;
+        }
+
+        public long getMaxNanos() {
+            return this.maxNanos;
+        }
+
+        public long getP50Nanos() {
+            return this.p50Nanos;
+        }
+
+        public long getP90Nanos() {
+            return this.p90Nanos;
+        }
+
+        public long getP99Nanos() {
+            return this.p99Nanos;
+        }
+
+        @Override
+        public String toString() {
+            return this.member + " " + this.operation + " count=" + this.count + " errors=" + this.errors
+                    + " mean=" + this.getMeanNanos() + "ns p50=" + this.p50Nanos + "ns p90=" + this.p90Nanos
+                    + "ns p99=" + this.p99Nanos + "ns max=" + this.maxNanos + "ns";
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package dev.ckateptb.reflection;
+
+import lombok.SneakyThrows;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class MethodInvoker<R> {
+    private final Method method;
+    private final MethodHandle direct;
+    private final MethodHandle exact;
+    private final MethodHandle spreader;
+    private final int arity;
+    private final Map<Class<?>, Object> lambdas = new ConcurrentHashMap<>();
+
+    @SneakyThrows
+    MethodInvoker(Method method) {
+        this.method = method;
+        this.arity = method.getParameterCount();
+        this.direct = ReflectLookup.unreflect(method);
+        MethodHandle handle = this.direct;
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        this.exact = handle.asType(MethodType.genericMethodType(this.arity + 1));
+        this.spreader = this.exact.asSpreader(Object[].class, this.arity);
+    }
+
+    public Method getMethod() {
+        return this.method;
+    }
+
+    public int arity() {
+        return this.arity;
+    }
+
+    public MethodHandle handle() {
+        return this.direct;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <F> F lambda(Class<F> functionalInterface) {
+        return (F) this.lambdas.computeIfAbsent(functionalInterface,
+                type -> ReflectLookup.lambda(type, this.method.getDeclaringClass(), this.direct));
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public R invoke(Object target) {
+        if (this.arity != 0) return this.invokeWithArguments(target);
+        return (R) (Object) this.exact.invokeExact(target);
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public R invoke(Object target, Object a) {
+        if (this.arity != 1) return this.invokeWithArguments(target, a);
+        return (R) (Object) this.exact.invokeExact(target, a);
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public R invoke(Object target, Object a, Object b) {
+        if (this.arity != 2) return this.invokeWithArguments(target, a, b);
+        return (R) (Object) this.exact.invokeExact(target, a, b);
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public R invoke(Object target, Object a, Object b, Object c) {
+        if (this.arity != 3) return this.invokeWithArguments(target, a, b, c);
+        return (R) (Object) this.exact.invokeExact(target, a, b, c);
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public R invoke(Object target, Object a, Object b, Object c, Object d) {
+        if (this.arity != 4) return this.invokeWithArguments(target, a, b, c, d);
+        return (R) (Object) this.exact.invokeExact(target, a, b, c, d);
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public R invokeWithArguments(Object target, Object... args) {
+        return (R) (Object) this.spreader.invokeExact(target, args);
+    }
+}
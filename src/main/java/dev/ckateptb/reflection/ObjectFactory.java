@@ -0,0 +1,6 @@
+package dev.ckateptb.reflection;
+
+@FunctionalInterface
+public interface ObjectFactory<T> {
+    T newInstance(Object... args);
+}
@@ -0,0 +1,547 @@
+package dev.ckateptb.reflection;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Deep operations over object graphs. Every traversal runs on an explicit stack with an identity-based
+// visited set, so depth is bounded by the heap rather than the thread stack and cycles are visited once.
+// Field access goes through the per-class GraphPlan cached on ReflectClass.
+public final class ObjectGraph {
+    private static final int SPLIT_THRESHOLD = 256;
+    // Stands in for a record copy until its components have copies to construct it from.
+    private static final Object PENDING = new Object();
+
+    private ObjectGraph() {
+    }
+
+    private static GraphPlan plan(Class<?> type) {
+        return Reflect.classOf(type).graphPlan();
+    }
+
+    public static void walk(Object root, Consumer<Object> visitor) {
+        if (root == null) {
+            return;
+        }
+        IdentityTable visited = new IdentityTable();
+        Deque<Object> stack = new ArrayDeque<>();
+        visited.add(root);
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Object object = stack.pop();
+            visitor.accept(object);
+            GraphPlan plan = plan(object.getClass());
+            children(object, plan, child -> {
+                if (visited.add(child)) {
+                    stack.push(child);
+                }
+            });
+        }
+    }
+
+    // Independent subgraphs are split off into forked tasks while the pool has idle workers. The visitor
+    // is called concurrently and must be thread-safe.
+    public static void walk(Object root, Consumer<Object> visitor, ForkJoinPool pool) {
+        if (root == null) {
+            return;
+        }
+        Set<Identity> visited = ConcurrentHashMap.newKeySet();
+        visited.add(new Identity(root));
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push(root);
+        pool.invoke(new Walk(stack, visited, visitor));
+    }
+
+    public static long shallowSize(Object object) {
+        if (object == null) {
+            return 0;
+        }
+        Class<?> type = object.getClass();
+        return type.isArray() ? GraphPlan.arraySize(type.getComponentType(), Array.getLength(object)) : plan(type).shallowSize;
+    }
+
+    public static long retainedSize(Object root) {
+        long[] size = new long[1];
+        walk(root, object -> size[0] += footprint(object));
+        return size[0];
+    }
+
+    public static long retainedSize(Object root, ForkJoinPool pool) {
+        LongAdder size = new LongAdder();
+        walk(root, object -> size.add(footprint(object)), pool);
+        return size.sum();
+    }
+
+    // Library collections and strings are opaque, so their backing arrays and entry nodes are estimated
+    // from the element count instead of being walked.
+    private static long footprint(Object object) {
+        long size = shallowSize(object);
+        if (object instanceof String string) {
+            size += GraphPlan.arraySize(byte.class, string.length());
+        } else {
+            GraphPlan.Kind kind = object.getClass().isArray() ? GraphPlan.Kind.ARRAY : plan(object.getClass()).kind;
+            if (kind == GraphPlan.Kind.COLLECTION) {
+                size += GraphPlan.arraySize(Object.class, ((Collection<?>) object).size());
+            } else if (kind == GraphPlan.Kind.MAP) {
+                int entries = ((Map<?, ?>) object).size();
+                size += GraphPlan.arraySize(Object.class, entries)
+                        + entries * GraphPlan.align(GraphPlan.HEADER + 3L * GraphPlan.REFERENCE + 4);
+            }
+        }
+        return size;
+    }
+
+    private static void children(Object object, GraphPlan plan, Consumer<Object> consumer) {
+        switch (plan.kind) {
+            case OBJECT -> {
+                for (FieldAccessor accessor : plan.referenceAccessors) {
+                    Object child = accessor.getObject(object);
+                    if (child != null) consumer.accept(child);
+                }
+            }
+            case ARRAY -> {
+                if (object instanceof Object[] array) {
+                    for (Object child : array) {
+                        if (child != null) consumer.accept(child);
+                    }
+                }
+            }
+            case COLLECTION -> {
+                for (Object child : (Collection<?>) object) {
+                    if (child != null) consumer.accept(child);
+                }
+            }
+            case MAP -> {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                    if (entry.getKey() != null) consumer.accept(entry.getKey());
+                    if (entry.getValue() != null) consumer.accept(entry.getValue());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Three passes: allocate a shell for every reachable object, fill plain objects and arrays, then fill
+    // collections in reverse discovery order so hash-based containers see fully built elements. Records are
+    // constructed between the first two passes, once every object they reference has a shell.
+    // Values (strings, boxes, enums and opaque library types) are shared with the original, except
+    // the mutable JDK values GraphPlan knows how to copy: atomic numbers and booleans, string builders, dates,
+    // calendars and bit sets. Other mutable library types, such as AtomicReference, stay shared.
+    @SuppressWarnings("unchecked")
+    public static <T> T deepClone(T root) {
+        if (root == null) {
+            return null;
+        }
+        IdentityTable copies = new IdentityTable();
+        List<Object> order = new ArrayList<>();
+        Deque<Object> stack = new ArrayDeque<>();
+        Consumer<Object> discover = object -> {
+            if (copies.get(object) == null) {
+                Object copy = shell(object);
+                copies.putIfAbsent(object, copy);
+                if (copy != object) {
+                    order.add(object);
+                    stack.push(object);
+                }
+            }
+        };
+        discover.accept(root);
+        while (!stack.isEmpty()) {
+            Object object = stack.pop();
+            children(object, plan(object.getClass()), discover);
+        }
+        construct(order, copies);
+        for (Object original : order) {
+            Object copy = copies.get(original);
+            if (original instanceof Object[] array) {
+                Object[] target = (Object[]) copy;
+                for (int i = 0; i < array.length; i++) {
+                    target[i] = resolve(copies, array[i]);
+                }
+            } else if (!original.getClass().isArray()) {
+                GraphPlan plan = plan(original.getClass());
+                if (plan.kind == GraphPlan.Kind.OBJECT && plan.canonical == null) {
+                    fill(plan, original, copy, copies);
+                }
+            }
+        }
+        for (int i = order.size() - 1; i >= 0; i--) {
+            Object original = order.get(i);
+            if (original instanceof Collection<?> collection && !original.getClass().isArray()
+                    && plan(original.getClass()).kind == GraphPlan.Kind.COLLECTION) {
+                Collection<Object> target = (Collection<Object>) copies.get(original);
+                for (Object element : collection) {
+                    target.add(resolve(copies, element));
+                }
+            } else if (original instanceof Map<?, ?> map && plan(original.getClass()).kind == GraphPlan.Kind.MAP) {
+                Map<Object, Object> target = (Map<Object, Object>) copies.get(original);
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    target.put(resolve(copies, entry.getKey()), resolve(copies, entry.getValue()));
+                }
+            }
+        }
+        return (T) copies.get(root);
+    }
+
+    private static Object shell(Object object) {
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            if (type.getComponentType().isPrimitive()) {
+                int length = Array.getLength(object);
+                Object copy = Array.newInstance(type.getComponentType(), length);
+                System.arraycopy(object, 0, copy, 0, length);
+                return copy;
+            }
+            return Array.newInstance(type.getComponentType(), ((Object[]) object).length);
+        }
+        GraphPlan plan = plan(type);
+        return switch (plan.kind) {
+            case OBJECT -> plan.canonical != null ? PENDING : plan.allocator.get();
+            case COLLECTION, MAP -> plan.emptyCopy.apply(object);
+            default -> plan.valueCopy == null ? object : plan.valueCopy.apply(object);
+        };
+    }
+
+    // A record component that is itself a pending record is constructed first. Records only reference objects
+    // that existed before them, so there are no cycles among records and the stack always drains.
+    private static void construct(List<Object> order, IdentityTable copies) {
+        Deque<Object> stack = new ArrayDeque<>();
+        for (Object original : order) {
+            if (copies.get(original) != PENDING) continue;
+            stack.push(original);
+            while (!stack.isEmpty()) {
+                Object record = stack.peek();
+                GraphPlan plan = plan(record.getClass());
+                Object[] values = new Object[plan.components.length];
+                boolean ready = true;
+                for (int i = 0; i < values.length; i++) {
+                    Object value = resolve(copies, plan.components[i].getValue(record));
+                    if (value == PENDING) {
+                        stack.push(plan.components[i].getValue(record));
+                        ready = false;
+                    }
+                    values[i] = value;
+                }
+                if (ready) {
+                    stack.pop();
+                    if (copies.get(record) == PENDING) {
+                        copies.replace(record, plan.canonical.invoker().newInstanceWithArguments(values));
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object resolve(IdentityTable copies, Object object) {
+        if (object == null) {
+            return null;
+        }
+        Object copy = copies.get(object);
+        return copy == null ? object : copy;
+    }
+
+    // Final fields cannot be written through a VarHandle and take the reflective, boxed path instead.
+    private static void fill(GraphPlan plan, Object original, Object copy, IdentityTable copies) {
+        for (int i = 0; i < plan.primitives.length; i++) {
+            FieldAccessor accessor = plan.primitiveAccessors[i];
+            if (plan.primitives[i].isFinal()) {
+                plan.primitives[i].setValue(copy, plan.primitives[i].getValue(original));
+                continue;
+            }
+            switch (plan.primitiveKinds[i]) {
+                case BOOLEAN -> accessor.setBoolean(copy, accessor.getBoolean(original));
+                case BYTE -> accessor.setByte(copy, accessor.getByte(original));
+                case CHAR -> accessor.setChar(copy, accessor.getChar(original));
+                case SHORT -> accessor.setShort(copy, accessor.getShort(original));
+                case INT -> accessor.setInt(copy, accessor.getInt(original));
+                case LONG -> accessor.setLong(copy, accessor.getLong(original));
+                case FLOAT -> accessor.setFloat(copy, accessor.getFloat(original));
+                case DOUBLE -> accessor.setDouble(copy, accessor.getDouble(original));
+                default -> throw new IllegalStateException();
+            }
+        }
+        for (int i = 0; i < plan.references.length; i++) {
+            Object value = resolve(copies, plan.referenceAccessors[i].getObject(original));
+            if (plan.references[i].isFinal()) {
+                plan.references[i].setValue(copy, value);
+            } else {
+                plan.referenceAccessors[i].setObject(copy, value);
+            }
+        }
+    }
+
+    // Paired traversal of both graphs. Lists and arrays are compared by index, maps by key; other
+    // collections and values fall back to equals. Paths are linked to their parent pair and only
+    // rendered for reported differences, so long chains do not build long strings per step. Visited pairs
+    // are tracked as left object -> identity set of right objects, because cycles of different lengths on
+    // either side pair one left object with several right ones before the pairs repeat.
+    public static List<Difference> diff(Object left, Object right) {
+        List<Difference> differences = new ArrayList<>();
+        IdentityTable visited = new IdentityTable();
+        Deque<Pair> stack = new ArrayDeque<>();
+        stack.push(new Pair(null, "$", false, left, right));
+        while (!stack.isEmpty()) {
+            Pair pair = stack.pop();
+            Object a = pair.left;
+            Object b = pair.right;
+            if (a == b) {
+                continue;
+            }
+            if (a == null || b == null) {
+                differences.add(new Difference(pair.path(), a, b));
+                continue;
+            }
+            if (a.getClass() != b.getClass()) {
+                diffContainers(pair, a, b, differences, stack);
+                continue;
+            }
+            IdentityTable rights = (IdentityTable) visited.get(a);
+            if (rights == null) {
+                rights = new IdentityTable();
+                visited.putIfAbsent(a, rights);
+            }
+            if (!rights.add(b)) {
+                continue;
+            }
+            Class<?> type = a.getClass();
+            if (type.isArray()) {
+                diffArrays(pair, a, b, differences, stack);
+                continue;
+            }
+            GraphPlan plan = plan(type);
+            switch (plan.kind) {
+                case OBJECT -> diffObjects(pair, plan, a, b, differences, stack);
+                case MAP -> diffMaps(pair, (Map<?, ?>) a, (Map<?, ?>) b, differences, stack);
+                case COLLECTION -> {
+                    if (a instanceof List<?> first && b instanceof List<?> second) {
+                        diffLists(pair, first, second, differences, stack);
+                    } else if (!a.equals(b)) {
+                        differences.add(new Difference(pair.path(), a, b));
+                    }
+                }
+                default -> {
+                    if (!GraphPlan.equalValues(a, b)) {
+                        differences.add(new Difference(pair.path(), a, b));
+                    }
+                }
+            }
+        }
+        return differences;
+    }
+
+    // A clone may rebuild an immutable collection as a mutable one, so lists, sets and maps of different
+    // classes are still compared by content. Any other class mismatch is a difference in itself.
+    private static void diffContainers(Pair pair, Object a, Object b, List<Difference> differences, Deque<Pair> stack) {
+        if (a instanceof List<?> first && b instanceof List<?> second) {
+            diffLists(pair, first, second, differences, stack);
+        } else if (a instanceof Map<?, ?> first && b instanceof Map<?, ?> second) {
+            diffMaps(pair, first, second, differences, stack);
+        } else if (!(a instanceof Set<?> && b instanceof Set<?> && a.equals(b))) {
+            differences.add(new Difference(pair.path(), a, b));
+        }
+    }
+
+    private static void diffArrays(Pair pair, Object a, Object b, List<Difference> differences, Deque<Pair> stack) {
+        int length = Array.getLength(a);
+        int other = Array.getLength(b);
+        if (length != other) {
+            differences.add(new Difference(pair.path() + ".length", length, other));
+        }
+        boolean primitive = a.getClass().getComponentType().isPrimitive();
+        for (int i = Math.min(length, other) - 1; i >= 0; i--) {
+            Object first = Array.get(a, i);
+            Object second = Array.get(b, i);
+            if (!primitive) {
+                stack.push(new Pair(pair, i, true, first, second));
+            } else if (!first.equals(second)) {
+                differences.add(new Difference(pair.path() + "[" + i + "]", first, second));
+            }
+        }
+    }
+
+    private static void diffLists(Pair pair, List<?> a, List<?> b, List<Difference> differences, Deque<Pair> stack) {
+        if (a.size() != b.size()) {
+            differences.add(new Difference(pair.path() + ".size", a.size(), b.size()));
+        }
+        List<Pair> pairs = new ArrayList<>();
+        Iterator<?> first = a.iterator();
+        Iterator<?> second = b.iterator();
+        for (int i = 0; first.hasNext() && second.hasNext(); i++) {
+            pairs.add(new Pair(pair, i, true, first.next(), second.next()));
+        }
+        for (int i = pairs.size() - 1; i >= 0; i--) {
+            stack.push(pairs.get(i));
+        }
+    }
+
+    private static void diffMaps(Pair pair, Map<?, ?> a, Map<?, ?> b, List<Difference> differences, Deque<Pair> stack) {
+        for (Map.Entry<?, ?> entry : a.entrySet()) {
+            if (!b.containsKey(entry.getKey())) {
+                differences.add(new Difference(pair.path() + "[" + entry.getKey() + "]", entry.getValue(), null));
+            } else {
+                stack.push(new Pair(pair, entry.getKey(), true, entry.getValue(), b.get(entry.getKey())));
+            }
+        }
+        for (Map.Entry<?, ?> entry : b.entrySet()) {
+            if (!a.containsKey(entry.getKey())) {
+                differences.add(new Difference(pair.path() + "[" + entry.getKey() + "]", null, entry.getValue()));
+            }
+        }
+    }
+
+    private static void diffObjects(Pair pair, GraphPlan plan, Object a, Object b, List<Difference> differences, Deque<Pair> stack) {
+        for (int i = 0; i < plan.primitives.length; i++) {
+            FieldAccessor accessor = plan.primitiveAccessors[i];
+            boolean equal = switch (plan.primitiveKinds[i]) {
+                case BOOLEAN -> accessor.getBoolean(a) == accessor.getBoolean(b);
+                case BYTE -> accessor.getByte(a) == accessor.getByte(b);
+                case CHAR -> accessor.getChar(a) == accessor.getChar(b);
+                case SHORT -> accessor.getShort(a) == accessor.getShort(b);
+                case INT -> accessor.getInt(a) == accessor.getInt(b);
+                case LONG -> accessor.getLong(a) == accessor.getLong(b);
+                case FLOAT -> Float.compare(accessor.getFloat(a), accessor.getFloat(b)) == 0;
+                case DOUBLE -> Double.compare(accessor.getDouble(a), accessor.getDouble(b)) == 0;
+                default -> throw new IllegalStateException();
+            };
+            if (!equal) {
+                differences.add(new Difference(pair.path() + "." + plan.primitives[i].getName(),
+                        accessor.getObject(a), accessor.getObject(b)));
+            }
+        }
+        for (int i = plan.references.length - 1; i >= 0; i--) {
+            FieldAccessor accessor = plan.referenceAccessors[i];
+            stack.push(new Pair(pair, plan.references[i].getName(), false, accessor.getObject(a), accessor.getObject(b)));
+        }
+    }
+
+    public static final class Difference {
+        private final String path;
+        private final Object left;
+        private final Object right;
+
+        private Difference(String path, Object left, Object right) {
+            this.path = path;
+            this.left = left;
+            this.right = right;
+        }
+
+        public String getPath() {
+            return this.path;
+        }
+
+        public Object getLeft() {
+            return this.left;
+        }
+
+        public Object getRight() {
+            return this.right;
+        }
+
+        @Override
+        public String toString() {
+            return this.path + ": " + this.left + " -> " + this.right;
+        }
+    }
+
+    private static final class Pair {
+        private final Pair parent;
+        private final Object segment;
+        private final boolean indexed;
+        private final Object left;
+        private final Object right;
+
+        private Pair(Pair parent, Object segment, boolean indexed, Object left, Object right) {
+            this.parent = parent;
+            this.segment = segment;
+            this.indexed = indexed;
+            this.left = left;
+            this.right = right;
+        }
+
+        private String path() {
+            Deque<Pair> chain = new ArrayDeque<>();
+            for (Pair pair = this; pair != null; pair = pair.parent) {
+                chain.push(pair);
+            }
+            StringBuilder path = new StringBuilder();
+            for (Pair pair : chain) {
+                if (pair.parent == null) {
+                    path.append(pair.segment);
+                } else if (pair.indexed) {
+                    path.append('[').append(pair.segment).append(']');
+                } else {
+                    path.append('.').append(pair.segment);
+                }
+            }
+            return path.toString();
+        }
+    }
+
+    private static final class Identity {
+        private final Object object;
+
+        private Identity(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Identity identity && identity.object == this.object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.object);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Walk extends RecursiveAction {
+        private final Deque<Object> stack;
+        private final Set<Identity> visited;
+        private final Consumer<Object> visitor;
+
+        private Walk(Deque<Object> stack, Set<Identity> visited, Consumer<Object> visitor) {
+            this.stack = stack;
+            this.visited = visited;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected void compute() {
+            List<Walk> forks = new ArrayList<>();
+            Consumer<Object> push = child -> {
+                if (this.visited.add(new Identity(child))) {
+                    this.stack.push(child);
+                }
+            };
+            while (!this.stack.isEmpty()) {
+                if (this.stack.size() > SPLIT_THRESHOLD && getSurplusQueuedTaskCount() < 2) {
+                    Deque<Object> half = new ArrayDeque<>();
+                    for (int i = this.stack.size() / 2; i > 0; i--) {
+                        half.push(this.stack.pollLast());
+                    }
+                    Walk fork = new Walk(half, this.visited, this.visitor);
+                    fork.fork();
+                    forks.add(fork);
+                }
+                Object object = this.stack.pop();
+                this.visitor.accept(object);
+                children(object, plan(object.getClass()), push);
+            }
+            forks.forEach(Walk::join);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package dev.ckateptb.reflection;
+
+import lombok.SneakyThrows;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+// Structural equals/hashCode/toString/compare over a fixed set of fields. Each call is a loop over
+// exact-typed field getters with a primitive switch, so nothing is boxed; toString allocates only its builder.
+public final class ObjectStrategy<T> implements Comparator<T> {
+    private final Class<T> type;
+    private final Property[] properties;
+    private final String prefix;
+
+    private ObjectStrategy(Class<T> type, List<ReflectField> fields) {
+        this.type = type;
+        this.properties = fields.stream().map(Property::new).toArray(Property[]::new);
+        this.prefix = type.getSimpleName() + "[";
+    }
+
+    static <T> ObjectStrategy<T> create(Class<T> type) {
+        return new Builder<>(type).build();
+    }
+
+    public static <T> Builder<T> builder(Class<T> type) {
+        return new Builder<>(type);
+    }
+
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    public List<String> getFieldNames() {
+        return Arrays.stream(this.properties).map(property -> property.name).toList();
+    }
+
+    @SneakyThrows
+    public boolean equals(T first, Object second) {
+        if (first == second) return true;
+        if (first == null || second == null || first.getClass() != second.getClass()) return false;
+        for (Property property : this.properties) {
+            MethodHandle getter = property.getter;
+            boolean equal = switch (property.kind) {
+                case BOOLEAN -> (boolean) getter.invokeExact(first) == (boolean) getter.invokeExact(second);
+                case BYTE -> (byte) getter.invokeExact(first) == (byte) getter.invokeExact(second);
+                case CHAR -> (char) getter.invokeExact(first) == (char) getter.invokeExact(second);
+                case SHORT -> (short) getter.invokeExact(first) == (short) getter.invokeExact(second);
+                case INT -> (int) getter.invokeExact(first) == (int) getter.invokeExact(second);
+                case LONG -> (long) getter.invokeExact(first) == (long) getter.invokeExact(second);
+                case FLOAT -> Float.compare((float) getter.invokeExact(first), (float) getter.invokeExact(second)) == 0;
+                case DOUBLE -> Double.compare((double) getter.invokeExact(first), (double) getter.invokeExact(second)) == 0;
+                case OBJECT -> property.array
+                        ? Objects.deepEquals((Object) getter.invokeExact(first), (Object) getter.invokeExact(second))
+                        : Objects.equals((Object) getter.invokeExact(first), (Object) getter.invokeExact(second));
+            };
+            if (!equal) return false;
+        }
+        return true;
+    }
+
+    @SneakyThrows
+    public int hashCode(T object) {
+        if (object == null) return 0;
+        int hash = 1;
+        for (Property property : this.properties) {
+            MethodHandle getter = property.getter;
+            int value = switch (property.kind) {
+                case BOOLEAN -> Boolean.hashCode((boolean) getter.invokeExact(object));
+                case BYTE -> (byte) getter.invokeExact(object);
+                case CHAR -> (char) getter.invokeExact(object);
+                case SHORT -> (short) getter.invokeExact(object);
+                case INT -> (int) getter.invokeExact(object);
+                case LONG -> Long.hashCode((long) getter.invokeExact(object));
+                case FLOAT -> Float.hashCode((float) getter.invokeExact(object));
+                case DOUBLE -> Double.hashCode((double) getter.invokeExact(object));
+                case OBJECT -> property.array
+                        ? arrayHashCode((Object) getter.invokeExact(object))
+                        : Objects.hashCode((Object) getter.invokeExact(object));
+            };
+            hash = 31 * hash + value;
+        }
+        return hash;
+    }
+
+    // Renders records style: Type[first=1, second=value].
+    public String toString(T object) {
+        if (object == null) return "null";
+        return this.appendTo(new StringBuilder(this.prefix.length() + this.properties.length * 16), object).toString();
+    }
+
+    @SneakyThrows
+    public StringBuilder appendTo(StringBuilder builder, T object) {
+        if (object == null) return builder.append("null");
+        builder.append(this.prefix);
+        for (int i = 0; i < this.properties.length; i++) {
+            Property property = this.properties[i];
+            MethodHandle getter = property.getter;
+            if (i > 0) builder.append(", ");
+            builder.append(property.name).append('=');
+            switch (property.kind) {
+                case BOOLEAN -> builder.append((boolean) getter.invokeExact(object));
+                case BYTE -> builder.append((byte) getter.invokeExact(object));
+                case CHAR -> builder.append((char) getter.invokeExact(object));
+                case SHORT -> builder.append((short) getter.invokeExact(object));
+                case INT -> builder.append((int) getter.invokeExact(object));
+                case LONG -> builder.append((long) getter.invokeExact(object));
+                case FLOAT -> builder.append((float) getter.invokeExact(object));
+                case DOUBLE -> builder.append((double) getter.invokeExact(object));
+                case OBJECT -> {
+                    Object value = (Object) getter.invokeExact(object);
+                    if (property.array && value != null) {
+                        builder.append(arrayToString(value));
+                    } else {
+                        builder.append(value);
+                    }
+                }
+            }
+        }
+        return builder.append(']');
+    }
+
+    // Fields are compared in selection order. Nulls sort first; reference fields must hold Comparable values.
+    @Override
+    @SneakyThrows
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int compare(T first, T second) {
+        if (first == second) return 0;
+        if (first == null) return -1;
+        if (second == null) return 1;
+        for (Property property : this.properties) {
+            MethodHandle getter = property.getter;
+            int result = switch (property.kind) {
+                case BOOLEAN -> Boolean.compare((boolean) getter.invokeExact(first), (boolean) getter.invokeExact(second));
+                case BYTE -> Byte.compare((byte) getter.invokeExact(first), (byte) getter.invokeExact(second));
+                case CHAR -> Character.compare((char) getter.invokeExact(first), (char) getter.invokeExact(second));
+                case SHORT -> Short.compare((short) getter.invokeExact(first), (short) getter.invokeExact(second));
+                case INT -> Integer.compare((int) getter.invokeExact(first), (int) getter.invokeExact(second));
+                case LONG -> Long.compare((long) getter.invokeExact(first), (long) getter.invokeExact(second));
+                case FLOAT -> Float.compare((float) getter.invokeExact(first), (float) getter.invokeExact(second));
+                case DOUBLE -> Double.compare((double) getter.invokeExact(first), (double) getter.invokeExact(second));
+                case OBJECT -> {
+                    Object a = (Object) getter.invokeExact(first);
+                    Object b = (Object) getter.invokeExact(second);
+                    if (a == b) yield 0;
+                    if (a == null) yield -1;
+                    if (b == null) yield 1;
+                    yield property.array ? compareArrays(a, b) : ((Comparable) a).compareTo(b);
+                }
+            };
+            if (result != 0) return result;
+        }
+        return 0;
+    }
+
+    private static int arrayHashCode(Object array) {
+        if (array instanceof Object[] objects) return Arrays.deepHashCode(objects);
+        if (array instanceof int[] ints) return Arrays.hashCode(ints);
+        if (array instanceof long[] longs) return Arrays.hashCode(longs);
+        if (array instanceof byte[] bytes) return Arrays.hashCode(bytes);
+        if (array instanceof double[] doubles) return Arrays.hashCode(doubles);
+        if (array instanceof float[] floats) return Arrays.hashCode(floats);
+        if (array instanceof char[] chars) return Arrays.hashCode(chars);
+        if (array instanceof short[] shorts) return Arrays.hashCode(shorts);
+        if (array instanceof boolean[] booleans) return Arrays.hashCode(booleans);
+        return 0;
+    }
+
+    private static String arrayToString(Object array) {
+        if (array instanceof Object[] objects) return Arrays.deepToString(objects);
+        if (array instanceof int[] ints) return Arrays.toString(ints);
+        if (array instanceof long[] longs) return Arrays.toString(longs);
+        if (array instanceof byte[] bytes) return Arrays.toString(bytes);
+        if (array instanceof double[] doubles) return Arrays.toString(doubles);
+        if (array instanceof float[] floats) return Arrays.toString(floats);
+        if (array instanceof char[] chars) return Arrays.toString(chars);
+        if (array instanceof short[] shorts) return Arrays.toString(shorts);
+        return Arrays.toString((boolean[]) array);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareArrays(Object a, Object b) {
+        if (a instanceof int[] ints) return Arrays.compare(ints, (int[]) b);
+        if (a instanceof long[] longs) return Arrays.compare(longs, (long[]) b);
+        if (a instanceof byte[] bytes) return Arrays.compare(bytes, (byte[]) b);
+        if (a instanceof double[] doubles) return Arrays.compare(doubles, (double[]) b);
+        if (a instanceof float[] floats) return Arrays.compare(floats, (float[]) b);
+        if (a instanceof char[] chars) return Arrays.compare(chars, (char[]) b);
+        if (a instanceof short[] shorts) return Arrays.compare(shorts, (short[]) b);
+        if (a instanceof boolean[] booleans) return Arrays.compare(booleans, (boolean[]) b);
+        return Arrays.compare((Comparable[]) a, (Comparable[]) b);
+    }
+
+    private static final class Property {
+        private final String name;
+        private final MethodHandle getter;
+        private final FieldKind kind;
+        private final boolean array;
+
+        private Property(ReflectField field) {
+            this.name = field.getName();
+            this.kind = FieldKind.of(field.getType());
+            this.getter = field.varHandle().toMethodHandle(VarHandle.AccessMode.GET)
+                    .asType(MethodType.methodType(this.kind.type(), Object.class));
+            this.array = field.getType().isArray();
+        }
+    }
+
+    // Starts from every instance field that is not transient, in ReflectClass.getFields() order.
+    public static final class Builder<T> {
+        private final Class<T> type;
+        private final List<String> included = new ArrayList<>();
+        private final Set<String> excluded = new HashSet<>();
+        private final List<Class<? extends Annotation>> annotations = new ArrayList<>();
+        private int requiredModifiers;
+        private int excludedModifiers = Modifier.TRANSIENT;
+        private Predicate<ReflectField> filter = field -> true;
+
+        private Builder(Class<T> type) {
+            this.type = type;
+        }
+
+        // Restricts the strategy to these fields, compared and rendered in the given order.
+        public Builder<T> include(String... fields) {
+            this.included.addAll(List.of(fields));
+            return this;
+        }
+
+        public Builder<T> exclude(String... fields) {
+            this.excluded.addAll(List.of(fields));
+            return this;
+        }
+
+        public Builder<T> annotatedWith(Class<? extends Annotation> annotation) {
+            this.annotations.add(annotation);
+            return this;
+        }
+
+        public Builder<T> withModifiers(int modifiers) {
+            this.requiredModifiers |= modifiers;
+            return this;
+        }
+
+        // Replaces the default transient exclusion; static fields are never part of a strategy.
+        public Builder<T> withoutModifiers(int modifiers) {
+            this.excludedModifiers = modifiers;
+            return this;
+        }
+
+        public Builder<T> filter(Predicate<ReflectField> filter) {
+            this.filter = this.filter.and(filter);
+            return this;
+        }
+
+        public ObjectStrategy<T> build() {
+            ReflectClass<T> reflectClass = Reflect.classOf(this.type);
+            Map<String, ReflectField> candidates = new LinkedHashMap<>();
+            for (ReflectField field : reflectClass.getFields()) {
+                int modifiers = field.modifiers();
+                if (field.isStatic() || this.excluded.contains(field.getName())
+                        || (modifiers & this.requiredModifiers) != this.requiredModifiers
+                        || (modifiers & this.excludedModifiers) != 0
+                        || !this.annotations.stream().allMatch(field::isAnnotationPresent)
+                        || !this.filter.test(field)) {
+                    continue;
+                }
+                candidates.put(field.getName(), field);
+            }
+            if (this.included.isEmpty()) {
+                return new ObjectStrategy<>(this.type, List.copyOf(candidates.values()));
+            }
+            List<ReflectField> fields = new ArrayList<>();
+            for (String name : this.included) {
+                ReflectField field = candidates.get(name);
+                if (field == null) {
+                    throw new IllegalArgumentException(this.type.getName() + " has no selectable field " + name);
+                }
+                fields.add(field);
+            }
+            return new ObjectStrategy<>(this.type, fields);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package dev.ckateptb.reflection;
+
+import lombok.SneakyThrows;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static dev.ckateptb.reflection.ClassFileWriter.Code.*;
+
+// Duck-typed implementations of interfaces over a target. The mapping from interface methods to target
+// methods is resolved once per (target class, interfaces) against ReflectClass and compiled into a hidden
+// class that calls the target directly. The class is defined next to the target when a full-privilege
+// lookup is available, otherwise next to the interface; a java.lang.reflect.Proxy over the resolved
+// invokers is the last resort, used for classes of modules that did not register a lookup.
+final class ProxyGenerator {
+    private static final String PROXY_SUFFIX = "$$ReflectProxy";
+    private static final Method[] OBJECT_METHODS = objectMethods();
+
+    private final Class<?> targetClass;
+    private final boolean isStatic;
+    private final Class<?>[] interfaces;
+    private final List<Method> methods = new ArrayList<>();
+    private final List<ReflectMethod> mapping = new ArrayList<>();
+    private boolean conflicting;
+
+    private ProxyGenerator(ReflectClass<?> reflectClass, boolean isStatic, Class<?>[] interfaces) {
+        this.targetClass = reflectClass.get();
+        this.isStatic = isStatic;
+        this.interfaces = interfaces;
+        Map<Signature, Method> methods = new LinkedHashMap<>();
+        if (!isStatic) {
+            for (Method method : OBJECT_METHODS) {
+                methods.put(new Signature(method.getName(), method.getParameterTypes()), method);
+            }
+        }
+        for (Class<?> iface : interfaces) {
+            for (Method method : iface.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers())) continue;
+                Method existing = methods.putIfAbsent(new Signature(method.getName(), method.getParameterTypes()), method);
+                if (existing != null && existing.getReturnType() != method.getReturnType()) {
+                    this.conflicting = true;
+                }
+            }
+        }
+        for (Method method : methods.values()) {
+            this.methods.add(method);
+            this.mapping.add(resolve(reflectClass, method, isStatic));
+        }
+    }
+
+    static Factory create(ReflectClass<?> reflectClass, boolean isStatic, Class<?>[] interfaces) {
+        for (Class<?> iface : interfaces) {
+            if (!iface.isInterface()) {
+                throw new IllegalArgumentException(iface.getName() + " is not an interface");
+            }
+        }
+        ProxyGenerator generator = new ProxyGenerator(reflectClass, isStatic, interfaces);
+        Factory factory = null;
+        if (!generator.conflicting) {
+            factory = generator.define(generator.targetClass, MethodHandles.Lookup.ClassOption.NESTMATE);
+            if (factory == null) {
+                factory = generator.define(interfaces[0]);
+            }
+        }
+        return factory != null ? factory : generator.proxy();
+    }
+
+    private static ReflectMethod resolve(ReflectClass<?> reflectClass, Method method, boolean isStatic) {
+        ReflectMethod exact = reflectClass.getMethodByNameAndParams(method.getName(), method.getParameterTypes());
+        if (exact != null && matches(exact, method, isStatic)) {
+            return exact;
+        }
+        for (ReflectMethod candidate : reflectClass.getMethodsByName(method.getName())) {
+            if (candidate.getParameterCount() == method.getParameterCount() && matches(candidate, method, isStatic)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(ReflectMethod candidate, Method method, boolean isStatic) {
+        if (isStatic && !candidate.isStatic()) return false;
+        Class<?>[] parameters = method.getParameterTypes();
+        Class<?>[] targetParameters = candidate.getParameterTypes();
+        for (int i = 0; i < parameters.length; i++) {
+            if (!convertible(parameters[i], targetParameters[i])) return false;
+        }
+        return convertible(candidate.getReturnType(), method.getReturnType());
+    }
+
+    // Identity, boxing, unboxing and reference casts in either direction; no primitive widening.
+    private static boolean convertible(Class<?> from, Class<?> to) {
+        if (from == to || to == void.class) return true;
+        if (from == void.class) return false;
+        if (from.isPrimitive()) return !to.isPrimitive() && to.isAssignableFrom(ReflectLookup.box(from));
+        if (to.isPrimitive()) return from.isAssignableFrom(ReflectLookup.box(to));
+        return to.isAssignableFrom(from) || from.isAssignableFrom(to);
+    }
+
+    private static void convert(ClassFileWriter.Code code, Class<?> from, Class<?> to) {
+        if (from == to) return;
+        if (to == void.class) {
+            code.op(from == long.class || from == double.class ? POP2 : POP);
+        } else if (from.isPrimitive()) {
+            code.box(from);
+        } else if (to.isPrimitive()) {
+            code.unbox(to);
+        } else if (!to.isAssignableFrom(from)) {
+            code.checkcast(to);
+        }
+    }
+
+    private static int slots(Class<?> type) {
+        return type == long.class || type == double.class ? 2 : type == void.class ? 0 : 1;
+    }
+
+    private boolean linkable(Class<?> host, Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) return true;
+        if (!AccessorGenerator.visible(host, type)) return false;
+        try {
+            return Class.forName(type.getName(), false, host.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private boolean linkable(Class<?> host, Method method) {
+        if (!this.linkable(host, method.getReturnType())) return false;
+        return Arrays.stream(method.getParameterTypes()).allMatch(type -> this.linkable(host, type));
+    }
+
+    // Errors from defining the class are generator bugs and propagate, as for generated accessors.
+    @SneakyThrows
+    private Factory define(Class<?> host, MethodHandles.Lookup.ClassOption... options) {
+        if (host.isHidden() || host.isArray() || host.isPrimitive()) {
+            return null;
+        }
+        MethodHandles.Lookup lookup = ReflectLookup.full(host);
+        if (lookup == null) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = this.generate(host);
+        } catch (ClassFileWriter.TooLargeException e) {
+            return null;
+        }
+        if (bytes == null) {
+            return null;
+        }
+        MethodHandles.Lookup hidden = lookup.defineHiddenClass(bytes, true, options);
+        MethodHandle constructor = hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class, Object.class))
+                .asType(MethodType.methodType(Object.class, Object.class));
+        return new Factory(constructor, null);
+    }
+
+    private byte[] generate(Class<?> host) {
+        if (!this.linkable(host, this.targetClass)) return null;
+        for (Class<?> iface : this.interfaces) {
+            if (!this.linkable(host, iface)) return null;
+        }
+        String[] interfaceNames = Arrays.stream(this.interfaces).map(ClassFileWriter::internalName).toArray(String[]::new);
+        String name = ClassFileWriter.internalName(host) + PROXY_SUFFIX;
+        String targetName = ClassFileWriter.internalName(this.targetClass);
+        String targetDescriptor = ClassFileWriter.descriptor(this.targetClass);
+        ClassFileWriter writer = new ClassFileWriter(ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_FINAL
+                | ClassFileWriter.ACC_SUPER | ClassFileWriter.ACC_SYNTHETIC, name, "java/lang/Object", interfaceNames);
+        writer.field(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_FINAL, "target", targetDescriptor);
+        int target = writer.fieldRef(name, "target", targetDescriptor);
+
+        ClassFileWriter.Code constructor = writer.method(ClassFileWriter.ACC_PUBLIC, "<init>", "(Ljava/lang/Object;)V");
+        constructor.op(ALOAD).op(0).op(INVOKESPECIAL, writer.methodRef("java/lang/Object", "<init>", "()V"));
+        if (!this.isStatic) {
+            constructor.op(ALOAD).op(0).op(ALOAD).op(1).checkcast(this.targetClass).op(PUTFIELD, target);
+        }
+        constructor.op(RETURN).end(2, 2);
+
+        for (int i = 0; i < this.methods.size(); i++) {
+            Method method = this.methods.get(i);
+            ReflectMethod mapped = this.mapping.get(i);
+            if (!this.linkable(host, method)) return null;
+            Class<?>[] parameters = method.getParameterTypes();
+            int parameterSlots = Arrays.stream(parameters).mapToInt(ProxyGenerator::slots).sum();
+            String descriptor = ClassFileWriter.methodDescriptor(method.getReturnType(), parameters);
+            ClassFileWriter.Code code = writer.method(ClassFileWriter.ACC_PUBLIC, method.getName(), descriptor);
+            if (mapped != null) {
+                Method targetMethod = mapped.get();
+                if (!AccessorGenerator.accessible(host, targetMethod) || !this.linkable(host, targetMethod)) return null;
+                Class<?>[] targetParameters = targetMethod.getParameterTypes();
+                boolean isStatic = Modifier.isStatic(targetMethod.getModifiers());
+                if (!isStatic) {
+                    code.op(ALOAD).op(0).op(GETFIELD, target);
+                }
+                int slot = 1;
+                int targetSlots = 0;
+                for (int p = 0; p < parameters.length; p++) {
+                    code.load(parameters[p], slot);
+                    convert(code, parameters[p], targetParameters[p]);
+                    slot += slots(parameters[p]);
+                    targetSlots += slots(targetParameters[p]);
+                }
+                String invoked = ClassFileWriter.methodDescriptor(targetMethod.getReturnType(), targetParameters);
+                if (isStatic && this.targetClass.isInterface()) {
+                    code.op(INVOKESTATIC, writer.interfaceMethodRef(targetName, targetMethod.getName(), invoked));
+                } else if (isStatic) {
+                    code.op(INVOKESTATIC, writer.methodRef(targetName, targetMethod.getName(), invoked));
+                } else if (this.targetClass.isInterface()) {
+                    code.invokeInterface(targetName, targetMethod.getName(), invoked, targetSlots);
+                } else {
+                    code.op(INVOKEVIRTUAL, writer.methodRef(targetName, targetMethod.getName(), invoked));
+                }
+                convert(code, targetMethod.getReturnType(), method.getReturnType());
+                code.returns(method.getReturnType()).end(Math.max(targetSlots + 1, slots(targetMethod.getReturnType())) + 2, slot);
+            } else if (method.isDefault()) {
+                Class<?> owner = Arrays.stream(this.interfaces)
+                        .filter(method.getDeclaringClass()::isAssignableFrom)
+                        .findFirst().orElseThrow();
+                code.op(ALOAD).op(0);
+                int slot = 1;
+                for (Class<?> parameter : parameters) {
+                    code.load(parameter, slot);
+                    slot += slots(parameter);
+                }
+                code.op(INVOKESPECIAL, writer.interfaceMethodRef(ClassFileWriter.internalName(owner), method.getName(), descriptor))
+                        .returns(method.getReturnType())
+                        .end(Math.max(parameterSlots + 1, slots(method.getReturnType())) + 1, slot);
+            } else if (Map.class.isAssignableFrom(this.targetClass)) {
+                // Unmatched accessors on a Map target read and write entries; leave that to the Proxy handler.
+                return null;
+            } else {
+                code.throwNew(UnsupportedOperationException.class, "No method " + method.getName() + " on " + this.targetClass.getName())
+                        .end(3, parameterSlots + 1);
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    private Factory proxy() {
+        Map<Method, MethodInvoker<?>> invocations = new HashMap<>();
+        for (int i = 0; i < this.methods.size(); i++) {
+            invocations.put(this.methods.get(i), this.invoker(this.methods.get(i), this.mapping.get(i)));
+        }
+        ReflectClass<?> reflectClass = Reflect.classOf(this.targetClass);
+        for (Class<?> iface : this.interfaces) {
+            for (Method method : iface.getMethods()) {
+                if (!invocations.containsKey(method)) {
+                    invocations.put(method, this.invoker(method, resolve(reflectClass, method, this.isStatic)));
+                }
+            }
+        }
+        return new Factory(null, target -> Proxy.newProxyInstance(this.interfaces[0].getClassLoader(), this.interfaces,
+                new Handler(target, invocations)));
+    }
+
+    // A target method that cannot be unreflected (for example a public method of a non-public JDK class)
+    // is still reachable through the interface method it implements.
+    private MethodInvoker<?> invoker(Method method, ReflectMethod mapped) {
+        if (mapped == null) {
+            return null;
+        }
+        try {
+            return mapped.invoker();
+        } catch (Exception e) {
+            if (this.isStatic || !method.getDeclaringClass().isAssignableFrom(this.targetClass)) {
+                return null;
+            }
+            try {
+                return new MethodInvoker<>(method);
+            } catch (Exception ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static Method[] objectMethods() {
+        try {
+            return new Method[]{
+                    Object.class.getMethod("equals", Object.class),
+                    Object.class.getMethod("hashCode"),
+                    Object.class.getMethod("toString")
+            };
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class Factory {
+        private final MethodHandle constructor;
+        private final Function<Object, Object> fallback;
+
+        private Factory(MethodHandle constructor, Function<Object, Object> fallback) {
+            this.constructor = constructor;
+            this.fallback = fallback;
+        }
+
+        @SneakyThrows
+        Object create(Object target) {
+            if (this.constructor != null) {
+                return (Object) this.constructor.invokeExact(target);
+            }
+            return this.fallback.apply(target);
+        }
+    }
+
+    private static final class Handler implements InvocationHandler {
+        private static final Object[] NO_ARGUMENTS = new Object[0];
+
+        private final Object target;
+        private final Map<Method, MethodInvoker<?>> invocations;
+
+        private Handler(Object target, Map<Method, MethodInvoker<?>> invocations) {
+            this.target = target;
+            this.invocations = invocations;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object[] arguments = args == null ? NO_ARGUMENTS : args;
+            MethodInvoker<?> invoker = this.invocations.get(method);
+            if (invoker != null) {
+                return invoker.invokeWithArguments(this.target, arguments);
+            }
+            String name = method.getName();
+            if (this.target instanceof Map) {
+                Map<String, Object> map = (Map<String, Object>) this.target;
+                if (arguments.length == 0 && name.startsWith("get")) return map.get(property(name.substring(3)));
+                if (arguments.length == 0 && name.startsWith("is")) return map.get(property(name.substring(2)));
+                if (arguments.length == 1 && name.startsWith("set")) {
+                    map.put(property(name.substring(3)), arguments[0]);
+                    return null;
+                }
+            }
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                switch (name) {
+                    case "equals":
+                        return proxy == arguments[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return proxy.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                }
+            }
+            throw new UnsupportedOperationException("No method " + name + " on "
+                    + (this.target == null ? method.getDeclaringClass() : this.target.getClass()).getName());
+        }
+
+        private static String property(String name) {
+            if (name.isEmpty()) return name;
+            return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        }
+    }
+}
@@ -3,21 +3,44 @@ package dev.ckateptb.reflection;
 import lombok.SneakyThrows;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.security.CodeSource;
+import java.util.AbstractList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class Reflect<T> {
-    private static final Map<Class<?>, ReflectClass<?>> classCache = new HashMap<>();
+    private static final ClassValue<ReflectClass<?>> classCache = new ClassValue<>() {
+        @Override
+        protected ReflectClass<?> computeValue(Class<?> type) {
+            if (ReflectMetrics.enabled) {
+                ReflectMetrics.classMisses.increment();
+            }
+            return new ReflectClass<>(type);
+        }
+    };
+    private static volatile ReflectBackend backend = ReflectBackend.REFLECTION;
+    private static volatile int adaptiveThreshold = 1000;
+    private static volatile Executor asyncExecutor;
+    private static final Map<ClassLoader, ReflectIndex> indexCache = Collections.synchronizedMap(new WeakHashMap<>());
     protected final Class<T> clazz;
     protected final T object;
 
@@ -31,21 +54,87 @@ public class Reflect<T> {
         this.object = object;
     }
 
+    public static ReflectBackend backend() {
+        return backend;
+    }
+
+    public static void backend(ReflectBackend backend) {
+        Reflect.backend = Objects.requireNonNull(backend);
+    }
+
+    public static int adaptiveThreshold() {
+        return adaptiveThreshold;
+    }
+
+    public static void adaptiveThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative: " + threshold);
+        }
+        Reflect.adaptiveThreshold = threshold;
+    }
+
+    // Hands the library full-privilege access to the caller's module, typically called once by a plugin
+    // as Reflect.registerLookup(MethodHandles.lookup()) before reflecting over its own classes. Without
+    // it, classes from other class loaders cannot get generated accessors, proxies or spun lambdas.
+    public static void registerLookup(MethodHandles.Lookup lookup) {
+        ReflectLookup.register(lookup);
+    }
+
+    public static Executor asyncExecutor() {
+        Executor executor = asyncExecutor;
+        return executor != null ? executor : DefaultExecutor.INSTANCE;
+    }
+
+    public static void asyncExecutor(Executor executor) {
+        Reflect.asyncExecutor = executor;
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> ReflectClass<T> classOf(Class<T> clazz) {
-        return (ReflectClass<T>) classCache.computeIfAbsent(clazz, ReflectClass::new);
+        if (ReflectMetrics.enabled) {
+            ReflectMetrics.classLookups.increment();
+        }
+        return (ReflectClass<T>) classCache.get(clazz);
     }
 
+    // Classes loaded from the runtime image have no code source; scan those through ReflectClasspath.addModule.
+    @SneakyThrows
     public static ReflectJar jarOf(Class<?> clazz) throws NullPointerException {
-        CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+        CodeSource codeSource = Objects.requireNonNull(clazz.getProtectionDomain().getCodeSource(),
+                () -> clazz.getName() + " has no code source");
         URL resource = codeSource.getLocation();
-        return jarOf(new File(resource.getFile()));
+        return jarOf(new File(resource.toURI()));
     }
 
     public static ReflectJar jarOf(File file) {
         return new ReflectJar(file);
     }
 
+    // Merged compile-time index of every META-INF/reflect/index visible to the loader, read once per loader.
+    public static ReflectIndex indexOf(ClassLoader classLoader) throws IOException {
+        ReflectIndex index = indexCache.get(classLoader);
+        if (index == null) {
+            index = ReflectIndex.of(classLoader);
+            ReflectIndex previous = indexCache.putIfAbsent(classLoader, index);
+            if (previous != null) {
+                index = previous;
+            }
+        }
+        return index;
+    }
+
+    public static <S, D> BeanMapper<S, D> mapper(Class<S> source, Class<D> target) {
+        return classOf(source).getMapper(target);
+    }
+
+    public static <S> BinarySerializer<S> serializer(Class<S> clazz) {
+        return classOf(clazz).getSerializer();
+    }
+
+    public static <S> ObjectStrategy<S> strategy(Class<S> clazz) {
+        return classOf(clazz).getStrategy();
+    }
+
     public static <S> Reflect<S> on(S obj) {
         return new Reflect<>(obj);
     }
@@ -67,12 +156,13 @@ public class Reflect<T> {
     }
 
     public boolean isPresent() {
-        return this.object != null;
+        return this.get() != null;
     }
 
     public Reflect<T> ifPresent(Consumer<T> consumer) {
-        if (this.object != null) {
-            consumer.accept(this.object);
+        T object = this.get();
+        if (object != null) {
+            consumer.accept(object);
         }
         return this;
     }
@@ -86,53 +176,64 @@ public class Reflect<T> {
         return mapper.apply(this);
     }
 
+    public <D> D mapTo(Class<D> target) {
+        return mapper(this.clazz, target).map(this.get());
+    }
+
+    public <D> D copyTo(D target) {
+        @SuppressWarnings("unchecked")
+        Class<D> type = (Class<D>) target.getClass();
+        return mapper(this.clazz, type).copy(this.get(), target);
+    }
+
     public ConstructorReflect<T> constructor() {
         ReflectConstructor<T> constructor = classOf(this.clazz).getConstructor();
-        constructor.get().trySetAccessible();
-        return new ConstructorReflect<>(this.clazz, null, constructor);
+        return constructor == null ? null : this.adapt(constructor);
     }
 
     public ConstructorReflect<T> constructor(Class<?>... parameters) {
         ReflectConstructor<T> constructor = classOf(this.clazz).getConstructorWithParams(parameters);
-        constructor.get().trySetAccessible();
-        return new ConstructorReflect<>(this.clazz, null, constructor);
+        return constructor == null ? null : this.adapt(constructor);
     }
 
     public Collection<ConstructorReflect<T>> constructorAnnotated(Class<? extends Annotation> annotation) {
-        return classOf(this.clazz).getConstructorsWithAnnotation(annotation).stream()
-                .peek(constructor -> constructor.get().trySetAccessible())
-                .map(constructor -> new ConstructorReflect<>(this.clazz, null, constructor))
-                .collect(Collectors.toUnmodifiableSet());
+        return this.constructorAnnotated(annotation, AnnotationScope.DIRECT);
+    }
+
+    public Collection<ConstructorReflect<T>> constructorAnnotated(Class<? extends Annotation> annotation, AnnotationScope scope) {
+        ReflectClass<T> reflectClass = classOf(this.clazz);
+        return reflectClass.views(reflectClass.getConstructorsWithAnnotation(annotation, scope), Reflect::unboundConstructor);
     }
 
     public Collection<ConstructorReflect<T>> constructors() {
-        return classOf(this.clazz).getConstructors().stream()
-                .peek(constructor -> constructor.get().trySetAccessible())
-                .map(constructor -> new ConstructorReflect<>(this.clazz, null, constructor))
-                .collect(Collectors.toUnmodifiableSet());
+        ReflectClass<T> reflectClass = classOf(this.clazz);
+        return reflectClass.views(reflectClass.getConstructors(), Reflect::unboundConstructor);
+    }
+
+    private ConstructorReflect<T> adapt(ReflectConstructor<T> reflect) {
+        return unboundConstructor(reflect);
+    }
+
+    private static <T> ConstructorReflect<T> unboundConstructor(ReflectConstructor<T> reflect) {
+        return reflect.view(constructor -> new ConstructorReflect<>(constructor.get().getDeclaringClass(), null, constructor));
     }
 
     public Collection<MethodReflect<?>> methods(String name) {
-        return classOf(this.clazz).getMethodsByName(name).stream()
-                .map(this::adapt)
-                .collect(Collectors.toUnmodifiableSet());
+        return this.adapt(classOf(this.clazz).getMethodsByName(name));
     }
 
     public MethodReflect<?> method(String name) {
-        return this.methods(name).stream().findFirst().orElse(null);
+        Collection<ReflectMethod> methods = classOf(this.clazz).getMethodsByName(name);
+        return methods.isEmpty() ? null : this.adapt(methods.iterator().next());
     }
 
-    @SuppressWarnings("unchecked")
     public <R> Collection<MethodReflect<R>> methods(Class<R> type, String name) {
-        return classOf(this.clazz).getMethodsByName(name).stream()
-                .filter(method -> method.getReturnType().equals(type))
-                .map(this::adapt)
-                .map(r -> (MethodReflect<R>) r)
-                .collect(Collectors.toUnmodifiableSet());
+        return this.adapt(classOf(this.clazz).getMethodsByNameAndReturnType(name, type));
     }
 
     public <R> MethodReflect<R> method(Class<R> type, String name) {
-        return this.methods(type, name).stream().findFirst().orElse(null);
+        Collection<ReflectMethod> methods = classOf(this.clazz).getMethodsByNameAndReturnType(name, type);
+        return methods.isEmpty() ? null : this.adapt(methods.iterator().next());
     }
 
     public <R> MethodReflect<R> method(String name, Class<?>... parameters) {
@@ -140,41 +241,75 @@ public class Reflect<T> {
     }
 
     public <R> MethodReflect<R> method(Class<R> type, String name, Class<?>... parameters) {
-        return this.adapt(classOf(this.clazz).getMethodByNameAndParams(name, parameters));
+        ReflectMethod method = classOf(this.clazz).getMethodByNameAndParams(name, parameters);
+        return method == null ? null : this.adapt(method);
     }
 
     public Collection<MethodReflect<?>> methodsAnnotated(Class<? extends Annotation> type) {
-        return classOf(this.clazz).getMethodsWithAnnotation(type).stream()
-                .map(this::adapt)
-                .collect(Collectors.toUnmodifiableSet());
+        return this.methodsAnnotated(type, AnnotationScope.DIRECT);
+    }
+
+    public Collection<MethodReflect<?>> methodsAnnotated(Class<? extends Annotation> type, AnnotationScope scope) {
+        return this.adapt(classOf(this.clazz).getMethodsWithAnnotation(type, scope));
+    }
+
+    public CompletableFuture<List<CallResult>> callAnnotatedAsync(Class<? extends Annotation> type, Object... args) {
+        return this.callAnnotatedAsync(type, AnnotationScope.DIRECT, args);
+    }
+
+    // Starts every annotated method at once and completes when all of them have finished. The future never
+    // completes exceptionally, because each failure is captured in its CallResult.
+    public CompletableFuture<List<CallResult>> callAnnotatedAsync(Class<? extends Annotation> type, AnnotationScope scope, Object... args) {
+        Executor executor = asyncExecutor();
+        List<CompletableFuture<CallResult>> calls = this.methodsAnnotated(type, scope).stream()
+                .map(method -> method.callAsyncOn(executor, args)
+                        .handle((result, error) -> new CallResult(method, result, unwrap(error))))
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> calls.stream().map(CompletableFuture::join).collect(Collectors.toUnmodifiableList()));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof InvocationTargetException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
     }
 
     public Collection<MethodReflect<?>> methods(Class<?>... parameters) {
-        return classOf(this.clazz).getMethodsWithParms(parameters).stream()
-                .map(this::adapt)
-                .collect(Collectors.toUnmodifiableSet());
+        return this.adapt(classOf(this.clazz).getMethodsWithParms(parameters));
     }
 
-    @SuppressWarnings("unchecked")
     public <R> Collection<MethodReflect<R>> methodsReturn(Class<R> type) {
-        return classOf(this.clazz).getMethodsByReturnType(type).stream()
-                .map(this::adapt)
-                .map(r -> (MethodReflect<R>) r)
-                .collect(Collectors.toUnmodifiableSet());
+        return this.adapt(classOf(this.clazz).getMethodsByReturnType(type));
     }
 
     public Collection<MethodReflect<?>> methods() {
-        return classOf(this.clazz).getMethods().stream()
-                .map(this::adapt)
-                .collect(Collectors.toUnmodifiableSet());
+        return this.adapt(classOf(this.clazz).getMethods());
+    }
+
+    // Members are made accessible once when ReflectClass scans them. Views without a target are cached
+    // on the member itself and their lists on the ReflectClass, so class-level lookups allocate nothing once
+    // warm; only Reflects bound to an instance build a list per call.
+    @SuppressWarnings("unchecked")
+    private <V extends MethodReflect<?>> List<V> adapt(Collection<ReflectMethod> methods) {
+        if (this.object == null) {
+            return (List<V>) classOf(this.clazz).views(methods, Reflect::unboundMethod);
+        }
+        return (List<V>) new MemberList<ReflectMethod, MethodReflect<?>>(methods, this::adapt);
     }
 
     @SuppressWarnings("unchecked")
     private <R> MethodReflect<R> adapt(ReflectMethod reflect) {
-        Method method = reflect.get();
-        method.trySetAccessible();
-        Class<R> type = (Class<R>) method.getReturnType();
-        return new MethodReflect<>(type, null, reflect, this.object);
+        if (this.object == null) {
+            return unboundMethod(reflect);
+        }
+        return new MethodReflect<>((Class<R>) reflect.getReturnType(), null, reflect, this.object);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> MethodReflect<R> unboundMethod(ReflectMethod reflect) {
+        return reflect.view(method -> new MethodReflect<>((Class<R>) method.getReturnType(), null, method, null));
     }
 
     public <R> FieldReflect<R> field(String name) {
@@ -186,7 +321,11 @@ public class Reflect<T> {
     }
 
     public Collection<FieldReflect<?>> fieldsAnnotated(Class<? extends Annotation> type) {
-        return classOf(this.clazz).getFieldsWithAnnotation(type).stream()
+        return this.fieldsAnnotated(type, AnnotationScope.DIRECT);
+    }
+
+    public Collection<FieldReflect<?>> fieldsAnnotated(Class<? extends Annotation> type, AnnotationScope scope) {
+        return classOf(this.clazz).getFieldsWithAnnotation(type, scope).stream()
                 .map(this::adapt)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toUnmodifiableSet());
@@ -208,6 +347,24 @@ public class Reflect<T> {
                 .collect(Collectors.toUnmodifiableSet());
     }
 
+    // Lazy counterparts of the above: an ordered view over the cached member list whose FieldReflects read
+    // the field only when get() is called, instead of snapshotting every value up front.
+    public Collection<FieldReflect<?>> lazyFieldsAnnotated(Class<? extends Annotation> type) {
+        return this.lazyFieldsAnnotated(type, AnnotationScope.DIRECT);
+    }
+
+    public Collection<FieldReflect<?>> lazyFieldsAnnotated(Class<? extends Annotation> type, AnnotationScope scope) {
+        return this.lazy(classOf(this.clazz).getFieldsWithAnnotation(type, scope));
+    }
+
+    public <R> Collection<FieldReflect<R>> lazyFields(Class<R> type) {
+        return this.lazy(classOf(this.clazz).getFieldsByType(type));
+    }
+
+    public Collection<FieldReflect<?>> lazyFields() {
+        return this.lazy(classOf(this.clazz).getFields());
+    }
+
     public FieldReflect<T> asFields() {
         return (FieldReflect<T>) this;
     }
@@ -223,7 +380,6 @@ public class Reflect<T> {
     @SuppressWarnings("unchecked")
     private <R> FieldReflect<R> adapt(ReflectField reflect) {
         Field field = reflect.get();
-        field.trySetAccessible();
         try {
             Class<R> type = (Class<R>) field.getType();
             R obj = (R) field.get(this.object);
@@ -233,38 +389,153 @@ public class Reflect<T> {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private <V extends FieldReflect<?>> List<V> lazy(Collection<ReflectField> fields) {
+        if (this.object == null) {
+            return (List<V>) classOf(this.clazz).views(fields, Reflect::unboundField);
+        }
+        return (List<V>) new MemberList<ReflectField, FieldReflect<?>>(fields, this::lazy);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> FieldReflect<R> lazy(ReflectField reflect) {
+        return new FieldReflect<>((Class<R>) reflect.getType(), reflect, this.object);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> FieldReflect<R> unboundField(ReflectField reflect) {
+        return reflect.view(field -> new FieldReflect<>((Class<R>) field.getType(), field, null));
+    }
+
     protected Reflect<T> update(T value) {
         return new Reflect<>(this.clazz, value);
     }
 
     public <F> F as(Class<F> proxy, Class<?>... additionalInterfaces) {
-        org.joor.Reflect joor;
-        if (this.isPresent()) {
-            joor = org.joor.Reflect.on(this.object);
-        } else {
-            joor = org.joor.Reflect.onClass(this.clazz);
+        T target = this.get();
+        Class<?>[] interfaces = new Class<?>[additionalInterfaces.length + 1];
+        interfaces[0] = proxy;
+        System.arraycopy(additionalInterfaces, 0, interfaces, 1, additionalInterfaces.length);
+        Class<?> type = target == null || this.clazz.isInstance(target) ? this.clazz : target.getClass();
+        return proxy.cast(classOf(type).getProxyFactory(target == null, interfaces).create(target));
+    }
+
+    // Adapts each member on first access and keeps the view, so iterating the list twice allocates once.
+    // Racing threads may both adapt an index; either view is equivalent and safely published by its final fields.
+    private static final class MemberList<M, R> extends AbstractList<R> implements RandomAccess {
+        private final List<M> members;
+        private final Function<M, R> adapter;
+        private final Object[] views;
+
+        @SuppressWarnings("unchecked")
+        private MemberList(Collection<M> members, Function<M, R> adapter) {
+            this.members = members instanceof List ? (List<M>) members : List.copyOf(members);
+            this.adapter = adapter;
+            this.views = new Object[this.members.size()];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R get(int index) {
+            Object view = this.views[index];
+            if (view == null) {
+                this.views[index] = view = this.adapter.apply(this.members.get(index));
+            }
+            return (R) view;
+        }
+
+        @Override
+        public int size() {
+            return this.views.length;
+        }
+    }
+
+    public static final class CallResult {
+        private final MethodReflect<?> method;
+        private final Reflect<?> result;
+        private final Throwable error;
+
+        private CallResult(MethodReflect<?> method, Reflect<?> result, Throwable error) {
+            this.method = method;
+            this.result = result;
+            this.error = error;
+        }
+
+        public MethodReflect<?> getMethod() {
+            return this.method;
+        }
+
+        public Reflect<?> getResult() {
+            return this.result;
+        }
+
+        public Throwable getError() {
+            return this.error;
+        }
+
+        public boolean isSuccess() {
+            return this.error == null;
+        }
+    }
+
+    // Virtual threads when the runtime has them (Java 21+), otherwise a cached pool of daemon threads.
+    private static final class DefaultExecutor {
+        private static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+            }
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "reflect-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
         }
-        return joor.as(proxy, additionalInterfaces);
     }
 
     public static class FieldReflect<T> extends Reflect<T> {
         private final ReflectField reference;
         private final Object referenceTarget;
+        private final boolean lazy;
 
         private FieldReflect(Class<T> clazz, T object, ReflectField reference, Object referenceTarget) {
             super(clazz, object);
             this.reference = reference;
             this.referenceTarget = referenceTarget;
+            this.lazy = false;
+        }
+
+        private FieldReflect(Class<T> clazz, ReflectField reference, Object referenceTarget) {
+            super(clazz, null);
+            this.reference = reference;
+            this.referenceTarget = referenceTarget;
+            this.lazy = true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get() {
+            if (!this.lazy) {
+                return this.object;
+            }
+            return (T) this.reference.getValue(this.referenceTarget);
         }
 
         @SneakyThrows
         public FieldReflect<T> set(T newValue) {
             if (this.reference == null)
                 throw new NullPointerException("Failed to set a new value because the reference source is null.");
-            this.reference.get().set(this.referenceTarget, newValue);
+            this.reference.setValue(this.referenceTarget, newValue);
             return this.update(newValue);
         }
 
+        public FieldAccessor accessor() {
+            return this.reference.accessor();
+        }
+
         public ReflectField getField() {
             return this.reference;
         }
@@ -289,10 +560,22 @@ public class Reflect<T> {
         @SneakyThrows
         @SuppressWarnings("unchecked")
         public Reflect<T> call(Object... args) {
-            T invoke = (T) this.reference.get().invoke(referenceTarget, args);
+            T invoke = (T) this.reference.call(this.referenceTarget, args);
             return this.update(invoke);
         }
 
+        public CompletableFuture<Reflect<T>> callAsync(Object... args) {
+            return this.callAsyncOn(asyncExecutor(), args);
+        }
+
+        public CompletableFuture<Reflect<T>> callAsyncOn(Executor executor, Object... args) {
+            return CompletableFuture.supplyAsync(() -> this.call(args), executor);
+        }
+
+        public MethodInvoker<T> invoker() {
+            return this.reference.invoker();
+        }
+
         public ReflectMethod getMethod() {
             return this.reference;
         }
@@ -313,10 +596,14 @@ public class Reflect<T> {
 
         @SneakyThrows
         public Reflect<T> newInstance(Object... args) {
-            T invoke = this.reference.get().newInstance(args);
+            T invoke = this.reference.instantiate(args);
             return this.update(invoke);
         }
 
+        public ConstructorInvoker<T> invoker() {
+            return this.reference.invoker();
+        }
+
         public ReflectConstructor<T> getConstructor() {
             return this.reference;
         }
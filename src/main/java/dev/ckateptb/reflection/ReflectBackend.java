@@ -0,0 +1,10 @@
+package dev.ckateptb.reflection;
+
+public enum ReflectBackend {
+    REFLECTION,
+    METHOD_HANDLE,
+    GENERATED,
+    // Starts every member on REFLECTION and promotes it to GENERATED, or METHOD_HANDLE when the
+    // member cannot be compiled, once it has been used Reflect.adaptiveThreshold() times.
+    ADAPTIVE
+}
@@ -1,17 +1,49 @@
 package dev.ckateptb.reflection;
 
+import lombok.SneakyThrows;
+
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class ReflectClass<T> extends ReflectWrapper<Class<T>> {
-    private final Map<String, ReflectField> fields = new HashMap<>();
-    private final Map<String, ReflectConstructor<T>> constructors = new HashMap<>();
-    private final Map<String, ReflectMethod> methods = new HashMap<>();
+    private volatile FieldTable fields;
+    private volatile ConstructorTable<T> constructors;
+    private volatile MethodTable methods;
+    private volatile AccessorGenerator.Accessor accessor;
+    private volatile Supplier<T> allocator;
+    private volatile BinarySerializer<T> serializer;
+    private volatile GraphPlan graphPlan;
+    private volatile ObjectStrategy<T> strategy;
+    private final Map<Class<?>, BeanMapper<T, ?>> mappers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, BeanMapper<?, T>> sourceMappers = new ConcurrentHashMap<>();
+    private final Map<Signature, ProxyGenerator.Factory> proxies = new ConcurrentHashMap<>();
+    private final Map<Signature, ProxyGenerator.Factory> foreignProxies = new ConcurrentHashMap<>();
+    private final Map<List<?>, List<?>> views = new ConcurrentHashMap<>();
 
     ReflectClass(Class<T> clazz) {
         super(clazz);
@@ -25,140 +57,517 @@ public class ReflectClass<T> extends ReflectWrapper<Class<T>> {
         return this.target.getAnnotation(annotation);
     }
 
-    private Map<String, ReflectMethod> methods() {
-        if (this.methods.isEmpty()) {
-            this.scanMethodsRecursively(this.target);
+    private MethodTable methods() {
+        MethodTable methods = this.methods;
+        if (methods == null) {
+            synchronized (this) {
+                methods = this.methods;
+                if (methods == null) {
+                    long start = System.nanoTime();
+                    Map<Signature, ReflectMethod> scanned = new LinkedHashMap<>();
+                    this.scanMethodsRecursively(this.target, scanned);
+                    methods = new MethodTable(scanned);
+                    for (int i = 0; i < methods.all.size(); i++) {
+                        methods.all.get(i).bind(this, i);
+                    }
+                    this.methods = methods;
+                    if (ReflectMetrics.enabled) {
+                        ReflectMetrics.methodScans.record(start);
+                    }
+                }
+            }
         }
-        return this.methods;
+        return methods;
     }
 
-    private void scanMethodsRecursively(Class<?> clazz) {
+    private void scanMethodsRecursively(Class<?> clazz, Map<Signature, ReflectMethod> methods) {
         if (clazz == null) {
             return;
         }
-        Arrays.stream(clazz.getDeclaredMethods()).map(ReflectMethod::new)
-                .forEach(reflectField -> this.methods.putIfAbsent(reflectField.getName(), reflectField));
+        Arrays.stream(clazz.getDeclaredMethods())
+                .sorted(Comparator.comparing(Method::isBridge))
+                .map(ReflectMethod::new)
+                .forEach(reflectMethod -> methods.putIfAbsent(reflectMethod.signature(), reflectMethod));
         for (Class<?> iface : clazz.getInterfaces()) {
-            scanInterfaceMethods(iface);
+            scanInterfaceMethods(iface, methods);
         }
-        scanMethodsRecursively(clazz.getSuperclass());
+        scanMethodsRecursively(clazz.getSuperclass(), methods);
     }
 
-    private void scanInterfaceMethods(Class<?> iface) {
+    private void scanInterfaceMethods(Class<?> iface, Map<Signature, ReflectMethod> methods) {
         Arrays.stream(iface.getMethods()).filter(Method::isDefault)
                 .map(ReflectMethod::new)
-                .forEach(reflectMethod -> this.methods.putIfAbsent(reflectMethod.getName(), reflectMethod));
+                .forEach(reflectMethod -> methods.putIfAbsent(reflectMethod.signature(), reflectMethod));
         for (Class<?> superIface : iface.getInterfaces()) {
-            scanInterfaceMethods(superIface);
+            scanInterfaceMethods(superIface, methods);
         }
     }
 
     public Collection<ReflectMethod> getMethodsByName(String name) {
-        return this.methods().values().stream()
-                .filter(method -> method.get().getName().equals(name))
-                .collect(Collectors.toList());
+        return this.methods().byName.getOrDefault(name, List.of());
     }
 
     public Collection<ReflectMethod> getMethodsByReturnType(Class<?> returnType) {
-        return this.methods().values().stream()
-                .filter(method -> method.get().getReturnType().equals(returnType))
-                .collect(Collectors.toList());
+        return this.methods().byReturnType.getOrDefault(returnType, List.of());
+    }
+
+    public Collection<ReflectMethod> getMethodsByNameAndReturnType(String name, Class<?> returnType) {
+        return this.methods().byNameAndReturnType.getOrDefault(new Signature(name, new Class<?>[]{returnType}), List.of());
     }
 
     public Collection<ReflectMethod> getMethodsWithParms(Class<?>... parameterTypes) {
-        return this.methods().values().stream()
-                .filter(method -> Arrays.equals(method.get().getParameterTypes(), parameterTypes))
-                .collect(Collectors.toList());
+        return this.methods().byParameters.getOrDefault(new Signature(parameterTypes), List.of());
+    }
+
+    public Collection<ReflectMethod> getMethodsWithParameterCount(int count) {
+        List<List<ReflectMethod>> byParameterCount = this.methods().byParameterCount;
+        return count >= 0 && count < byParameterCount.size() ? byParameterCount.get(count) : List.of();
     }
 
     public ReflectMethod getMethodByNameAndParams(String name, Class<?>... parameterTypes) {
-        return this.methods().get(name + Arrays.toString(parameterTypes));
+        return this.methods().bySignature.get(new Signature(name, parameterTypes));
     }
 
     public Collection<ReflectMethod> getMethodsWithAnnotation(Class<? extends Annotation> annotation) {
-        return this.methods().values().stream()
-                .filter(method -> method.get().isAnnotationPresent(annotation))
-                .collect(Collectors.toList());
+        return this.getMethodsWithAnnotation(annotation, AnnotationScope.DIRECT);
+    }
+
+    public Collection<ReflectMethod> getMethodsWithAnnotation(Class<? extends Annotation> annotation, AnnotationScope scope) {
+        return this.methods().annotated.get(scope).getOrDefault(annotation, List.of());
     }
 
     public Collection<ReflectMethod> getMethods() {
-        return this.methods().values();
+        return this.methods().all;
     }
 
-    private String getKey(ReflectConstructor<T> constructor) {
-        return Arrays.toString(constructor.getParameterTypes());
+    // Declaration order, which is also the index order of the generated accessor.
+    List<ReflectMethod> methodList() {
+        return this.methods().all;
     }
 
     @SuppressWarnings("unchecked")
-    private Map<String, ReflectConstructor<T>> constructors() {
-        if (this.constructors.isEmpty()) {
-            Arrays.stream(this.target.getConstructors()).map(ReflectConstructor::new)
-                    .map(constructor -> (ReflectConstructor<T>) constructor)
-                    .forEach(constructor -> this.constructors.put(getKey(constructor), constructor));
-            Arrays.stream(this.target.getDeclaredConstructors()).map(ReflectConstructor::new)
-                    .map(constructor -> (ReflectConstructor<T>) constructor)
-                    .forEach(constructor -> this.constructors.put(getKey(constructor), constructor));
+    private ConstructorTable<T> constructors() {
+        ConstructorTable<T> constructors = this.constructors;
+        if (constructors == null) {
+            synchronized (this) {
+                constructors = this.constructors;
+                if (constructors == null) {
+                    long start = System.nanoTime();
+                    Map<Signature, ReflectConstructor<T>> scanned = new LinkedHashMap<>();
+                    Arrays.stream(this.target.getConstructors()).map(ReflectConstructor::new)
+                            .map(constructor -> (ReflectConstructor<T>) constructor)
+                            .forEach(constructor -> scanned.put(constructor.signature(), constructor));
+                    Arrays.stream(this.target.getDeclaredConstructors()).map(ReflectConstructor::new)
+                            .map(constructor -> (ReflectConstructor<T>) constructor)
+                            .forEach(constructor -> scanned.putIfAbsent(constructor.signature(), constructor));
+                    constructors = new ConstructorTable<>(scanned);
+                    for (int i = 0; i < constructors.all.size(); i++) {
+                        constructors.all.get(i).bind(this, i);
+                    }
+                    this.constructors = constructors;
+                    if (ReflectMetrics.enabled) {
+                        ReflectMetrics.constructorScans.record(start);
+                    }
+                }
+            }
         }
-        return this.constructors;
+        return constructors;
     }
 
     // Constructor access methods
     public ReflectConstructor<T> getConstructorWithParams(Class<?>... parameterTypes) {
-        return this.constructors().get(Arrays.toString(parameterTypes));
+        return this.constructors().bySignature.get(new Signature(parameterTypes));
+    }
+
+    public Collection<ReflectConstructor<T>> getConstructorsWithParameterCount(int count) {
+        List<List<ReflectConstructor<T>>> byParameterCount = this.constructors().byParameterCount;
+        return count >= 0 && count < byParameterCount.size() ? byParameterCount.get(count) : List.of();
     }
 
     public Collection<ReflectConstructor<T>> getConstructorsWithAnnotation(Class<? extends Annotation> annotation) {
-        return this.constructors().values().stream()
-                .filter(constructor -> constructor.get().isAnnotationPresent(annotation))
-                .collect(Collectors.toList());
+        return this.getConstructorsWithAnnotation(annotation, AnnotationScope.DIRECT);
+    }
+
+    public Collection<ReflectConstructor<T>> getConstructorsWithAnnotation(Class<? extends Annotation> annotation, AnnotationScope scope) {
+        return this.constructors().annotated.get(scope).getOrDefault(annotation, List.of());
     }
 
     public Collection<ReflectConstructor<T>> getConstructors() {
-        return this.constructors().values();
+        return this.constructors().all;
+    }
+
+    List<ReflectConstructor<T>> constructorList() {
+        return this.constructors().all;
     }
 
     public ReflectConstructor<T> getConstructor() {
-        return this.getConstructors().stream().findFirst().orElse(null);
+        List<ReflectConstructor<T>> constructors = this.constructors().all;
+        return constructors.isEmpty() ? null : constructors.get(0);
     }
 
-    private Map<String, ReflectField> fields() {
-        if (this.fields.isEmpty()) {
-            scanFieldsRecursively(this.target);
+    private FieldTable fields() {
+        FieldTable fields = this.fields;
+        if (fields == null) {
+            synchronized (this) {
+                fields = this.fields;
+                if (fields == null) {
+                    long start = System.nanoTime();
+                    Map<String, ReflectField> scanned = new LinkedHashMap<>();
+                    scanFieldsRecursively(this.target, scanned);
+                    fields = new FieldTable(scanned);
+                    for (int i = 0; i < fields.all.size(); i++) {
+                        fields.all.get(i).bind(this, i);
+                    }
+                    this.fields = fields;
+                    if (ReflectMetrics.enabled) {
+                        ReflectMetrics.fieldScans.record(start);
+                    }
+                }
+            }
         }
-        return this.fields;
+        return fields;
     }
 
-    private void scanFieldsRecursively(Class<?> clazz) {
+    private void scanFieldsRecursively(Class<?> clazz, Map<String, ReflectField> fields) {
         if (clazz == null) {
             return;
         }
         Arrays.stream(clazz.getDeclaredFields()).map(ReflectField::new)
-                .forEach(reflectField -> this.fields.putIfAbsent(reflectField.getName(), reflectField));
-        scanFieldsRecursively(clazz.getSuperclass());
+                .forEach(reflectField -> fields.putIfAbsent(reflectField.getName(), reflectField));
+        scanFieldsRecursively(clazz.getSuperclass(), fields);
     }
 
     public Collection<ReflectField> getFields() {
-        return this.fields().values();
+        return this.fields().all;
+    }
+
+    List<ReflectField> fieldList() {
+        return this.fields().all;
     }
 
     public ReflectField getFieldByName(String name) {
-        return this.fields().get(name);
+        return this.fields().byName.get(name);
     }
 
     public Collection<ReflectField> getFieldsByType(Class<?> type) {
-        return this.getFields().stream()
-                .filter(field -> field.get().getType().equals(type))
-                .collect(Collectors.toList());
+        return this.fields().byType.getOrDefault(type, List.of());
     }
 
     public Collection<ReflectField> getFieldsWithAnnotation(Class<? extends Annotation> annotation) {
-        return this.getFields().stream()
-                .filter(field -> field.get().isAnnotationPresent(annotation))
-                .collect(Collectors.toList());
+        return this.getFieldsWithAnnotation(annotation, AnnotationScope.DIRECT);
+    }
+
+    public Collection<ReflectField> getFieldsWithAnnotation(Class<? extends Annotation> annotation, AnnotationScope scope) {
+        return this.fields().annotated.get(scope).getOrDefault(annotation, List.of());
+    }
+
+    // Adapted views of the member lists above, shared by every Reflect without a target. The lists are keyed
+    // by content; their members hash by identity, so equal lists hold the same members and map to the same views.
+    @SuppressWarnings("unchecked")
+    <M, V> List<V> views(Collection<M> members, Function<M, V> adapter) {
+        List<M> list = members instanceof List ? (List<M>) members : List.copyOf(members);
+        List<?> views = this.views.get(list);
+        if (views == null) {
+            views = this.views.computeIfAbsent(list, key -> list.stream().map(adapter).collect(Collectors.toUnmodifiableList()));
+        }
+        return (List<V>) views;
+    }
+
+    AccessorGenerator.Accessor accessor() {
+        AccessorGenerator.Accessor accessor = this.accessor;
+        if (accessor == null) {
+            synchronized (this) {
+                accessor = this.accessor;
+                if (accessor == null) {
+                    this.accessor = accessor = AccessorGenerator.generate(this);
+                }
+            }
+        }
+        return accessor;
+    }
+
+    public GeneratedAccessor getGeneratedAccessor() {
+        return this.accessor().get();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <D> BeanMapper<T, D> getMapper(Class<D> target) {
+        BeanMapper<T, ?> mapper = this.mappers.get(target);
+        if (mapper != null) {
+            return (BeanMapper<T, D>) mapper;
+        }
+        if (AccessorGenerator.resolves(this.target.getClassLoader(), target)) {
+            return (BeanMapper<T, D>) this.mappers.computeIfAbsent(target, type -> BeanMapper.create(this.target, type));
+        }
+        return Reflect.classOf(target).getMapperFrom(this.target);
+    }
+
+    // A mapper is cached by the class whose loader sees the other one, so it never keeps a plugin loader
+    // alive from a class of its parent. Classes of unrelated loaders, such as two plugins, are not cached.
+    @SuppressWarnings("unchecked")
+    private <S> BeanMapper<S, T> getMapperFrom(Class<S> source) {
+        BeanMapper<?, T> mapper = this.sourceMappers.get(source);
+        if (mapper != null) {
+            return (BeanMapper<S, T>) mapper;
+        }
+        if (AccessorGenerator.resolves(this.target.getClassLoader(), source)) {
+            return (BeanMapper<S, T>) this.sourceMappers.computeIfAbsent(source, type -> BeanMapper.create(type, this.target));
+        }
+        return BeanMapper.create(source, this.target);
+    }
+
+    // Creates instances without running any constructor, leaving every field at its default value; meant for
+    // deserializers that populate all state themselves.
+    @SuppressWarnings("unchecked")
+    public Supplier<T> getAllocator() {
+        Supplier<T> allocator = this.allocator;
+        if (allocator == null) {
+            if (this.target.isInterface() || this.target.isArray() || this.target.isPrimitive()
+                    || Modifier.isAbstract(this.target.getModifiers())) {
+                throw new IllegalStateException(this.target.getName() + " cannot be instantiated");
+            }
+            MethodHandle allocate = ReflectLookup.allocator(this.target).asType(MethodType.methodType(Object.class));
+            this.allocator = allocator = new Supplier<>() {
+                @Override
+                @SneakyThrows
+                public T get() {
+                    return (T) (Object) allocate.invokeExact();
+                }
+            };
+        }
+        return allocator;
+    }
+
+    public T allocateInstance() {
+        return this.getAllocator().get();
+    }
+
+    public BinarySerializer<T> getSerializer() {
+        BinarySerializer<T> serializer = this.serializer;
+        if (serializer == null) {
+            synchronized (this) {
+                serializer = this.serializer;
+                if (serializer == null) {
+                    this.serializer = serializer = new BinarySerializer<>(this);
+                }
+            }
+        }
+        return serializer;
+    }
+
+    // Default structural strategy over every non-static, non-transient field; use ObjectStrategy.builder
+    // for a narrower selection.
+    public ObjectStrategy<T> getStrategy() {
+        ObjectStrategy<T> strategy = this.strategy;
+        if (strategy == null) {
+            synchronized (this) {
+                strategy = this.strategy;
+                if (strategy == null) {
+                    this.strategy = strategy = ObjectStrategy.create(this.target);
+                }
+            }
+        }
+        return strategy;
+    }
+
+    GraphPlan graphPlan() {
+        GraphPlan graphPlan = this.graphPlan;
+        if (graphPlan == null) {
+            synchronized (this) {
+                graphPlan = this.graphPlan;
+                if (graphPlan == null) {
+                    this.graphPlan = graphPlan = new GraphPlan(this);
+                }
+            }
+        }
+        return graphPlan;
+    }
+
+    // Like mappers, a proxy factory is cached by the class whose loader sees all the others: the target for
+    // interfaces of its own or a parent loader, otherwise the first interface. The key and the hidden class
+    // reference every class involved, so proxies over unrelated loaders are not cached.
+    ProxyGenerator.Factory getProxyFactory(boolean isStatic, Class<?>[] interfaces) {
+        Signature key = new Signature(isStatic ? "static" : "instance", interfaces);
+        ProxyGenerator.Factory factory = this.proxies.get(key);
+        if (factory != null) {
+            return factory;
+        }
+        Class<?>[] involved = new Class<?>[interfaces.length + 1];
+        involved[0] = this.target;
+        System.arraycopy(interfaces, 0, involved, 1, interfaces.length);
+        Signature foreignKey = new Signature(isStatic ? "static" : "instance", involved);
+        ReflectClass<?> owner = Reflect.classOf(interfaces[0]);
+        factory = owner.foreignProxies.get(foreignKey);
+        if (factory != null) {
+            return factory;
+        }
+        if (resolvesAll(this.target, interfaces)) {
+            return this.proxies.computeIfAbsent(key, ignored -> ProxyGenerator.create(this, isStatic, interfaces));
+        }
+        if (resolvesAll(interfaces[0], involved)) {
+            return owner.foreignProxies.computeIfAbsent(foreignKey, ignored -> ProxyGenerator.create(this, isStatic, interfaces));
+        }
+        return ProxyGenerator.create(this, isStatic, interfaces);
+    }
+
+    private static boolean resolvesAll(Class<?> owner, Class<?>[] types) {
+        for (Class<?> type : types) {
+            if (!AccessorGenerator.resolves(owner.getClassLoader(), type)) return false;
+        }
+        return true;
     }
 
     @Override
     public int modifiers() {
         return this.target.getModifiers();
     }
-}
\ No newline at end of file
+
+    private static <K, V> Map<K, List<V>> group(List<V> values, Function<V, K> key) {
+        return Collections.unmodifiableMap(values.stream().collect(Collectors.groupingBy(key,
+                LinkedHashMap::new, Collectors.toUnmodifiableList())));
+    }
+
+    private static <V> List<List<V>> groupByCount(List<V> values, Function<V, Integer> count) {
+        int max = values.stream().mapToInt(count::apply).max().orElse(-1);
+        List<List<V>> grouped = new ArrayList<>(max + 1);
+        for (int i = 0; i <= max; i++) {
+            int parameterCount = i;
+            grouped.add(values.stream()
+                    .filter(value -> count.apply(value) == parameterCount)
+                    .collect(Collectors.toUnmodifiableList()));
+        }
+        return Collections.unmodifiableList(grouped);
+    }
+
+    private static <V extends ReflectWrapper<? extends AnnotatedElement>> AnnotationIndex<V> index(List<V> values) {
+        return new AnnotationIndex<>(values, (value, scope) -> annotationTypes(value.get().getDeclaredAnnotations(), scope));
+    }
+
+    private static AnnotationIndex<ReflectMethod> methodIndex(List<ReflectMethod> methods) {
+        return new AnnotationIndex<>(methods, (method, scope) -> {
+            List<Annotation> annotations = new ArrayList<>(Arrays.asList(method.getDeclaredAnnotations()));
+            if (scope.isInherited()) {
+                overridden(method.get()).stream()
+                        .flatMap(overridden -> Arrays.stream(overridden.getDeclaredAnnotations()))
+                        .filter(annotation -> annotation.annotationType().isAnnotationPresent(Inherited.class))
+                        .forEach(annotations::add);
+            }
+            return annotationTypes(annotations.toArray(Annotation[]::new), scope);
+        });
+    }
+
+    private static Set<Class<? extends Annotation>> annotationTypes(Annotation[] annotations, AnnotationScope scope) {
+        Set<Class<? extends Annotation>> types = new LinkedHashSet<>();
+        Deque<Annotation> queue = new ArrayDeque<>(Arrays.asList(annotations));
+        while (!queue.isEmpty()) {
+            Class<? extends Annotation> type = queue.poll().annotationType();
+            if (types.add(type) && scope.isMeta()) {
+                Arrays.stream(type.getDeclaredAnnotations())
+                        .filter(meta -> meta.annotationType().getPackage() != Retention.class.getPackage())
+                        .forEach(queue::add);
+            }
+        }
+        return types;
+    }
+
+    private static List<Method> overridden(Method method) {
+        List<Method> overridden = new ArrayList<>();
+        if (Modifier.isStatic(method.getModifiers()) || Modifier.isPrivate(method.getModifiers())) {
+            return overridden;
+        }
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        queue.add(method.getDeclaringClass());
+        while (!queue.isEmpty()) {
+            Class<?> clazz = queue.poll();
+            if (clazz.getSuperclass() != null) queue.add(clazz.getSuperclass());
+            queue.addAll(Arrays.asList(clazz.getInterfaces()));
+            if (clazz == method.getDeclaringClass() || !visited.add(clazz)) continue;
+            try {
+                Method candidate = clazz.getDeclaredMethod(method.getName(), method.getParameterTypes());
+                if (!Modifier.isPrivate(candidate.getModifiers()) && !Modifier.isStatic(candidate.getModifiers())) {
+                    overridden.add(candidate);
+                }
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        return overridden;
+    }
+
+    private static final class AnnotationIndex<V> {
+        private final List<V> values;
+        private final BiFunction<V, AnnotationScope, Set<Class<? extends Annotation>>> extractor;
+        private final Map<AnnotationScope, Map<Class<? extends Annotation>, List<V>>> scopes = new ConcurrentHashMap<>();
+
+        private AnnotationIndex(List<V> values, BiFunction<V, AnnotationScope, Set<Class<? extends Annotation>>> extractor) {
+            this.values = values;
+            this.extractor = extractor;
+            this.get(AnnotationScope.DIRECT);
+        }
+
+        private Map<Class<? extends Annotation>, List<V>> get(AnnotationScope scope) {
+            return this.scopes.computeIfAbsent(scope, this::build);
+        }
+
+        private Map<Class<? extends Annotation>, List<V>> build(AnnotationScope scope) {
+            Map<Class<? extends Annotation>, List<V>> index = new HashMap<>();
+            for (V value : this.values) {
+                for (Class<? extends Annotation> type : this.extractor.apply(value, scope)) {
+                    index.computeIfAbsent(type, key -> new ArrayList<>()).add(value);
+                }
+            }
+            index.replaceAll((type, values) -> List.copyOf(values));
+            return Collections.unmodifiableMap(index);
+        }
+    }
+
+    private static final class MethodTable {
+        private final List<ReflectMethod> all;
+        private final Map<Signature, ReflectMethod> bySignature;
+        private final Map<String, List<ReflectMethod>> byName;
+        private final Map<Signature, List<ReflectMethod>> byParameters;
+        private final Map<Class<?>, List<ReflectMethod>> byReturnType;
+        private final Map<Signature, List<ReflectMethod>> byNameAndReturnType;
+        private final List<List<ReflectMethod>> byParameterCount;
+        private final AnnotationIndex<ReflectMethod> annotated;
+
+        private MethodTable(Map<Signature, ReflectMethod> methods) {
+            this.all = List.copyOf(methods.values());
+            this.bySignature = Collections.unmodifiableMap(methods);
+            this.byName = group(this.all, ReflectMethod::getName);
+            this.byParameters = group(this.all, method -> new Signature(method.getParameterTypes()));
+            this.byReturnType = group(this.all, ReflectMethod::getReturnType);
+            this.byNameAndReturnType = group(this.all, method -> new Signature(method.getName(), new Class<?>[]{method.getReturnType()}));
+            this.byParameterCount = groupByCount(this.all, ReflectMethod::getParameterCount);
+            this.annotated = methodIndex(this.all);
+        }
+    }
+
+    private static final class ConstructorTable<T> {
+        private final List<ReflectConstructor<T>> all;
+        private final Map<Signature, ReflectConstructor<T>> bySignature;
+        private final List<List<ReflectConstructor<T>>> byParameterCount;
+        private final AnnotationIndex<ReflectConstructor<T>> annotated;
+
+        private ConstructorTable(Map<Signature, ReflectConstructor<T>> constructors) {
+            this.all = List.copyOf(constructors.values());
+            this.bySignature = Collections.unmodifiableMap(constructors);
+            this.byParameterCount = groupByCount(this.all, ReflectConstructor::getParameterCount);
+            this.annotated = index(this.all);
+        }
+    }
+
+    private static final class FieldTable {
+        private final List<ReflectField> all;
+        private final Map<String, ReflectField> byName;
+        private final Map<Class<?>, List<ReflectField>> byType;
+        private final AnnotationIndex<ReflectField> annotated;
+
+        private FieldTable(Map<String, ReflectField> fields) {
+            this.all = List.copyOf(fields.values());
+            this.byName = Collections.unmodifiableMap(fields);
+            this.byType = group(this.all, ReflectField::getType);
+            this.annotated = index(this.all);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package dev.ckateptb.reflection;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ReflectClassFile extends ReflectWrapper<String> {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private final int access;
+    private final String superName;
+    private final List<String> interfaces;
+    private final Set<String> annotations;
+    private final Set<String> fieldAnnotations;
+    private final Set<String> methodAnnotations;
+
+    ReflectClassFile(String name, int access, String superName, List<String> interfaces,
+                     Set<String> annotations, Set<String> fieldAnnotations, Set<String> methodAnnotations) {
+        super(name);
+        this.access = access;
+        this.superName = superName;
+        this.interfaces = interfaces;
+        this.annotations = annotations;
+        this.fieldAnnotations = fieldAnnotations;
+        this.methodAnnotations = methodAnnotations;
+    }
+
+    public String getName() {
+        return this.target;
+    }
+
+    public String getSuperName() {
+        return this.superName;
+    }
+
+    public List<String> getInterfaces() {
+        return this.interfaces;
+    }
+
+    public Set<String> getAnnotations() {
+        return this.annotations;
+    }
+
+    public Set<String> getFieldAnnotations() {
+        return this.fieldAnnotations;
+    }
+
+    public Set<String> getMethodAnnotations() {
+        return this.methodAnnotations;
+    }
+
+    public boolean isAnnotationPresent(String annotation) {
+        return this.annotations.contains(annotation);
+    }
+
+    public boolean isAnnotation() {
+        return (this.access & 0x2000) != 0;
+    }
+
+    public boolean isEnum() {
+        return (this.access & 0x4000) != 0;
+    }
+
+    @Override
+    public int modifiers() {
+        return this.access;
+    }
+
+    public static ReflectClassFile parse(byte[] bytes) {
+        return new Parser(ByteBuffer.wrap(bytes)).parse();
+    }
+
+    private static final class Parser {
+        private final ByteBuffer buffer;
+        private int[] offsets;
+
+        private Parser(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private ReflectClassFile parse() {
+            if (this.buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a class file");
+            }
+            this.buffer.getInt();
+            this.readConstantPool();
+            int access = this.u2();
+            String name = this.className(this.u2());
+            int superIndex = this.u2();
+            String superName = superIndex == 0 ? null : this.className(superIndex);
+            int interfaceCount = this.u2();
+            List<String> interfaces = new ArrayList<>(interfaceCount);
+            for (int i = 0; i < interfaceCount; i++) {
+                interfaces.add(this.className(this.u2()));
+            }
+            Set<String> fieldAnnotations = this.readMembers();
+            Set<String> methodAnnotations = this.readMembers();
+            Set<String> annotations = this.readAttributes();
+            return new ReflectClassFile(name, access, superName, Collections.unmodifiableList(interfaces),
+                    Collections.unmodifiableSet(annotations),
+                    Collections.unmodifiableSet(fieldAnnotations),
+                    Collections.unmodifiableSet(methodAnnotations));
+        }
+
+        private void readConstantPool() {
+            int count = this.u2();
+            this.offsets = new int[count];
+            for (int i = 1; i < count; i++) {
+                this.offsets[i] = this.buffer.position();
+                int tag = this.buffer.get() & 0xFF;
+                switch (tag) {
+                    case 1 -> this.skip(this.u2());
+                    case 7, 8, 16, 19, 20 -> this.skip(2);
+                    case 15 -> this.skip(3);
+                    case 3, 4, 9, 10, 11, 12, 17, 18 -> this.skip(4);
+                    case 5, 6 -> {
+                        this.skip(8);
+                        i++;
+                    }
+                    default -> throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+                }
+            }
+        }
+
+        private Set<String> readMembers() {
+            Set<String> annotations = new LinkedHashSet<>();
+            int count = this.u2();
+            for (int i = 0; i < count; i++) {
+                this.skip(6);
+                annotations.addAll(this.readAttributes());
+            }
+            return annotations;
+        }
+
+        private Set<String> readAttributes() {
+            Set<String> annotations = new LinkedHashSet<>();
+            int count = this.u2();
+            for (int i = 0; i < count; i++) {
+                String name = this.utf8(this.u2());
+                int length = this.buffer.getInt();
+                int end = this.buffer.position() + length;
+                if (name.equals("RuntimeVisibleAnnotations") || name.equals("RuntimeInvisibleAnnotations")) {
+                    int annotationCount = this.u2();
+                    for (int j = 0; j < annotationCount; j++) {
+                        annotations.add(this.readAnnotation());
+                    }
+                }
+                this.buffer.position(end);
+            }
+            return annotations;
+        }
+
+        private String readAnnotation() {
+            String type = descriptorToName(this.utf8(this.u2()));
+            int pairs = this.u2();
+            for (int i = 0; i < pairs; i++) {
+                this.skip(2);
+                this.skipElementValue();
+            }
+            return type;
+        }
+
+        private void skipElementValue() {
+            int tag = this.buffer.get() & 0xFF;
+            switch (tag) {
+                case 'e' -> this.skip(4);
+                case '@' -> this.readAnnotation();
+                case '[' -> {
+                    int count = this.u2();
+                    for (int i = 0; i < count; i++) {
+                        this.skipElementValue();
+                    }
+                }
+                default -> this.skip(2);
+            }
+        }
+
+        private String className(int index) {
+            return this.utf8(this.buffer.getShort(this.offsets[index] + 1) & 0xFFFF).replace('/', '.');
+        }
+
+        private String utf8(int index) {
+            int offset = this.offsets[index];
+            int length = this.buffer.getShort(offset + 1) & 0xFFFF;
+            int position = offset + 3;
+            int end = position + length;
+            char[] chars = new char[length];
+            int count = 0;
+            while (position < end) {
+                int b = this.buffer.get(position++) & 0xFF;
+                if (b < 0x80) {
+                    chars[count++] = (char) b;
+                } else if ((b & 0xE0) == 0xC0) {
+                    chars[count++] = (char) (((b & 0x1F) << 6) | (this.buffer.get(position++) & 0x3F));
+                } else {
+                    int b2 = this.buffer.get(position++) & 0x3F;
+                    int b3 = this.buffer.get(position++) & 0x3F;
+                    chars[count++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+                }
+            }
+            return new String(chars, 0, count);
+        }
+
+        private int u2() {
+            return this.buffer.getShort() & 0xFFFF;
+        }
+
+        private void skip(int bytes) {
+            this.buffer.position(this.buffer.position() + bytes);
+        }
+
+        private static String descriptorToName(String descriptor) {
+            return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+        }
+    }
+}
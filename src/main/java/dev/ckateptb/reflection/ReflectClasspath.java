@@ -0,0 +1,313 @@
+package dev.ckateptb.reflection;
+
+import lombok.SneakyThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+// Aggregate of many scan roots: jars, exploded directories, jars nested inside jars and jrt: modules.
+// A class provided by several roots resolves to the root added first, like a class loader search path.
+// The hierarchy index is kept in step with the roots, so adding or removing one jar only touches the
+// classes that jar provides.
+public class ReflectClasspath {
+    private final Map<String, Root> roots = new LinkedHashMap<>();
+    private final Map<String, List<Root>> providers = new HashMap<>();
+    private final Map<String, Set<String>> subtypes = new HashMap<>();
+
+    public static ReflectClasspath system() {
+        ReflectClasspath classpath = new ReflectClasspath();
+        List<File> files = Arrays.stream(System.getProperty("java.class.path", "").split(File.pathSeparator))
+                .filter(path -> !path.isEmpty())
+                .map(File::new)
+                .filter(File::exists)
+                .collect(Collectors.toList());
+        return classpath.addAll(files);
+    }
+
+    public ReflectClasspath add(File file) {
+        return this.addAll(List.of(file));
+    }
+
+    public ReflectClasspath addAll(Collection<File> files) {
+        return this.addAll(files, ForkJoinPool.commonPool());
+    }
+
+    public ReflectClasspath addAll(Collection<File> files, ForkJoinPool pool) {
+        return this.scan(files.stream().map(File::getAbsoluteFile).distinct()
+                .map(file -> (Scanner) () -> new Root(file.getPath(), Reflect.jarOf(file).getClassFilesCache()))
+                .collect(Collectors.toList()), pool);
+    }
+
+    // Adds the jar itself plus every jar stored inside it, each as its own root placed after the outer jar.
+    public ReflectClasspath addNested(File jar) throws IOException {
+        File file = jar.getAbsoluteFile();
+        List<Scanner> scanners = new ArrayList<>();
+        scanners.add(() -> new Root(file.getPath(), Reflect.jarOf(file).getClassFilesCache()));
+        try (ZipFile zip = new ZipFile(file)) {
+            zip.stream().filter(entry -> !entry.isDirectory() && entry.getName().endsWith(".jar"))
+                    .map(ZipEntry::getName)
+                    .forEach(name -> scanners.add(() -> new Root(file.getPath() + "!/" + name, scanNested(file, name))));
+        }
+        return this.scan(scanners, ForkJoinPool.commonPool());
+    }
+
+    public ReflectClasspath addModule(String module) {
+        return this.addModules(List.of(module));
+    }
+
+    @SneakyThrows
+    public ReflectClasspath addModules() {
+        try (Stream<Path> modules = Files.list(jrt().getPath("/modules"))) {
+            return this.addModules(modules.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList()));
+        }
+    }
+
+    public ReflectClasspath addModules(Collection<String> modules) {
+        FileSystem jrt = jrt();
+        return this.scan(modules.stream()
+                .map(module -> (Scanner) () -> new Root("jrt:/" + module,
+                        ReflectJar.scanClassFiles(jrt.getPath("/modules", module))))
+                .collect(Collectors.toList()), ForkJoinPool.commonPool());
+    }
+
+    private static FileSystem jrt() {
+        return FileSystems.getFileSystem(URI.create("jrt:/"));
+    }
+
+    private static Map<String, ReflectClassFile> scanNested(File jar, String name) throws IOException {
+        byte[] bytes;
+        try (ZipFile zip = new ZipFile(jar); InputStream input = zip.getInputStream(zip.getEntry(name))) {
+            bytes = input.readAllBytes();
+        }
+        Map<String, ReflectClassFile> classFiles = new HashMap<>();
+        try (ZipInputStream input = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+            ZipEntry entry;
+            while ((entry = input.getNextEntry()) != null) {
+                String entryName = entry.getName();
+                if (entry.isDirectory() || !entryName.endsWith(".class") || entryName.startsWith("META-INF/")
+                        || entryName.endsWith("module-info.class")) {
+                    continue;
+                }
+                try {
+                    ReflectClassFile classFile = ReflectClassFile.parse(input.readAllBytes());
+                    classFiles.putIfAbsent(classFile.getName(), classFile);
+                } catch (RuntimeException ignored) {
+                }
+            }
+        }
+        return Collections.unmodifiableMap(classFiles);
+    }
+
+    // Roots are scanned concurrently outside the lock and merged in the order they were given.
+    private ReflectClasspath scan(List<Scanner> scanners, ForkJoinPool pool) {
+        List<Root> scanned = pool.submit(() -> scanners.parallelStream().map(Scanner::sneakyScan)
+                .collect(Collectors.toList())).join();
+        synchronized (this) {
+            for (Root root : scanned) {
+                if (!this.roots.containsKey(root.id)) {
+                    this.roots.put(root.id, root);
+                    this.link(root);
+                }
+            }
+        }
+        return this;
+    }
+
+    public ReflectClasspath remove(File file) {
+        String id = file.getAbsolutePath();
+        synchronized (this) {
+            List<Root> removed = this.roots.values().stream()
+                    .filter(root -> root.id.equals(id) || root.id.startsWith(id + "!/"))
+                    .collect(Collectors.toList());
+            removed.forEach(this::unlink);
+        }
+        return this;
+    }
+
+    public synchronized ReflectClasspath removeModule(String module) {
+        Root root = this.roots.get("jrt:/" + module);
+        if (root != null) {
+            this.unlink(root);
+        }
+        return this;
+    }
+
+    private void link(Root root) {
+        for (ReflectClassFile classFile : root.classFiles.values()) {
+            List<Root> providers = this.providers.computeIfAbsent(classFile.getName(), key -> new ArrayList<>(1));
+            providers.add(root);
+            if (providers.size() == 1) {
+                this.edges(classFile, true);
+            }
+        }
+    }
+
+    private void unlink(Root root) {
+        this.roots.remove(root.id);
+        for (ReflectClassFile classFile : root.classFiles.values()) {
+            String name = classFile.getName();
+            List<Root> providers = this.providers.get(name);
+            boolean effective = providers.get(0) == root;
+            providers.remove(root);
+            if (!effective) {
+                continue;
+            }
+            this.edges(classFile, false);
+            if (providers.isEmpty()) {
+                this.providers.remove(name);
+            } else {
+                this.edges(providers.get(0).classFiles.get(name), true);
+            }
+        }
+    }
+
+    private void edges(ReflectClassFile classFile, boolean add) {
+        if (classFile.getSuperName() != null) {
+            this.edge(classFile.getSuperName(), classFile.getName(), add);
+        }
+        for (String iface : classFile.getInterfaces()) {
+            this.edge(iface, classFile.getName(), add);
+        }
+    }
+
+    private void edge(String type, String subtype, boolean add) {
+        if (add) {
+            this.subtypes.computeIfAbsent(type, key -> new LinkedHashSet<>()).add(subtype);
+            return;
+        }
+        Set<String> subtypes = this.subtypes.get(type);
+        if (subtypes != null && subtypes.remove(subtype) && subtypes.isEmpty()) {
+            this.subtypes.remove(type);
+        }
+    }
+
+    public synchronized List<String> getRoots() {
+        return List.copyOf(this.roots.keySet());
+    }
+
+    public synchronized Set<String> getClassNames() {
+        return Set.copyOf(this.providers.keySet());
+    }
+
+    public synchronized ReflectClassFile getClassFile(String name) {
+        List<Root> providers = this.providers.get(name);
+        return providers == null ? null : providers.get(0).classFiles.get(name);
+    }
+
+    // Root that the class resolves to, or null when no root provides it.
+    public synchronized String getRoot(String name) {
+        List<Root> providers = this.providers.get(name);
+        return providers == null ? null : providers.get(0).id;
+    }
+
+    // Classes provided by more than one root, mapped to every providing root in resolution order.
+    public synchronized Map<String, List<String>> getShadowed() {
+        Map<String, List<String>> shadowed = new LinkedHashMap<>();
+        this.providers.forEach((name, providers) -> {
+            if (providers.size() > 1) {
+                shadowed.put(name, providers.stream().map(root -> root.id).collect(Collectors.toUnmodifiableList()));
+            }
+        });
+        return Collections.unmodifiableMap(shadowed);
+    }
+
+    public synchronized Set<String> getClassNames(Predicate<ReflectClassFile> filter) {
+        return this.providers.entrySet().stream()
+                .map(entry -> entry.getValue().get(0).classFiles.get(entry.getKey()))
+                .filter(filter)
+                .map(ReflectClassFile::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public Set<String> getClassNamesAnnotatedWith(Class<? extends Annotation> annotation) {
+        String name = annotation.getName();
+        return this.getClassNames(classFile -> classFile.isAnnotationPresent(name));
+    }
+
+    public Set<String> getClassNamesWithMethodsAnnotated(Class<? extends Annotation> annotation) {
+        String name = annotation.getName();
+        return this.getClassNames(classFile -> classFile.getMethodAnnotations().contains(name));
+    }
+
+    public Set<String> getClassNamesWithFieldsAnnotated(Class<? extends Annotation> annotation) {
+        String name = annotation.getName();
+        return this.getClassNames(classFile -> classFile.getFieldAnnotations().contains(name));
+    }
+
+    public Set<String> getSubtypeNames(Class<?> type) {
+        return this.getSubtypeNames(type.getName());
+    }
+
+    public synchronized Set<String> getSubtypeNames(String type) {
+        Set<String> result = new LinkedHashSet<>();
+        Deque<String> queue = new ArrayDeque<>(this.subtypes.getOrDefault(type, Set.of()));
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            if (result.add(name)) {
+                queue.addAll(this.subtypes.getOrDefault(name, Set.of()));
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    public Set<Reflect<?>> getClasses(ClassLoader classLoader, Predicate<ReflectClassFile> filter) {
+        return this.getClassNames(filter).parallelStream()
+                .map(name -> {
+                    try {
+                        return Class.forName(name, false, classLoader);
+                    } catch (ClassNotFoundException | LinkageError e) {
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .<Reflect<?>>map(Reflect::on)
+                .collect(Collectors.toSet());
+    }
+
+    private static final class Root {
+        private final String id;
+        private final Map<String, ReflectClassFile> classFiles;
+
+        private Root(String id, Map<String, ReflectClassFile> classFiles) {
+            this.id = id;
+            this.classFiles = classFiles;
+        }
+    }
+
+    private interface Scanner {
+        Root scan() throws IOException;
+
+        @SneakyThrows
+        default Root sneakyScan() {
+            return this.scan();
+        }
+    }
+}
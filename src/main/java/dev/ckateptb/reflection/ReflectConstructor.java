@@ -1,21 +1,146 @@
 package dev.ckateptb.reflection;
 
+import lombok.SneakyThrows;
 import lombok.experimental.Delegate;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class ReflectConstructor<T> extends ReflectWrapper<Constructor<T>> {
     @Delegate
     private final Constructor<T> constructor;
+    private final Signature signature;
+    private final Class<?>[] parameters;
+    private volatile ConstructorInvoker<T> invoker;
+    private volatile Object view;
+    private volatile MemberMetrics metrics;
+    private ReflectClass<?> owner;
+    private int index = -1;
+    private int calls;
+    private volatile ReflectBackend promoted;
 
     ReflectConstructor(Constructor<T> constructor) {
         super(constructor);
         this.constructor = constructor;
         this.constructor.trySetAccessible();
+        this.parameters = constructor.getParameterTypes();
+        this.signature = new Signature(this.parameters);
+    }
+
+    Signature signature() {
+        return this.signature;
+    }
+
+    void bind(ReflectClass<?> owner, int index) {
+        this.owner = owner;
+        this.index = index;
+    }
+
+    @SuppressWarnings("unchecked")
+    <V> V view(Function<? super ReflectConstructor<T>, V> factory) {
+        Object view = this.view;
+        if (view == null) {
+            this.view = view = factory.apply(this);
+        }
+        return (V) view;
+    }
+
+    @SneakyThrows
+    public T instantiate(Object... args) {
+        if (!ReflectMetrics.enabled) {
+            return this.dispatch(args);
+        }
+        MemberMetrics metrics = this.metrics();
+        long start = System.nanoTime();
+        try {
+            return this.dispatch(args);
+        } catch (Throwable e) {
+            metrics.error();
+            throw e;
+        } finally {
+            metrics.record(System.nanoTime() - start);
+        }
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    private T dispatch(Object[] args) {
+        ReflectBackend backend = Reflect.backend();
+        if (backend == ReflectBackend.ADAPTIVE) {
+            backend = this.adaptive();
+        }
+        if (backend == ReflectBackend.GENERATED && this.owner != null) {
+            AccessorGenerator.Accessor accessor = this.owner.accessor();
+            if (accessor.hasConstructor(this.index)) {
+                Object[] arguments = Invocation.arguments(this.parameters, args);
+                try {
+                    return (T) accessor.get().newInstance(this.index, arguments);
+                } catch (Throwable e) {
+                    throw new InvocationTargetException(e);
+                }
+            }
+        } else if (backend == ReflectBackend.METHOD_HANDLE) {
+            Object[] arguments = Invocation.arguments(this.parameters, args);
+            try {
+                return this.invoker().newInstanceWithArguments(arguments);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+        return this.constructor.newInstance(args);
+    }
+
+    private ReflectBackend adaptive() {
+        ReflectBackend promoted = this.promoted;
+        if (promoted != null) {
+            return promoted;
+        }
+        if (++this.calls < Reflect.adaptiveThreshold()) {
+            return ReflectBackend.REFLECTION;
+        }
+        promoted = this.owner != null && this.owner.accessor().hasConstructor(this.index)
+                ? ReflectBackend.GENERATED : ReflectBackend.METHOD_HANDLE;
+        this.promoted = promoted;
+        return promoted;
+    }
+
+    public MemberMetrics metrics() {
+        MemberMetrics metrics = this.metrics;
+        if (metrics == null || metrics.generation != ReflectMetrics.generation) {
+            this.metrics = metrics = ReflectMetrics.track(this.constructor, MemberMetrics.Operation.INSTANTIATE);
+        }
+        return metrics;
+    }
+
+    public Supplier<T> supplier() {
+        return this.invoker().supplier();
+    }
+
+    public <A> Function<A, T> function() {
+        return this.invoker().function();
+    }
+
+    public <A, B> BiFunction<A, B, T> biFunction() {
+        return this.invoker().biFunction();
+    }
+
+    public ObjectFactory<T> factory() {
+        return this.invoker().factory();
+    }
+
+    public ConstructorInvoker<T> invoker() {
+        ConstructorInvoker<T> invoker = this.invoker;
+        if (invoker == null) {
+            this.invoker = invoker = new ConstructorInvoker<>(this.constructor);
+        }
+        return invoker;
     }
 
     @Override
     public int modifiers() {
         return this.target.getModifiers();
     }
-}
\ No newline at end of file
+}
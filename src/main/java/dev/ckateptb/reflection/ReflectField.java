@@ -1,12 +1,28 @@
 package dev.ckateptb.reflection;
 
+import lombok.SneakyThrows;
 import lombok.experimental.Delegate;
 
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 public class ReflectField extends ReflectWrapper<Field> {
     @Delegate
     private final Field field;
+    private volatile FieldAccessor accessor;
+    private volatile Object view;
+    private volatile MemberMetrics readMetrics;
+    private volatile MemberMetrics writeMetrics;
+    private ReflectClass<?> owner;
+    private int index = -1;
+    private int reads;
+    private int writes;
+    private volatile ReflectBackend readPromoted;
+    private volatile ReflectBackend writePromoted;
 
     ReflectField(Field field) {
         super(field);
@@ -14,8 +30,334 @@ public class ReflectField extends ReflectWrapper<Field> {
         this.field.trySetAccessible();
     }
 
+    void bind(ReflectClass<?> owner, int index) {
+        this.owner = owner;
+        this.index = index;
+    }
+
+    @SuppressWarnings("unchecked")
+    <V> V view(Function<? super ReflectField, V> factory) {
+        Object view = this.view;
+        if (view == null) {
+            this.view = view = factory.apply(this);
+        }
+        return (V) view;
+    }
+
+    @SneakyThrows
+    public Object getValue(Object target) {
+        if (!ReflectMetrics.enabled) {
+            return this.read(target);
+        }
+        MemberMetrics metrics = this.readMetrics();
+        long start = System.nanoTime();
+        try {
+            return this.read(target);
+        } catch (Throwable e) {
+            metrics.error();
+            throw e;
+        } finally {
+            metrics.record(System.nanoTime() - start);
+        }
+    }
+
+    @SneakyThrows
+    public void setValue(Object target, Object value) {
+        if (!ReflectMetrics.enabled) {
+            this.write(target, value);
+            return;
+        }
+        MemberMetrics metrics = this.writeMetrics();
+        long start = System.nanoTime();
+        try {
+            this.write(target, value);
+        } catch (Throwable e) {
+            metrics.error();
+            throw e;
+        } finally {
+            metrics.record(System.nanoTime() - start);
+        }
+    }
+
+    @SneakyThrows
+    private Object read(Object target) {
+        ReflectBackend backend = Reflect.backend();
+        if (backend == ReflectBackend.ADAPTIVE) {
+            backend = this.adaptiveRead();
+        }
+        if (backend == ReflectBackend.GENERATED && this.owner != null) {
+            AccessorGenerator.Accessor accessor = this.owner.accessor();
+            if (accessor.hasGetter(this.index)) {
+                this.check(target);
+                return accessor.get().get(this.index, target);
+            }
+        } else if (backend == ReflectBackend.METHOD_HANDLE) {
+            this.check(target);
+            return this.accessor().getObject(target);
+        }
+        return this.field.get(target);
+    }
+
+    @SneakyThrows
+    private void write(Object target, Object value) {
+        ReflectBackend backend = Reflect.backend();
+        if (backend == ReflectBackend.ADAPTIVE) {
+            backend = this.adaptiveWrite();
+        }
+        if (backend == ReflectBackend.GENERATED && this.owner != null) {
+            AccessorGenerator.Accessor accessor = this.owner.accessor();
+            if (accessor.hasSetter(this.index)) {
+                this.check(target);
+                accessor.get().set(this.index, target, Invocation.value(this.getType(), value));
+                return;
+            }
+        } else if (backend == ReflectBackend.METHOD_HANDLE && !this.isFinal()) {
+            this.check(target);
+            this.accessor().setObject(target, Invocation.value(this.getType(), value));
+            return;
+        }
+        this.field.set(target, value);
+    }
+
+    // Same receiver outcomes as Field.get and Field.set, whichever backend the field is on.
+    private void check(Object target) {
+        if (!this.isStatic()) {
+            Invocation.receiver(this.field.getDeclaringClass(), target);
+        }
+    }
+
+    // Reads and writes are promoted separately: a final field, for one, compiles a getter but no setter.
+    private ReflectBackend adaptiveRead() {
+        ReflectBackend promoted = this.readPromoted;
+        if (promoted != null) {
+            return promoted;
+        }
+        if (++this.reads < Reflect.adaptiveThreshold()) {
+            return ReflectBackend.REFLECTION;
+        }
+        promoted = this.owner != null && this.owner.accessor().hasGetter(this.index)
+                ? ReflectBackend.GENERATED : ReflectBackend.METHOD_HANDLE;
+        this.readPromoted = promoted;
+        return promoted;
+    }
+
+    private ReflectBackend adaptiveWrite() {
+        ReflectBackend promoted = this.writePromoted;
+        if (promoted != null) {
+            return promoted;
+        }
+        if (++this.writes < Reflect.adaptiveThreshold()) {
+            return ReflectBackend.REFLECTION;
+        }
+        if (this.owner != null && this.owner.accessor().hasSetter(this.index)) {
+            promoted = ReflectBackend.GENERATED;
+        } else {
+            promoted = this.isFinal() ? ReflectBackend.REFLECTION : ReflectBackend.METHOD_HANDLE;
+        }
+        this.writePromoted = promoted;
+        return promoted;
+    }
+
+    public int[] getInts(Object[] targets) {
+        FieldAccessor accessor = this.accessor();
+        int[] values = new int[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            values[i] = accessor.getInt(targets[i]);
+        }
+        return values;
+    }
+
+    public int[] getInts(Object[] targets, ForkJoinPool pool) {
+        FieldAccessor accessor = this.accessor();
+        int[] values = new int[targets.length];
+        parallel(pool, targets.length, i -> values[i] = accessor.getInt(targets[i]));
+        return values;
+    }
+
+    public long[] getLongs(Object[] targets) {
+        FieldAccessor accessor = this.accessor();
+        long[] values = new long[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            values[i] = accessor.getLong(targets[i]);
+        }
+        return values;
+    }
+
+    public long[] getLongs(Object[] targets, ForkJoinPool pool) {
+        FieldAccessor accessor = this.accessor();
+        long[] values = new long[targets.length];
+        parallel(pool, targets.length, i -> values[i] = accessor.getLong(targets[i]));
+        return values;
+    }
+
+    public double[] getDoubles(Object[] targets) {
+        FieldAccessor accessor = this.accessor();
+        double[] values = new double[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            values[i] = accessor.getDouble(targets[i]);
+        }
+        return values;
+    }
+
+    public double[] getDoubles(Object[] targets, ForkJoinPool pool) {
+        FieldAccessor accessor = this.accessor();
+        double[] values = new double[targets.length];
+        parallel(pool, targets.length, i -> values[i] = accessor.getDouble(targets[i]));
+        return values;
+    }
+
+    public Object[] getValues(Object[] targets) {
+        FieldAccessor accessor = this.accessor();
+        Object[] values = new Object[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            values[i] = accessor.getObject(targets[i]);
+        }
+        return values;
+    }
+
+    public Object[] getValues(Object[] targets, ForkJoinPool pool) {
+        FieldAccessor accessor = this.accessor();
+        Object[] values = new Object[targets.length];
+        parallel(pool, targets.length, i -> values[i] = accessor.getObject(targets[i]));
+        return values;
+    }
+
+    public void setInts(Object[] targets, int[] values) {
+        checkLength(targets, values.length);
+        if (this.isFinal()) {
+            for (int i = 0; i < targets.length; i++) {
+                this.setValue(targets[i], values[i]);
+            }
+            return;
+        }
+        FieldAccessor accessor = this.accessor();
+        for (int i = 0; i < targets.length; i++) {
+            accessor.setInt(targets[i], values[i]);
+        }
+    }
+
+    public void setInts(Object[] targets, int[] values, ForkJoinPool pool) {
+        checkLength(targets, values.length);
+        FieldAccessor accessor = this.accessor();
+        if (this.isFinal()) {
+            parallel(pool, targets.length, i -> this.setValue(targets[i], values[i]));
+        } else {
+            parallel(pool, targets.length, i -> accessor.setInt(targets[i], values[i]));
+        }
+    }
+
+    public void setLongs(Object[] targets, long[] values) {
+        checkLength(targets, values.length);
+        if (this.isFinal()) {
+            for (int i = 0; i < targets.length; i++) {
+                this.setValue(targets[i], values[i]);
+            }
+            return;
+        }
+        FieldAccessor accessor = this.accessor();
+        for (int i = 0; i < targets.length; i++) {
+            accessor.setLong(targets[i], values[i]);
+        }
+    }
+
+    public void setLongs(Object[] targets, long[] values, ForkJoinPool pool) {
+        checkLength(targets, values.length);
+        FieldAccessor accessor = this.accessor();
+        if (this.isFinal()) {
+            parallel(pool, targets.length, i -> this.setValue(targets[i], values[i]));
+        } else {
+            parallel(pool, targets.length, i -> accessor.setLong(targets[i], values[i]));
+        }
+    }
+
+    public void setDoubles(Object[] targets, double[] values) {
+        checkLength(targets, values.length);
+        if (this.isFinal()) {
+            for (int i = 0; i < targets.length; i++) {
+                this.setValue(targets[i], values[i]);
+            }
+            return;
+        }
+        FieldAccessor accessor = this.accessor();
+        for (int i = 0; i < targets.length; i++) {
+            accessor.setDouble(targets[i], values[i]);
+        }
+    }
+
+    public void setDoubles(Object[] targets, double[] values, ForkJoinPool pool) {
+        checkLength(targets, values.length);
+        FieldAccessor accessor = this.accessor();
+        if (this.isFinal()) {
+            parallel(pool, targets.length, i -> this.setValue(targets[i], values[i]));
+        } else {
+            parallel(pool, targets.length, i -> accessor.setDouble(targets[i], values[i]));
+        }
+    }
+
+    public void setValues(Object[] targets, Object[] values) {
+        checkLength(targets, values.length);
+        if (this.isFinal()) {
+            for (int i = 0; i < targets.length; i++) {
+                this.setValue(targets[i], values[i]);
+            }
+            return;
+        }
+        FieldAccessor accessor = this.accessor();
+        for (int i = 0; i < targets.length; i++) {
+            accessor.setObject(targets[i], values[i]);
+        }
+    }
+
+    public void setValues(Object[] targets, Object[] values, ForkJoinPool pool) {
+        checkLength(targets, values.length);
+        FieldAccessor accessor = this.accessor();
+        if (this.isFinal()) {
+            parallel(pool, targets.length, i -> this.setValue(targets[i], values[i]));
+        } else {
+            parallel(pool, targets.length, i -> accessor.setObject(targets[i], values[i]));
+        }
+    }
+
+    private static void checkLength(Object[] targets, int length) {
+        if (targets.length != length) {
+            throw new IllegalArgumentException("Expected " + targets.length + " values but got " + length);
+        }
+    }
+
+    private static void parallel(ForkJoinPool pool, int size, IntConsumer action) {
+        pool.submit(() -> IntStream.range(0, size).parallel().forEach(action)).join();
+    }
+
+    public MemberMetrics readMetrics() {
+        MemberMetrics metrics = this.readMetrics;
+        if (metrics == null || metrics.generation != ReflectMetrics.generation) {
+            this.readMetrics = metrics = ReflectMetrics.track(this.field, MemberMetrics.Operation.GET);
+        }
+        return metrics;
+    }
+
+    public MemberMetrics writeMetrics() {
+        MemberMetrics metrics = this.writeMetrics;
+        if (metrics == null || metrics.generation != ReflectMetrics.generation) {
+            this.writeMetrics = metrics = ReflectMetrics.track(this.field, MemberMetrics.Operation.SET);
+        }
+        return metrics;
+    }
+
+    public FieldAccessor accessor() {
+        FieldAccessor accessor = this.accessor;
+        if (accessor == null) {
+            this.accessor = accessor = new FieldAccessor(this.field);
+        }
+        return accessor;
+    }
+
+    public VarHandle varHandle() {
+        return this.accessor().handle();
+    }
+
     @Override
     public int modifiers() {
         return this.getModifiers();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package dev.ckateptb.reflection;
+
+import lombok.SneakyThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Compile-time index written by the processor module (META-INF/reflect/index). Queries are answered from
+// the recorded names; classes are only loaded when members or Reflect views are requested. A stale index,
+// written before a member was renamed or removed, simply no longer yields that member.
+public final class ReflectIndex {
+    static final String RESOURCE = "META-INF/reflect/index";
+    private static final Map<String, Class<?>> PRIMITIVES = Map.of(
+            "boolean", boolean.class, "byte", byte.class, "short", short.class, "char", char.class,
+            "int", int.class, "long", long.class, "float", float.class, "double", double.class);
+    static final ReflectIndex EMPTY = new ReflectIndex();
+
+    private final Map<String, Set<String>> classes = new HashMap<>();
+    private final Map<String, List<Member>> fields = new HashMap<>();
+    private final Map<String, List<Member>> methods = new HashMap<>();
+    private final Map<String, List<Member>> constructors = new HashMap<>();
+
+    private ReflectIndex() {
+    }
+
+    public static ReflectIndex of(ClassLoader classLoader) throws IOException {
+        ReflectIndex index = new ReflectIndex();
+        Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            try (InputStream input = resource.openStream()) {
+                index.read(input, resource.toString());
+            }
+        }
+        return index;
+    }
+
+    static ReflectIndex parse(InputStream input, String source) throws IOException {
+        ReflectIndex index = new ReflectIndex();
+        index.read(input, source);
+        return index;
+    }
+
+    // The index only records RUNTIME annotations, so it cannot answer queries about the others.
+    static boolean covers(Class<? extends Annotation> annotation) {
+        Retention retention = annotation.getAnnotation(Retention.class);
+        return retention != null && retention.value() == RetentionPolicy.RUNTIME;
+    }
+
+    private void read(InputStream input, String source) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        for (int number = 1; (line = reader.readLine()) != null; number++) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\t", -1);
+            int expected = switch (parts[0]) {
+                case "C" -> 3;
+                case "F", "K" -> 4;
+                case "M" -> 5;
+                default -> -1;
+            };
+            if (parts.length != expected) {
+                throw new IOException("Malformed record at " + source + ":" + number + ": " + line);
+            }
+            switch (parts[0]) {
+                case "C" -> this.classes.computeIfAbsent(parts[2], key -> new LinkedHashSet<>()).add(parts[1]);
+                case "F" -> this.fields.computeIfAbsent(parts[3], key -> new ArrayList<>())
+                        .add(new Member(parts[1], parts[2], null));
+                case "M" -> this.methods.computeIfAbsent(parts[4], key -> new ArrayList<>())
+                        .add(new Member(parts[1], parts[2], parameters(parts[3])));
+                default -> this.constructors.computeIfAbsent(parts[3], key -> new ArrayList<>())
+                        .add(new Member(parts[1], "<init>", parameters(parts[2])));
+            }
+        }
+    }
+
+    private static String[] parameters(String parameters) {
+        return parameters.isEmpty() ? new String[0] : parameters.split(",");
+    }
+
+    public boolean isEmpty() {
+        return this.classes.isEmpty() && this.fields.isEmpty() && this.methods.isEmpty() && this.constructors.isEmpty();
+    }
+
+    public Set<String> getClassNamesAnnotatedWith(Class<? extends Annotation> annotation) {
+        return Collections.unmodifiableSet(this.classes.getOrDefault(annotation.getName(), Set.of()));
+    }
+
+    public Set<String> getClassNamesWithFieldsAnnotated(Class<? extends Annotation> annotation) {
+        return owners(this.fields.getOrDefault(annotation.getName(), List.of()));
+    }
+
+    public Set<String> getClassNamesWithMethodsAnnotated(Class<? extends Annotation> annotation) {
+        return owners(this.methods.getOrDefault(annotation.getName(), List.of()));
+    }
+
+    public Set<String> getClassNamesWithConstructorsAnnotated(Class<? extends Annotation> annotation) {
+        return owners(this.constructors.getOrDefault(annotation.getName(), List.of()));
+    }
+
+    private static Set<String> owners(List<Member> members) {
+        return members.stream().map(member -> member.owner).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @SneakyThrows
+    public Set<Reflect<?>> getClassesAnnotatedWith(ClassLoader classLoader, Class<? extends Annotation> annotation) {
+        Set<Reflect<?>> classes = new LinkedHashSet<>();
+        for (String name : this.getClassNamesAnnotatedWith(annotation)) {
+            classes.add(Reflect.on(Class.forName(name, false, classLoader)));
+        }
+        return classes;
+    }
+
+    @SneakyThrows
+    public List<ReflectField> getFieldsAnnotatedWith(ClassLoader classLoader, Class<? extends Annotation> annotation) {
+        List<Member> members = this.fields.getOrDefault(annotation.getName(), List.of());
+        List<ReflectField> fields = new ArrayList<>(members.size());
+        for (Member member : members) {
+            ReflectField field = Reflect.classOf(Class.forName(member.owner, false, classLoader)).getFieldByName(member.name);
+            if (field != null) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    @SneakyThrows
+    public List<ReflectMethod> getMethodsAnnotatedWith(ClassLoader classLoader, Class<? extends Annotation> annotation) {
+        List<Member> members = this.methods.getOrDefault(annotation.getName(), List.of());
+        List<ReflectMethod> methods = new ArrayList<>(members.size());
+        for (Member member : members) {
+            ReflectMethod method = Reflect.classOf(Class.forName(member.owner, false, classLoader))
+                    .getMethodByNameAndParams(member.name, member.parameterTypes(classLoader));
+            if (method != null) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    @SneakyThrows
+    public List<ReflectConstructor<?>> getConstructorsAnnotatedWith(ClassLoader classLoader, Class<? extends Annotation> annotation) {
+        List<Member> members = this.constructors.getOrDefault(annotation.getName(), List.of());
+        List<ReflectConstructor<?>> constructors = new ArrayList<>(members.size());
+        for (Member member : members) {
+            ReflectConstructor<?> constructor = Reflect.classOf(Class.forName(member.owner, false, classLoader))
+                    .getConstructorWithParams(member.parameterTypes(classLoader));
+            if (constructor != null) {
+                constructors.add(constructor);
+            }
+        }
+        return constructors;
+    }
+
+    private static final class Member {
+        private final String owner;
+        private final String name;
+        private final String[] parameters;
+
+        private Member(String owner, String name, String[] parameters) {
+            this.owner = owner;
+            this.name = name;
+            this.parameters = parameters;
+        }
+
+        private Class<?>[] parameterTypes(ClassLoader classLoader) throws ClassNotFoundException {
+            Class<?>[] types = new Class<?>[this.parameters.length];
+            for (int i = 0; i < types.length; i++) {
+                Class<?> primitive = PRIMITIVES.get(this.parameters[i]);
+                types[i] = primitive != null ? primitive : Class.forName(this.parameters[i], false, classLoader);
+            }
+            return types;
+        }
+    }
+}
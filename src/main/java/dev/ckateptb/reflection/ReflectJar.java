@@ -3,47 +3,180 @@ package dev.ckateptb.reflection;
 import lombok.SneakyThrows;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.*;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 public class ReflectJar extends ReflectWrapper<File> {
-    private final Set<String> classNamesCache = new HashSet<>();
-    private final Map<String, Class<?>> classesCache = new HashMap<>();
+    private static final System.Logger LOGGER = System.getLogger("dev.ckateptb.reflection");
+    private final Map<String, Class<?>> classesCache = new ConcurrentHashMap<>();
+    private volatile Set<String> classNamesCache;
+    private volatile Map<String, ReflectClassFile> classFilesCache;
+    private volatile Map<String, List<String>> subtypesCache;
+    private volatile File indexFile;
+    private volatile JarIndex index;
+    private volatile ReflectIndex compiledIndex;
 
     protected ReflectJar(File target) {
         super(target);
     }
 
-    public Set<String> getClassNamesCache() throws IOException {
-        if (this.classNamesCache.isEmpty()) {
-            try (JarFile jar = new JarFile(this.target)) {
-                Enumeration<JarEntry> entries = jar.entries();
-                while (entries.hasMoreElements()) {
-                    JarEntry entry = entries.nextElement();
-                    if (entry.getName().endsWith(".class")) {
-                        this.classNamesCache.add(entry.getName()
-                                .replace('/', '.')
-                                .replace(".class", ""));
+    public ReflectJar useIndex() {
+        return this.useIndex(this.target.getAbsoluteFile().getParentFile(), this.target.getName() + ".rjidx");
+    }
+
+    public ReflectJar useIndex(File directory) {
+        String path = this.target.getAbsolutePath();
+        return this.useIndex(directory, this.target.getName() + "-" + Integer.toHexString(path.hashCode()) + ".rjidx");
+    }
+
+    private ReflectJar useIndex(File directory, String name) {
+        this.indexFile = new File(directory, name);
+        this.index = null;
+        return this;
+    }
+
+    // Directories change file by file, so their scans are never persisted.
+    private JarIndex index() throws IOException {
+        File indexFile = this.indexFile;
+        if (indexFile == null || this.target.isDirectory()) {
+            return null;
+        }
+        JarIndex index = this.index;
+        if (index == null) {
+            synchronized (this) {
+                index = this.index;
+                if (index == null) {
+                    long[] key = JarIndex.key(this.target);
+                    index = JarIndex.read(indexFile, key);
+                    if (index == null) {
+                        Map<String, ReflectClassFile> classFiles = this.scanClassFiles();
+                        this.classFilesCache = classFiles;
+                        try (Stream<String> names = this.scanClassNames()) {
+                            JarIndex.write(indexFile, key, names.collect(Collectors.toList()), classFiles.values());
+                            index = JarIndex.read(indexFile, key);
+                        } catch (IOException e) {
+                            this.indexFile = null;
+                            return null;
+                        }
                     }
+                    this.index = index;
                 }
             }
         }
-        return Collections.unmodifiableSet(this.classNamesCache);
+        return index;
+    }
+
+    // Index written into the jar by the annotation processor; an empty index stands for "none present".
+    private ReflectIndex compiledIndex() throws IOException {
+        ReflectIndex compiledIndex = this.compiledIndex;
+        if (compiledIndex == null) {
+            if (this.target.isDirectory()) {
+                File file = new File(this.target, ReflectIndex.RESOURCE);
+                if (file.isFile()) {
+                    try (InputStream input = new FileInputStream(file)) {
+                        compiledIndex = ReflectIndex.parse(input, file.getPath());
+                    }
+                }
+            } else {
+                try (ZipFile zip = new ZipFile(this.target)) {
+                    ZipEntry entry = zip.getEntry(ReflectIndex.RESOURCE);
+                    if (entry != null) {
+                        try (InputStream input = zip.getInputStream(entry)) {
+                            compiledIndex = ReflectIndex.parse(input, zip.getName() + "!/" + ReflectIndex.RESOURCE);
+                        }
+                    }
+                }
+            }
+            this.compiledIndex = compiledIndex = compiledIndex != null ? compiledIndex : ReflectIndex.EMPTY;
+        }
+        return compiledIndex.isEmpty() ? null : compiledIndex;
+    }
+
+    public Stream<String> classNames() throws IOException {
+        Set<String> classNamesCache = this.classNamesCache;
+        if (classNamesCache != null) {
+            return classNamesCache.stream();
+        }
+        JarIndex index = this.index();
+        if (index != null) {
+            return index.names().stream();
+        }
+        return this.scanClassNames();
+    }
+
+    private Stream<String> scanClassNames() throws IOException {
+        if (this.target.isDirectory()) {
+            Path root = this.target.toPath();
+            try (Stream<Path> files = Files.walk(root)) {
+                return files.filter(ReflectJar::isClassFile)
+                        .map(file -> className(root.relativize(file)))
+                        .collect(Collectors.toList())
+                        .stream();
+            }
+        }
+        ZipDirectory directory = ZipDirectory.open(this.target);
+        if (directory != null) {
+            return directory.classNames();
+        }
+        try (JarFile jar = new JarFile(this.target)) {
+            return jar.stream()
+                    .map(JarEntry::getName)
+                    .filter(name -> name.endsWith(".class"))
+                    .map(name -> name.substring(0, name.length() - ".class".length()).replace('/', '.'))
+                    .collect(Collectors.toList())
+                    .stream();
+        }
+    }
+
+    public Set<String> getClassNamesCache() throws IOException {
+        Set<String> classNamesCache = this.classNamesCache;
+        if (classNamesCache == null) {
+            try (Stream<String> classNames = this.classNames()) {
+                this.classNamesCache = classNamesCache = classNames.parallel()
+                        .collect(Collectors.toUnmodifiableSet());
+            }
+        }
+        return classNamesCache;
     }
 
     public Set<Reflect<?>> getClasses(ClassLoader classLoader, Predicate<String> filter) throws IOException {
-        return this.getClassNamesCache().stream()
+        return this.getClasses(classLoader, filter, ForkJoinPool.commonPool());
+    }
+
+    public Set<Reflect<?>> getClasses(ClassLoader classLoader, Predicate<String> filter, ForkJoinPool pool) throws IOException {
+        Set<String> classNames = this.getClassNamesCache();
+        return pool.submit(() -> classNames.parallelStream()
                 .filter(filter)
                 .map(clazz -> {
                     Class<?> cached = this.classesCache.get(clazz);
                     if (cached != null) return cached;
                     try {
                         Class<?> newClass = classLoader.loadClass(clazz);
-                        this.classesCache.put(clazz, newClass);
+                        this.classesCache.putIfAbsent(clazz, newClass);
                         return newClass;
                     } catch (ClassNotFoundException e) {
                         e.printStackTrace();
@@ -51,8 +184,173 @@ public class ReflectJar extends ReflectWrapper<File> {
                     }
                 })
                 .filter(Objects::nonNull)
-                .map(Reflect::on)
-                .collect(Collectors.toSet());
+                .<Reflect<?>>map(Reflect::on)
+                .collect(Collectors.toSet())).join();
+    }
+
+    public Map<String, ReflectClassFile> getClassFilesCache() throws IOException {
+        Map<String, ReflectClassFile> classFilesCache = this.classFilesCache;
+        if (classFilesCache == null) {
+            JarIndex index = this.index();
+            this.classFilesCache = classFilesCache = index != null ? index.classFiles() : this.scanClassFiles();
+        }
+        return classFilesCache;
+    }
+
+    private Map<String, ReflectClassFile> scanClassFiles() throws IOException {
+        if (this.target.isDirectory()) {
+            return scanClassFiles(this.target.toPath());
+        }
+        long start = System.nanoTime();
+        try (ZipFile zip = new ZipFile(this.target)) {
+            Map<String, ReflectClassFile> classFiles = zip.stream()
+                    .filter(entry -> !entry.isDirectory() && entry.getName().endsWith(".class"))
+                    .filter(entry -> !entry.getName().startsWith("META-INF/"))
+                    .filter(entry -> !entry.getName().endsWith("module-info.class"))
+                    .collect(Collectors.toList())
+                    .parallelStream()
+                    .map(entry -> this.readClassFile(zip, entry))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toUnmodifiableMap(ReflectClassFile::getName, Function.identity(),
+                            (first, second) -> first));
+            if (ReflectMetrics.enabled) {
+                ReflectMetrics.jarScans.record(start);
+            }
+            return classFiles;
+        }
+    }
+
+    // Shared by exploded directories and jrt: module roots, which are both plain file trees.
+    static Map<String, ReflectClassFile> scanClassFiles(Path root) throws IOException {
+        long start = System.nanoTime();
+        try (Stream<Path> files = Files.walk(root)) {
+            Map<String, ReflectClassFile> classFiles = files.filter(ReflectJar::isClassFile)
+                    .filter(file -> !root.relativize(file).startsWith("META-INF"))
+                    .collect(Collectors.toList())
+                    .parallelStream()
+                    .map(ReflectJar::readClassFile)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toUnmodifiableMap(ReflectClassFile::getName, Function.identity(),
+                            (first, second) -> first));
+            if (ReflectMetrics.enabled) {
+                ReflectMetrics.jarScans.record(start);
+            }
+            return classFiles;
+        }
+    }
+
+    private static boolean isClassFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".class") && !name.equals("module-info.class") && Files.isRegularFile(file);
+    }
+
+    private static String className(Path relative) {
+        String name = relative.toString().replace(relative.getFileSystem().getSeparator(), ".");
+        return name.substring(0, name.length() - ".class".length());
+    }
+
+    private static ReflectClassFile readClassFile(Path file) {
+        try {
+            return ReflectClassFile.parse(Files.readAllBytes(file));
+        } catch (IOException | RuntimeException e) {
+            return skipped(file.toUri().toString(), e);
+        }
+    }
+
+    private ReflectClassFile readClassFile(ZipFile zip, ZipEntry entry) {
+        try (InputStream input = zip.getInputStream(entry)) {
+            return ReflectClassFile.parse(input.readAllBytes());
+        } catch (IOException | RuntimeException e) {
+            return skipped(zip.getName() + "!/" + entry.getName(), e);
+        }
+    }
+
+    // Class files that fail to parse drop out of the scan results while classNames() still lists them, so say which.
+    private static ReflectClassFile skipped(String location, Exception e) {
+        LOGGER.log(System.Logger.Level.WARNING, "Skipping unreadable class file " + location, e);
+        return null;
+    }
+
+    public Set<String> getClassNames(Predicate<ReflectClassFile> filter) throws IOException {
+        return this.getClassFilesCache().values().parallelStream()
+                .filter(filter)
+                .map(ReflectClassFile::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public Set<String> getClassNamesAnnotatedWith(Class<? extends Annotation> annotation) throws IOException {
+        if (ReflectIndex.covers(annotation)) {
+            ReflectIndex compiledIndex = this.compiledIndex();
+            if (compiledIndex != null) return compiledIndex.getClassNamesAnnotatedWith(annotation);
+        }
+        String name = annotation.getName();
+        JarIndex index = this.index();
+        if (index != null) return index.annotated(name);
+        return this.getClassNames(classFile -> classFile.isAnnotationPresent(name));
+    }
+
+    public Set<String> getClassNamesWithMethodsAnnotated(Class<? extends Annotation> annotation) throws IOException {
+        if (ReflectIndex.covers(annotation)) {
+            ReflectIndex compiledIndex = this.compiledIndex();
+            if (compiledIndex != null) return compiledIndex.getClassNamesWithMethodsAnnotated(annotation);
+        }
+        String name = annotation.getName();
+        JarIndex index = this.index();
+        if (index != null) return index.methodsAnnotated(name);
+        return this.getClassNames(classFile -> classFile.getMethodAnnotations().contains(name));
+    }
+
+    public Set<String> getClassNamesWithFieldsAnnotated(Class<? extends Annotation> annotation) throws IOException {
+        if (ReflectIndex.covers(annotation)) {
+            ReflectIndex compiledIndex = this.compiledIndex();
+            if (compiledIndex != null) return compiledIndex.getClassNamesWithFieldsAnnotated(annotation);
+        }
+        String name = annotation.getName();
+        JarIndex index = this.index();
+        if (index != null) return index.fieldsAnnotated(name);
+        return this.getClassNames(classFile -> classFile.getFieldAnnotations().contains(name));
+    }
+
+    public Set<String> getSubtypeNames(Class<?> type) throws IOException {
+        return this.getSubtypeNames(type.getName());
+    }
+
+    public Set<String> getSubtypeNames(String type) throws IOException {
+        JarIndex index = this.index();
+        if (index != null) return index.subtypes(type);
+        Map<String, List<String>> subtypes = this.getSubtypesCache();
+        Set<String> result = new LinkedHashSet<>();
+        Deque<String> queue = new ArrayDeque<>(subtypes.getOrDefault(type, List.of()));
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            if (result.add(name)) {
+                queue.addAll(subtypes.getOrDefault(name, List.of()));
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    // Direct subtypes by supertype name, built once from the class files like classFilesCache itself.
+    private Map<String, List<String>> getSubtypesCache() throws IOException {
+        Map<String, List<String>> subtypesCache = this.subtypesCache;
+        if (subtypesCache == null) {
+            Map<String, List<String>> subtypes = new HashMap<>();
+            for (ReflectClassFile classFile : this.getClassFilesCache().values()) {
+                if (classFile.getSuperName() != null) {
+                    subtypes.computeIfAbsent(classFile.getSuperName(), key -> new ArrayList<>()).add(classFile.getName());
+                }
+                for (String iface : classFile.getInterfaces()) {
+                    subtypes.computeIfAbsent(iface, key -> new ArrayList<>()).add(classFile.getName());
+                }
+            }
+            this.subtypesCache = subtypesCache = subtypes;
+        }
+        return subtypesCache;
+    }
+
+    public Set<Reflect<?>> getClassesMatching(ClassLoader classLoader, Predicate<ReflectClassFile> filter) throws IOException {
+        Set<String> classNames = this.getClassNames(filter);
+        return this.getClasses(classLoader, classNames::contains);
     }
 
     @SneakyThrows
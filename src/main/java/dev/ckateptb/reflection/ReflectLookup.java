@@ -0,0 +1,286 @@
+package dev.ckateptb.reflection;
+
+import lombok.SneakyThrows;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class ReflectLookup {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle[] ADAPTERS = adapters();
+    private static final System.Logger LOGGER = System.getLogger("dev.ckateptb.reflection");
+    // Lookups registered by other modules, such as plugins whose class loader is its own unnamed module.
+    // The module map only references the lookup class weakly and the lookup lives in a ClassValue of that
+    // class, so a registration never keeps a plugin loader alive.
+    private static final Map<Module, WeakReference<Class<?>>> registered = new WeakHashMap<>();
+    private static final Set<Module> reported = Collections.newSetFromMap(new WeakHashMap<>());
+    private static final ClassValue<AtomicReference<MethodHandles.Lookup>> lookups = new ClassValue<>() {
+        @Override
+        protected AtomicReference<MethodHandles.Lookup> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
+    private ReflectLookup() {
+    }
+
+    static void register(MethodHandles.Lookup lookup) {
+        if (!lookup.hasFullPrivilegeAccess()) {
+            throw new IllegalArgumentException(lookup + " does not have full privilege access");
+        }
+        Class<?> lookupClass = lookup.lookupClass();
+        lookups.get(lookupClass).set(lookup);
+        synchronized (registered) {
+            registered.put(lookupClass.getModule(), new WeakReference<>(lookupClass));
+        }
+    }
+
+    private static MethodHandles.Lookup registered(Module module) {
+        WeakReference<Class<?>> reference;
+        synchronized (registered) {
+            reference = registered.get(module);
+        }
+        Class<?> lookupClass = reference == null ? null : reference.get();
+        return lookupClass == null ? null : lookups.get(lookupClass).get();
+    }
+
+    // A private lookup from this library into another module never has MODULE access, so classes outside
+    // the library's module only get full privilege through a lookup registered by their own module.
+    static MethodHandles.Lookup in(Class<?> clazz) {
+        MethodHandles.Lookup lookup = privateLookupIn(clazz, LOOKUP);
+        if (lookup == null || !lookup.hasFullPrivilegeAccess()) {
+            MethodHandles.Lookup registered = registered(clazz.getModule());
+            MethodHandles.Lookup full = registered == null ? null : privateLookupIn(clazz, registered);
+            if (full != null) {
+                return full;
+            }
+        }
+        return lookup;
+    }
+
+    // Lookup able to define hidden classes and spin lambdas next to the class, or null. Application and
+    // plugin modules that have not registered a lookup are reported once, as they silently run slower.
+    static MethodHandles.Lookup full(Class<?> clazz) {
+        MethodHandles.Lookup lookup = in(clazz);
+        if (lookup != null && lookup.hasFullPrivilegeAccess()) {
+            return lookup;
+        }
+        Module module = clazz.getModule();
+        ClassLoader loader = module.getClassLoader();
+        if (loader != null && loader != ClassLoader.getPlatformClassLoader()) {
+            boolean first;
+            synchronized (reported) {
+                first = reported.add(module);
+            }
+            if (first) {
+                LOGGER.log(System.Logger.Level.WARNING, "No full-privilege access to {0} ({1}); generated accessors, "
+                        + "proxies and lambdas for its classes fall back to slower paths. Register one from that "
+                        + "module with Reflect.registerLookup(MethodHandles.lookup())", module, loader);
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandles.Lookup privateLookupIn(Class<?> clazz, MethodHandles.Lookup caller) {
+        try {
+            return MethodHandles.privateLookupIn(clazz, caller);
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = in(method.getDeclaringClass());
+        return lookup == null ? LOOKUP.unreflect(method) : lookup.unreflect(method);
+    }
+
+    static MethodHandle unreflect(Constructor<?> constructor) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = in(constructor.getDeclaringClass());
+        return lookup == null ? LOOKUP.unreflectConstructor(constructor) : lookup.unreflectConstructor(constructor);
+    }
+
+    static VarHandle unreflect(Field field) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = in(field.getDeclaringClass());
+        return lookup == null ? LOOKUP.unreflectVarHandle(field) : lookup.unreflectVarHandle(field);
+    }
+
+    static Method functionalMethod(Class<?> functionalInterface) {
+        if (!functionalInterface.isInterface()) {
+            throw new IllegalArgumentException(functionalInterface.getName() + " is not an interface");
+        }
+        Method[] methods = Arrays.stream(functionalInterface.getMethods())
+                .filter(method -> Modifier.isAbstract(method.getModifiers()))
+                .filter(method -> !isObjectMethod(method))
+                .toArray(Method[]::new);
+        if (methods.length != 1) {
+            throw new IllegalArgumentException(functionalInterface.getName() + " is not a functional interface");
+        }
+        return methods[0];
+    }
+
+    private static boolean isObjectMethod(Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    // Spins a LambdaMetafactory implementation of the functional interface next to the host when it grants
+    // full privilege. Otherwise the lambda is spun in this library over one of the call methods below, which
+    // captures the handle already converted to the interface's signature.
+    @SneakyThrows
+    static <F> F lambda(Class<F> functionalInterface, Class<?> host, MethodHandle direct) {
+        Method sam = functionalMethod(functionalInterface);
+        MethodType samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+        MethodType implType = direct.type();
+        if (samType.parameterCount() != implType.parameterCount()) {
+            throw new IllegalArgumentException(functionalInterface.getName() + "." + sam.getName() + " takes "
+                    + samType.parameterCount() + " parameters, but " + implType + " needs " + implType.parameterCount()
+                    + " (instance methods take the receiver first)");
+        }
+        MethodHandles.Lookup lookup = full(host);
+        if (lookup != null) {
+            try {
+                MethodHandle factory = LambdaMetafactory.metafactory(lookup, sam.getName(),
+                        MethodType.methodType(functionalInterface), samType, direct,
+                        instantiate(samType, implType)).getTarget();
+                return functionalInterface.cast(factory.invoke());
+            } catch (LambdaConversionException ignored) {
+            }
+        }
+        return adapt(functionalInterface, sam, samType, direct);
+    }
+
+    private static <F> F adapt(Class<F> functionalInterface, Method sam, MethodType samType, MethodHandle direct) throws Throwable {
+        int arity = samType.parameterCount();
+        if (arity >= ADAPTERS.length) {
+            throw new IllegalArgumentException(functionalInterface.getName() + " has more than "
+                    + (ADAPTERS.length - 1) + " parameters");
+        }
+        if (!Modifier.isPublic(functionalInterface.getModifiers()) || !visible(samType.wrap())
+                || !AccessorGenerator.resolves(ReflectLookup.class.getClassLoader(), functionalInterface)) {
+            throw new IllegalArgumentException(functionalInterface.getName() + " cannot be implemented outside of "
+                    + "its module; register its lookup with Reflect.registerLookup(MethodHandles.lookup())");
+        }
+        MethodHandle target;
+        try {
+            target = direct.asType(samType).asType(MethodType.genericMethodType(arity));
+        } catch (WrongMethodTypeException e) {
+            throw new IllegalArgumentException(direct + " cannot implement " + sam, e);
+        }
+        // The generic handle boxes the return value to the wrapper of the interface's return type, so the
+        // unboxing inserted by the metafactory always matches.
+        MethodHandle factory = LambdaMetafactory.metafactory(LOOKUP, sam.getName(),
+                MethodType.methodType(functionalInterface, MethodHandle.class), samType,
+                ADAPTERS[arity], samType).getTarget();
+        return functionalInterface.cast(factory.invoke(target));
+    }
+
+    private static boolean visible(MethodType type) {
+        ClassLoader loader = ReflectLookup.class.getClassLoader();
+        if (!AccessorGenerator.resolves(loader, type.returnType())) return false;
+        for (Class<?> parameter : type.parameterArray()) {
+            if (!AccessorGenerator.resolves(loader, parameter)) return false;
+        }
+        return true;
+    }
+
+    private static MethodHandle[] adapters() {
+        MethodHandle[] adapters = new MethodHandle[7];
+        try {
+            for (int i = 0; i < adapters.length; i++) {
+                adapters[i] = LOOKUP.findStatic(ReflectLookup.class, "call",
+                        MethodType.genericMethodType(i).insertParameterTypes(0, MethodHandle.class));
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        return adapters;
+    }
+
+    private static Object call(MethodHandle target) throws Throwable {
+        return target.invokeExact();
+    }
+
+    private static Object call(MethodHandle target, Object a) throws Throwable {
+        return target.invokeExact(a);
+    }
+
+    private static Object call(MethodHandle target, Object a, Object b) throws Throwable {
+        return target.invokeExact(a, b);
+    }
+
+    private static Object call(MethodHandle target, Object a, Object b, Object c) throws Throwable {
+        return target.invokeExact(a, b, c);
+    }
+
+    private static Object call(MethodHandle target, Object a, Object b, Object c, Object d) throws Throwable {
+        return target.invokeExact(a, b, c, d);
+    }
+
+    private static Object call(MethodHandle target, Object a, Object b, Object c, Object d, Object e) throws Throwable {
+        return target.invokeExact(a, b, c, d, e);
+    }
+
+    private static Object call(MethodHandle target, Object a, Object b, Object c, Object d, Object e, Object f) throws Throwable {
+        return target.invokeExact(a, b, c, d, e, f);
+    }
+
+    private static MethodType instantiate(MethodType samType, MethodType implType) {
+        Class<?>[] parameters = new Class<?>[samType.parameterCount()];
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> sam = samType.parameterType(i);
+            parameters[i] = sam.isPrimitive() ? sam : box(implType.parameterType(i));
+        }
+        Class<?> samReturn = samType.returnType();
+        Class<?> returnType = samReturn.isPrimitive() ? samReturn : box(implType.returnType());
+        return MethodType.methodType(returnType, parameters);
+    }
+
+    // sun.misc.Unsafe is looked up reflectively so the library still loads where jdk.unsupported is absent.
+    static MethodHandle allocator(Class<?> type) {
+        MethodHandle allocate = Allocator.ALLOCATE;
+        if (allocate == null) {
+            throw new UnsupportedOperationException("Allocation without a constructor is not supported by this runtime");
+        }
+        return MethodHandles.insertArguments(allocate, 0, type);
+    }
+
+    static Class<?> box(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    private static final class Allocator {
+        private static final MethodHandle ALLOCATE = create();
+
+        private static MethodHandle create() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                return LOOKUP.findVirtual(unsafeClass, "allocateInstance", MethodType.methodType(Object.class, Class.class))
+                        .bindTo(field.get(null));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
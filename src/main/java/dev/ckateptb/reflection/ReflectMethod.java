@@ -1,21 +1,224 @@
 package dev.ckateptb.reflection;
 
+import lombok.SneakyThrows;
 import lombok.experimental.Delegate;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 public class ReflectMethod extends ReflectWrapper<Method> {
     @Delegate
     private final Method method;
+    private final Signature signature;
+    private final Class<?>[] parameters;
+    private volatile MethodInvoker<?> invoker;
+    private volatile Object view;
+    private volatile MemberMetrics metrics;
+    private ReflectClass<?> owner;
+    private int index = -1;
+    private int calls;
+    private volatile ReflectBackend promoted;
 
     ReflectMethod(Method method) {
         super(method);
         this.method = method;
         this.method.trySetAccessible();
+        this.parameters = method.getParameterTypes();
+        this.signature = new Signature(method.getName(), this.parameters);
+    }
+
+    Signature signature() {
+        return this.signature;
+    }
+
+    void bind(ReflectClass<?> owner, int index) {
+        this.owner = owner;
+        this.index = index;
+    }
+
+    // Unbound Reflect view of this member, built once so class-level lookups hand out the same instance.
+    @SuppressWarnings("unchecked")
+    <V> V view(Function<? super ReflectMethod, V> factory) {
+        Object view = this.view;
+        if (view == null) {
+            this.view = view = factory.apply(this);
+        }
+        return (V) view;
+    }
+
+    @SneakyThrows
+    public Object call(Object target, Object... args) {
+        if (!ReflectMetrics.enabled) {
+            return this.dispatch(target, args);
+        }
+        MemberMetrics metrics = this.metrics();
+        long start = System.nanoTime();
+        try {
+            return this.dispatch(target, args);
+        } catch (Throwable e) {
+            metrics.error();
+            throw e;
+        } finally {
+            metrics.record(System.nanoTime() - start);
+        }
+    }
+
+    @SneakyThrows
+    private Object dispatch(Object target, Object[] args) {
+        ReflectBackend backend = Reflect.backend();
+        if (backend == ReflectBackend.ADAPTIVE) {
+            backend = this.adaptive();
+        }
+        if (backend == ReflectBackend.GENERATED && this.owner != null) {
+            AccessorGenerator.Accessor accessor = this.owner.accessor();
+            if (accessor.hasMethod(this.index)) {
+                Object[] arguments = this.check(target, args);
+                try {
+                    return accessor.get().invoke(this.index, target, arguments);
+                } catch (Throwable e) {
+                    throw new InvocationTargetException(e);
+                }
+            }
+        } else if (backend == ReflectBackend.METHOD_HANDLE) {
+            Object[] arguments = this.check(target, args);
+            try {
+                return this.invoker().invokeWithArguments(target, arguments);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+        return this.method.invoke(target, args);
+    }
+
+    // Once the receiver and arguments pass, anything thrown comes from the method itself and is wrapped
+    // like Method.invoke does, so promotion never changes what callers have to catch.
+    private Object[] check(Object target, Object[] args) {
+        if (!this.isStatic()) {
+            Invocation.receiver(this.method.getDeclaringClass(), target);
+        }
+        return Invocation.arguments(this.parameters, args);
+    }
+
+    // The call count is deliberately racy; lost increments only delay promotion. The chosen backend is
+    // published through the volatile field, and the invoker and accessor it relies on publish themselves.
+    private ReflectBackend adaptive() {
+        ReflectBackend promoted = this.promoted;
+        if (promoted != null) {
+            return promoted;
+        }
+        if (++this.calls < Reflect.adaptiveThreshold()) {
+            return ReflectBackend.REFLECTION;
+        }
+        return this.promote();
+    }
+
+    private ReflectBackend promote() {
+        ReflectBackend promoted = this.owner != null && this.owner.accessor().hasMethod(this.index)
+                ? ReflectBackend.GENERATED : ReflectBackend.METHOD_HANDLE;
+        this.promoted = promoted;
+        return promoted;
+    }
+
+    public void callEach(Iterable<?> targets, Object... args) {
+        Call call = this.batch();
+        for (Object target : targets) {
+            apply(call, target, args);
+        }
+    }
+
+    public void callEach(Object[] targets, Object... args) {
+        Call call = this.batch();
+        for (Object target : targets) {
+            apply(call, target, args);
+        }
+    }
+
+    public void callEach(ForkJoinPool pool, Object[] targets, Object... args) {
+        Call call = this.batch();
+        pool.submit(() -> IntStream.range(0, targets.length).parallel()
+                .forEach(i -> apply(call, targets[i], args))).join();
+    }
+
+    public Object[] callAll(Object[] targets, Object... args) {
+        Call call = this.batch();
+        Object[] results = new Object[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            results[i] = apply(call, targets[i], args);
+        }
+        return results;
+    }
+
+    public Object[] callAll(ForkJoinPool pool, Object[] targets, Object... args) {
+        Call call = this.batch();
+        Object[] results = new Object[targets.length];
+        pool.submit(() -> IntStream.range(0, targets.length).parallel()
+                .forEach(i -> results[i] = apply(call, targets[i], args))).join();
+        return results;
+    }
+
+    // Resolves the backend once for the whole batch and shares one argument array between targets.
+    // A batch is hot by definition, so ADAPTIVE promotes right away.
+    private Call batch() {
+        ReflectBackend backend = Reflect.backend();
+        if (backend == ReflectBackend.ADAPTIVE) {
+            ReflectBackend promoted = this.promoted;
+            backend = promoted != null ? promoted : this.promote();
+        }
+        if (backend == ReflectBackend.GENERATED && this.owner != null) {
+            AccessorGenerator.Accessor accessor = this.owner.accessor();
+            if (accessor.hasMethod(this.index)) {
+                GeneratedAccessor generated = accessor.get();
+                int index = this.index;
+                return this.checked((target, args) -> generated.invoke(index, target, args));
+            }
+        } else if (backend == ReflectBackend.METHOD_HANDLE) {
+            return this.checked(this.invoker()::invokeWithArguments);
+        }
+        return this.method::invoke;
+    }
+
+    private Call checked(Call call) {
+        return (target, args) -> {
+            Object[] arguments = this.check(target, args);
+            try {
+                return call.apply(target, arguments);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        };
+    }
+
+    @SneakyThrows
+    private static Object apply(Call call, Object target, Object[] args) {
+        return call.apply(target, args);
+    }
+
+    public MemberMetrics metrics() {
+        MemberMetrics metrics = this.metrics;
+        if (metrics == null || metrics.generation != ReflectMetrics.generation) {
+            this.metrics = metrics = ReflectMetrics.track(this.method, MemberMetrics.Operation.INVOKE);
+        }
+        return metrics;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <R> MethodInvoker<R> invoker() {
+        MethodInvoker<?> invoker = this.invoker;
+        if (invoker == null) {
+            this.invoker = invoker = new MethodInvoker<>(this.method);
+        }
+        return (MethodInvoker<R>) invoker;
     }
 
     @Override
     public int modifiers() {
         return this.getModifiers();
     }
+
+    private interface Call {
+        Object apply(Object target, Object[] args) throws Throwable;
+    }
 }
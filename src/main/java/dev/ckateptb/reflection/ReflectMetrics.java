@@ -0,0 +1,292 @@
+package dev.ckateptb.reflection;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Opt-in instrumentation. While disabled every hook costs a single volatile read; member metrics are
+// only allocated for members that are actually called after enable().
+public final class ReflectMetrics {
+    public static final String OBJECT_NAME = "dev.ckateptb.reflection:type=ReflectMetrics";
+
+    static volatile boolean enabled;
+    static final LongAdder classLookups = new LongAdder();
+    static final LongAdder classMisses = new LongAdder();
+    static final Timer methodScans = new Timer();
+    static final Timer fieldScans = new Timer();
+    static final Timer constructorScans = new Timer();
+    static final Timer jarScans = new Timer();
+    // Member metrics are owned by the ReflectMethod, ReflectField or ReflectConstructor recording them, which
+    // live as long as the ReflectClass of their class. Only weak references are kept here, so metrics never
+    // keep a class or its loader alive; reset() moves to a new generation and drops them all.
+    private static final Set<MemberMetrics> members = Collections.newSetFromMap(new WeakHashMap<>());
+    static volatile int generation;
+
+    private ReflectMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static void reset() {
+        classLookups.reset();
+        classMisses.reset();
+        methodScans.reset();
+        fieldScans.reset();
+        constructorScans.reset();
+        jarScans.reset();
+        synchronized (members) {
+            generation++;
+            members.clear();
+        }
+    }
+
+    static MemberMetrics track(Member member, MemberMetrics.Operation operation) {
+        MemberMetrics metrics = new MemberMetrics(member, operation, generation);
+        synchronized (members) {
+            members.add(metrics);
+        }
+        return metrics;
+    }
+
+    // An inherited member is tracked separately by the ReflectClass of every subclass it is called through.
+    private static List<MemberMetrics> merged() {
+        List<MemberMetrics> tracked;
+        synchronized (members) {
+            tracked = new ArrayList<>(members);
+        }
+        Map<List<Object>, MemberMetrics> merged = new LinkedHashMap<>();
+        for (MemberMetrics metrics : tracked) {
+            merged.merge(List.of(metrics.getMember(), metrics.getOperation()), metrics, MemberMetrics::merge);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    public static Snapshot snapshot() {
+        List<MemberMetrics.Snapshot> snapshots = new ArrayList<>();
+        for (MemberMetrics member : merged()) {
+            MemberMetrics.Snapshot snapshot = member.snapshot();
+            if (snapshot.getCount() > 0 || snapshot.getErrors() > 0) {
+                snapshots.add(snapshot);
+            }
+        }
+        snapshots.sort(Comparator.comparingLong(MemberMetrics.Snapshot::getTotalNanos).reversed());
+        return new Snapshot(enabled, classLookups.sum(), classMisses.sum(),
+                methodScans.count.sum(), methodScans.nanos.sum(),
+                fieldScans.count.sum(), fieldScans.nanos.sum(),
+                constructorScans.count.sum(), constructorScans.nanos.sum(),
+                jarScans.count.sum(), jarScans.nanos.sum(), List.copyOf(snapshots));
+    }
+
+    public static ObjectName registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        try {
+            server.registerMBean(new MBean(), name);
+        } catch (InstanceAlreadyExistsException ignored) {
+        }
+        return name;
+    }
+
+    public static void unregisterMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        void record(long start) {
+            this.count.increment();
+            this.nanos.add(System.nanoTime() - start);
+        }
+
+        private void reset() {
+            this.count.reset();
+            this.nanos.reset();
+        }
+    }
+
+    public static final class Snapshot {
+        private final boolean enabled;
+        private final long classLookups;
+        private final long classMisses;
+        private final long methodScans;
+        private final long methodScanNanos;
+        private final long fieldScans;
+        private final long fieldScanNanos;
+        private final long constructorScans;
+        private final long constructorScanNanos;
+        private final long jarScans;
+        private final long jarScanNanos;
+        private final List<MemberMetrics.Snapshot> members;
+
+        private Snapshot(boolean enabled, long classLookups, long classMisses,
+                         long methodScans, long methodScanNanos, long fieldScans, long fieldScanNanos,
+                         long constructorScans, long constructorScanNanos, long jarScans, long jarScanNanos,
+                         List<MemberMetrics.Snapshot> members) {
+            this.enabled = enabled;
+            this.classLookups = classLookups;
+            this.classMisses = classMisses;
+            this.methodScans = methodScans;
+            this.methodScanNanos = methodScanNanos;
+            this.fieldScans = fieldScans;
+            this.fieldScanNanos = fieldScanNanos;
+            this.constructorScans = constructorScans;
+            this.constructorScanNanos = constructorScanNanos;
+            this.jarScans = jarScans;
+            this.jarScanNanos = jarScanNanos;
+            this.members = members;
+        }
+
+        public boolean isEnabled() {
+            return this.enabled;
+        }
+
+        public long getClassLookups() {
+            return this.classLookups;
+        }
+
+        public long getClassMisses() {
+            return this.classMisses;
+        }
+
+        public long getClassHits() {
+            return Math.max(this.classLookups - this.classMisses, 0);
+        }
+
+        public long getMethodScans() {
+            return this.methodScans;
+        }
+
+        public long getMethodScanNanos() {
+            return this.methodScanNanos;
+        }
+
+        public long getFieldScans() {
+            return this.fieldScans;
+        }
+
+        public long getFieldScanNanos() {
+            return this.fieldScanNanos;
+        }
+
+        public long getConstructorScans() {
+            return this.constructorScans;
+        }
+
+        public long getConstructorScanNanos() {
+            return this.constructorScanNanos;
+        }
+
+        public long getJarScans() {
+            return this.jarScans;
+        }
+
+        public long getJarScanNanos() {
+            return this.jarScanNanos;
+        }
+
+        // Members with recorded activity, slowest in aggregate first.
+        public List<MemberMetrics.Snapshot> getMembers() {
+            return this.members;
+        }
+    }
+
+    private static final class MBean implements ReflectMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return ReflectMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            ReflectMetrics.enabled = enabled;
+        }
+
+        @Override
+        public void reset() {
+            ReflectMetrics.reset();
+        }
+
+        @Override
+        public long getClassLookups() {
+            return classLookups.sum();
+        }
+
+        @Override
+        public long getClassMisses() {
+            return classMisses.sum();
+        }
+
+        @Override
+        public long getMethodScans() {
+            return methodScans.count.sum();
+        }
+
+        @Override
+        public long getMethodScanNanos() {
+            return methodScans.nanos.sum();
+        }
+
+        @Override
+        public long getFieldScans() {
+            return fieldScans.count.sum();
+        }
+
+        @Override
+        public long getFieldScanNanos() {
+            return fieldScans.nanos.sum();
+        }
+
+        @Override
+        public long getConstructorScans() {
+            return constructorScans.count.sum();
+        }
+
+        @Override
+        public long getConstructorScanNanos() {
+            return constructorScans.nanos.sum();
+        }
+
+        @Override
+        public long getJarScans() {
+            return jarScans.count.sum();
+        }
+
+        @Override
+        public long getJarScanNanos() {
+            return jarScans.nanos.sum();
+        }
+
+        @Override
+        public List<MemberMetrics.Snapshot> getMembers() {
+            return ReflectMetrics.snapshot().getMembers();
+        }
+    }
+}
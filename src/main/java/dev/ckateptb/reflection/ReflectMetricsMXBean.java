@@ -0,0 +1,33 @@
+package dev.ckateptb.reflection;
+
+import java.util.List;
+
+public interface ReflectMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    void reset();
+
+    long getClassLookups();
+
+    long getClassMisses();
+
+    long getMethodScans();
+
+    long getMethodScanNanos();
+
+    long getFieldScans();
+
+    long getFieldScanNanos();
+
+    long getConstructorScans();
+
+    long getConstructorScanNanos();
+
+    long getJarScans();
+
+    long getJarScanNanos();
+
+    List<MemberMetrics.Snapshot> getMembers();
+}
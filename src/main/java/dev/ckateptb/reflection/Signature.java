@@ -0,0 +1,40 @@
+package dev.ckateptb.reflection;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+final class Signature {
+    private final String name;
+    private final Class<?>[] parameters;
+    private final int hash;
+
+    Signature(String name, Class<?>[] parameters) {
+        this.name = name;
+        this.parameters = parameters == null ? new Class<?>[0] : parameters;
+        this.hash = 31 * Objects.hashCode(name) + Arrays.hashCode(this.parameters);
+    }
+
+    Signature(Class<?>[] parameters) {
+        this(null, parameters);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Signature)) return false;
+        Signature signature = (Signature) o;
+        return this.hash == signature.hash
+                && Objects.equals(this.name, signature.name)
+                && Arrays.equals(this.parameters, signature.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return (this.name == null ? "" : this.name) + Arrays.toString(this.parameters);
+    }
+}
@@ -0,0 +1,118 @@
+package dev.ckateptb.reflection;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Reads the ZIP central directory straight from a memory-mapped region of the archive,
+// without inflating or even touching the local entries.
+final class ZipDirectory {
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ENTRY_SIGNATURE = 0x02014b50;
+    private static final int END_SIZE = 22;
+    private static final int ENTRY_SIZE = 46;
+    private static final byte[] CLASS_SUFFIX = ".class".getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteBuffer directory;
+    private final int[] offsets;
+
+    private ZipDirectory(ByteBuffer directory, int[] offsets) {
+        this.directory = directory;
+        this.offsets = offsets;
+    }
+
+    // Returns null when the archive cannot be read this way (ZIP64, spanned or malformed archives),
+    // in which case callers fall back to java.util.jar.
+    static ZipDirectory open(File file) throws IOException {
+        if (!file.isFile()) return null;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < END_SIZE) return null;
+            int tailSize = (int) Math.min(size, END_SIZE + 0xFFFF);
+            MappedByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, size - tailSize, tailSize);
+            tail.order(ByteOrder.LITTLE_ENDIAN);
+            int end = -1;
+            for (int i = tailSize - END_SIZE; i >= 0; i--) {
+                if (tail.getInt(i) == END_SIGNATURE) {
+                    end = i;
+                    break;
+                }
+            }
+            if (end < 0) return null;
+            int count = Short.toUnsignedInt(tail.getShort(end + 10));
+            long directorySize = Integer.toUnsignedLong(tail.getInt(end + 12));
+            long directoryOffset = Integer.toUnsignedLong(tail.getInt(end + 16));
+            if (count == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) return null;
+            if (directoryOffset + directorySize > size) return null;
+            MappedByteBuffer directory = channel.map(FileChannel.MapMode.READ_ONLY, directoryOffset, directorySize);
+            directory.order(ByteOrder.LITTLE_ENDIAN);
+            int[] offsets = new int[count];
+            int position = 0;
+            for (int i = 0; i < count; i++) {
+                if (position + ENTRY_SIZE > directorySize || directory.getInt(position) != ENTRY_SIGNATURE) return null;
+                offsets[i] = position;
+                position += ENTRY_SIZE
+                        + Short.toUnsignedInt(directory.getShort(position + 28))
+                        + Short.toUnsignedInt(directory.getShort(position + 30))
+                        + Short.toUnsignedInt(directory.getShort(position + 32));
+            }
+            return new ZipDirectory(directory, offsets);
+        }
+    }
+
+    int size() {
+        return this.offsets.length;
+    }
+
+    ByteBuffer directory() {
+        return this.directory.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private int nameLength(int index) {
+        return Short.toUnsignedInt(this.directory.getShort(this.offsets[index] + 28));
+    }
+
+    boolean isClass(int index) {
+        int length = this.nameLength(index);
+        if (length <= CLASS_SUFFIX.length) return false;
+        int start = this.offsets[index] + ENTRY_SIZE + length - CLASS_SUFFIX.length;
+        for (int i = 0; i < CLASS_SUFFIX.length; i++) {
+            if (this.directory.get(start + i) != CLASS_SUFFIX[i]) return false;
+        }
+        return true;
+    }
+
+    String name(int index) {
+        byte[] bytes = new byte[this.nameLength(index)];
+        this.directory.get(this.offsets[index] + ENTRY_SIZE, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    String className(int index) {
+        int start = this.offsets[index] + ENTRY_SIZE;
+        int length = this.nameLength(index) - CLASS_SUFFIX.length;
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            byte b = this.directory.get(start + i);
+            if (b < 0) {
+                String name = this.name(index);
+                return name.substring(0, name.length() - CLASS_SUFFIX.length).replace('/', '.');
+            }
+            chars[i] = b == '/' ? '.' : (char) b;
+        }
+        return new String(chars);
+    }
+
+    Stream<String> classNames() {
+        return IntStream.range(0, this.offsets.length)
+                .filter(this::isClass)
+                .mapToObj(this::className);
+    }
+}
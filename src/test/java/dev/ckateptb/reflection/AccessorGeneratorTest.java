@@ -0,0 +1,167 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessorGeneratorTest {
+    @SuppressWarnings("unused")
+    static class Fixture {
+        private static String label = "fixture";
+        private boolean flag;
+        private byte small;
+        private char letter;
+        private short medium;
+        private int number;
+        private long wide;
+        private float ratio;
+        private double precise;
+        private String text;
+        private final int constant = 7;
+
+        Fixture() {
+        }
+
+        private Fixture(int number, long wide, String text) {
+            this.number = number;
+            this.wide = wide;
+            this.text = text;
+        }
+
+        double mix(long a, int b, double c) {
+            return a + b + c;
+        }
+
+        private String join(String prefix, char separator, boolean upper) {
+            String joined = prefix + separator + this.text;
+            return upper ? joined.toUpperCase() : joined;
+        }
+
+        void clear() {
+            this.text = null;
+        }
+
+        static long twice(long value) {
+            return value * 2;
+        }
+    }
+
+    interface Shape {
+        static Shape square(double side) {
+            return () -> side * side;
+        }
+
+        double area();
+
+        default double doubled() {
+            return this.area() * 2;
+        }
+    }
+
+    private static <T> int index(List<T> members, Predicate<T> filter) {
+        for (int i = 0; i < members.size(); i++) {
+            if (filter.test(members.get(i))) return i;
+        }
+        throw new AssertionError("member not found");
+    }
+
+    @Test
+    void compilesEveryMemberOfAnOpenClass() {
+        ReflectClass<Fixture> reflectClass = Reflect.classOf(Fixture.class);
+        AccessorGenerator.Accessor accessor = reflectClass.accessor();
+        assertTrue(accessor.isAvailable());
+        List<ReflectField> fields = reflectClass.fieldList();
+        for (int i = 0; i < fields.size(); i++) {
+            assertTrue(accessor.hasGetter(i), fields.get(i).getName());
+            assertEquals(!fields.get(i).isFinal(), accessor.hasSetter(i), fields.get(i).getName());
+        }
+        List<ReflectMethod> methods = reflectClass.methodList();
+        for (int i = 0; i < methods.size(); i++) {
+            if (methods.get(i).getDeclaringClass() == Fixture.class) {
+                assertTrue(accessor.hasMethod(i), methods.get(i).getName());
+            }
+        }
+        for (int i = 0; i < reflectClass.constructorList().size(); i++) {
+            assertTrue(accessor.hasConstructor(i));
+        }
+    }
+
+    @Test
+    void roundTripsEveryFieldKind() {
+        ReflectClass<Fixture> reflectClass = Reflect.classOf(Fixture.class);
+        GeneratedAccessor accessor = reflectClass.getGeneratedAccessor();
+        List<ReflectField> fields = reflectClass.fieldList();
+        Fixture fixture = new Fixture();
+        Object[] values = {true, (byte) -3, 'z', (short) 1234, 42, Long.MIN_VALUE, 1.5f, Math.PI, "text"};
+        String[] names = {"flag", "small", "letter", "medium", "number", "wide", "ratio", "precise", "text"};
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            int field = index(fields, candidate -> candidate.getName().equals(name));
+            accessor.set(field, fixture, values[i]);
+            assertEquals(values[i], accessor.get(field, fixture), name);
+            assertEquals(values[i], fields.get(field).getValue(fixture), name);
+        }
+        int label = index(fields, candidate -> candidate.getName().equals("label"));
+        assertEquals("fixture", accessor.get(label, null));
+        int constant = index(fields, candidate -> candidate.getName().equals("constant"));
+        assertEquals(7, accessor.get(constant, fixture));
+        assertThrows(IllegalArgumentException.class, () -> accessor.set(constant, fixture, 8));
+    }
+
+    @Test
+    void invokesMethodsWithWidePrimitivesAndPrivateAccess() {
+        ReflectClass<Fixture> reflectClass = Reflect.classOf(Fixture.class);
+        GeneratedAccessor accessor = reflectClass.getGeneratedAccessor();
+        List<ReflectMethod> methods = reflectClass.methodList();
+        Fixture fixture = new Fixture(1, 2, "tail");
+        int mix = index(methods, method -> method.getName().equals("mix"));
+        assertEquals(10.5, accessor.invoke(mix, fixture, new Object[]{4L, 5, 1.5}));
+        int join = index(methods, method -> method.getName().equals("join"));
+        assertEquals("HEAD-TAIL", accessor.invoke(join, fixture, new Object[]{"head", '-', true}));
+        int twice = index(methods, method -> method.getName().equals("twice"));
+        assertEquals(84L, accessor.invoke(twice, null, new Object[]{42L}));
+        int clear = index(methods, method -> method.getName().equals("clear"));
+        assertNull(accessor.invoke(clear, fixture, new Object[0]));
+        assertNull(fixture.text);
+    }
+
+    @Test
+    void constructsThroughEveryConstructor() {
+        ReflectClass<Fixture> reflectClass = Reflect.classOf(Fixture.class);
+        GeneratedAccessor accessor = reflectClass.getGeneratedAccessor();
+        List<ReflectConstructor<Fixture>> constructors = reflectClass.constructorList();
+        int full = index(constructors, constructor -> constructor.getParameterCount() == 3);
+        Fixture fixture = (Fixture) accessor.newInstance(full, new Object[]{3, 4L, "made"});
+        assertEquals(3, fixture.number);
+        assertEquals(4L, fixture.wide);
+        assertEquals("made", fixture.text);
+        int empty = index(constructors, constructor -> constructor.getParameterCount() == 0);
+        assertInstanceOf(Fixture.class, accessor.newInstance(empty, new Object[0]));
+    }
+
+    @Test
+    void rejectsUnknownIndexesAndBadArguments() {
+        ReflectClass<Fixture> reflectClass = Reflect.classOf(Fixture.class);
+        GeneratedAccessor accessor = reflectClass.getGeneratedAccessor();
+        int number = index(reflectClass.fieldList(), field -> field.getName().equals("number"));
+        assertThrows(IllegalArgumentException.class, () -> accessor.get(-1, new Fixture()));
+        assertThrows(IllegalArgumentException.class, () -> accessor.invoke(Integer.MAX_VALUE, new Fixture(), new Object[0]));
+        assertThrows(ClassCastException.class, () -> accessor.get(number, "not a fixture"));
+        assertThrows(ClassCastException.class, () -> accessor.set(number, new Fixture(), "not a number"));
+    }
+
+    @Test
+    void compilesInterfaceStaticAndDefaultMethods() {
+        ReflectClass<Shape> reflectClass = Reflect.classOf(Shape.class);
+        GeneratedAccessor accessor = reflectClass.getGeneratedAccessor();
+        assertNotNull(accessor);
+        List<ReflectMethod> methods = reflectClass.methodList();
+        int square = index(methods, method -> method.getName().equals("square"));
+        Shape shape = (Shape) accessor.invoke(square, null, new Object[]{3.0});
+        int doubled = index(methods, method -> method.getName().equals("doubled"));
+        assertEquals(18.0, accessor.invoke(doubled, shape, new Object[0]));
+    }
+}
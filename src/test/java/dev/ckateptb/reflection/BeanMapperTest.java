@@ -0,0 +1,63 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanMapperTest {
+    static class Counter {
+        int counter;
+        String name;
+
+        Counter() {
+        }
+
+        Counter(int counter, String name) {
+            this.counter = counter;
+            this.name = name;
+        }
+    }
+
+    static class Wide {
+        long counter;
+        Object name;
+    }
+
+    static class NoDefault {
+        int counter;
+
+        NoDefault(int counter) {
+            this.counter = counter;
+        }
+    }
+
+    @Test
+    void mapsAndCopiesWideningFields() {
+        BeanMapper<Counter, Wide> mapper = Reflect.mapper(Counter.class, Wide.class);
+        assertSame(mapper, Reflect.mapper(Counter.class, Wide.class));
+        Wide wide = mapper.map(new Counter(3, "three"));
+        assertEquals(3L, wide.counter);
+        assertEquals("three", wide.name);
+        NoDefault target = Reflect.mapper(Counter.class, NoDefault.class).copy(new Counter(4, null), new NoDefault(0));
+        assertEquals(4, target.counter);
+        assertThrows(UnsupportedOperationException.class,
+                () -> Reflect.mapper(Counter.class, NoDefault.class).map(new Counter()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cachesMappersOnTheSideThatSeesTheOtherClass() throws Exception {
+        Class<Object> plugin = (Class<Object>) PluginLoaderTest.loadPlugin();
+        BeanMapper<Counter, Object> into = Reflect.mapper(Counter.class, plugin);
+        assertSame(into, Reflect.mapper(Counter.class, plugin));
+        Object mapped = into.map(new Counter(5, "five"));
+        assertEquals(6, plugin.getMethod("increment", int.class).invoke(mapped, 1));
+
+        BeanMapper<Object, Counter> back = Reflect.mapper(plugin, Counter.class);
+        assertSame(back, Reflect.mapper(plugin, Counter.class));
+        assertEquals(6, back.map(mapped).counter);
+
+        Class<Object> sibling = (Class<Object>) PluginLoaderTest.loadPlugin();
+        assertNotSame(Reflect.mapper(plugin, sibling), Reflect.mapper(plugin, sibling));
+    }
+}
@@ -0,0 +1,225 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarySerializerTest {
+    enum Level {
+        LOW, HIGH
+    }
+
+    interface Shape {
+    }
+
+    static class Circle implements Shape {
+        double radius;
+    }
+
+    static class Cirque {
+        double radius;
+    }
+
+    record Point(int x, int y, String label) {
+    }
+
+    static class Bean {
+        boolean flag;
+        byte small;
+        char letter;
+        short medium;
+        int number;
+        long wide;
+        float ratio;
+        double precise;
+        String text;
+        Integer boxed;
+        Level level;
+        int[] numbers;
+        String[] words;
+        List<Integer> list;
+        Map<String, Level> levels;
+        Point point;
+        Shape shape;
+        Object any;
+        transient int skipped = 9;
+    }
+
+    static class Numbers {
+        int[] values = {1, 2, 3};
+        String[] words = {"x"};
+        List<String> list = new ArrayList<>(List.of("y"));
+    }
+
+    static class Leveled {
+        Level level = Level.HIGH;
+    }
+
+    private static <T> T roundTrip(Class<T> type, T value) {
+        BinarySerializer<T> serializer = Reflect.serializer(type);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+        serializer.write(value, buffer);
+        T copy = serializer.read(buffer.flip());
+        assertFalse(buffer.hasRemaining());
+        return copy;
+    }
+
+    private static int indexOf(byte[] bytes, String text) {
+        byte[] needle = text.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i + needle.length <= bytes.length; i++) {
+            if (Arrays.equals(bytes, i, i + needle.length, needle, 0, needle.length)) return i;
+        }
+        throw new AssertionError(text + " not found");
+    }
+
+    private static Bean circle() {
+        Bean bean = new Bean();
+        Circle circle = new Circle();
+        circle.radius = 2.5;
+        bean.shape = circle;
+        return bean;
+    }
+
+    @Test
+    void roundTripsEveryKindOfField() {
+        Bean bean = new Bean();
+        bean.flag = true;
+        bean.small = -2;
+        bean.letter = 'x';
+        bean.medium = 300;
+        bean.number = 1 << 20;
+        bean.wide = Long.MIN_VALUE;
+        bean.ratio = 0.25f;
+        bean.precise = Math.E;
+        bean.text = "text";
+        bean.boxed = 42;
+        bean.level = Level.HIGH;
+        bean.numbers = new int[]{1, 2, 3};
+        bean.words = new String[]{"a", null, "c"};
+        bean.list = new ArrayList<>(List.of(4, 5));
+        bean.levels = new TreeMap<>(Map.of("a", Level.LOW));
+        bean.point = new Point(1, 2, "p");
+        bean.skipped = 0;
+        Bean copy = roundTrip(Bean.class, bean);
+        assertTrue(copy.flag);
+        assertEquals(-2, copy.small);
+        assertEquals('x', copy.letter);
+        assertEquals(300, copy.medium);
+        assertEquals(1 << 20, copy.number);
+        assertEquals(Long.MIN_VALUE, copy.wide);
+        assertEquals(0.25f, copy.ratio);
+        assertEquals(Math.E, copy.precise);
+        assertEquals("text", copy.text);
+        assertEquals(42, copy.boxed);
+        assertEquals(Level.HIGH, copy.level);
+        assertArrayEquals(new int[]{1, 2, 3}, copy.numbers);
+        assertArrayEquals(new String[]{"a", null, "c"}, copy.words);
+        assertEquals(List.of(4, 5), copy.list);
+        assertEquals(Map.of("a", Level.LOW), copy.levels);
+        assertEquals(new Point(1, 2, "p"), copy.point);
+        assertEquals(9, copy.skipped);
+        BinarySerializer<Bean> serializer = Reflect.serializer(Bean.class);
+        assertArrayEquals(serializer.toByteArray(bean), serializer.toByteArray(copy));
+    }
+
+    @Test
+    void writesRuntimeSubtypesOfTheDeclaredType() {
+        Bean copy = roundTrip(Bean.class, circle());
+        assertEquals(2.5, assertInstanceOf(Circle.class, copy.shape).radius);
+    }
+
+    @Test
+    void mapsRuntimeJdkCollectionsToTheirInterfaces() {
+        Bean bean = new Bean();
+        bean.any = List.of(1, 2);
+        assertEquals(List.of(1, 2), roundTrip(Bean.class, bean).any);
+        bean.any = Collections.unmodifiableMap(Map.of("key", List.of("value")));
+        assertEquals(Map.of("key", List.of("value")), roundTrip(Bean.class, bean).any);
+        bean.any = Set.of(Level.LOW);
+        assertEquals(Set.of(Level.LOW), roundTrip(Bean.class, bean).any);
+        bean.list = Arrays.asList(7, 8);
+        assertEquals(List.of(7, 8), roundTrip(Bean.class, bean).list);
+    }
+
+    @Test
+    void refusesArbitraryClassesWhereObjectIsDeclared() {
+        Bean bean = new Bean();
+        bean.any = new Circle();
+        assertThrows(IllegalArgumentException.class, () -> Reflect.serializer(Bean.class).toByteArray(bean));
+        bean.any = new Object[]{new Circle()};
+        assertThrows(IllegalArgumentException.class, () -> Reflect.serializer(Bean.class).toByteArray(bean));
+    }
+
+    @Test
+    void rejectsNamedTypesOutsideTheDeclaredType() {
+        BinarySerializer<Bean> serializer = Reflect.serializer(Bean.class);
+        byte[] bytes = serializer.toByteArray(circle());
+        int name = indexOf(bytes, Circle.class.getName());
+        byte[] other = Cirque.class.getName().getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(other, 0, bytes, name, other.length);
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> serializer.fromByteArray(bytes));
+        assertTrue(error.getMessage().contains("not permitted"), error.getMessage());
+    }
+
+    @Test
+    void verifiesTheFingerprintOfNamedTypes() {
+        BinarySerializer<Bean> serializer = Reflect.serializer(Bean.class);
+        byte[] bytes = serializer.toByteArray(circle());
+        int fingerprint = indexOf(bytes, Circle.class.getName()) + Circle.class.getName().length();
+        bytes[fingerprint] ^= 1;
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> serializer.fromByteArray(bytes));
+        assertTrue(error.getMessage().contains("Schema mismatch"), error.getMessage());
+    }
+
+    @Test
+    void rejectsStreamsOfAnotherSchema() {
+        byte[] bytes = Reflect.serializer(Circle.class).toByteArray(new Circle());
+        assertThrows(IllegalStateException.class, () -> Reflect.serializer(Cirque.class).fromByteArray(bytes));
+    }
+
+    private static int indexOf(byte[] bytes, byte... needle) {
+        for (int i = 0; i + needle.length <= bytes.length; i++) {
+            if (Arrays.equals(bytes, i, i + needle.length, needle, 0, needle.length)) return i;
+        }
+        throw new AssertionError(Arrays.toString(needle) + " not found");
+    }
+
+    private static void assertCorrupt(Class<?> type, byte[] bytes, int at, int value) {
+        byte[] corrupt = bytes.clone();
+        ByteBuffer.wrap(corrupt).putInt(at, value);
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> Reflect.serializer(type).fromByteArray(corrupt));
+        assertTrue(error.getMessage().startsWith("Corrupt"), error.getMessage());
+    }
+
+    @Test
+    void rejectsCorruptLengthsBeforeAllocating() {
+        byte[] bytes = Reflect.serializer(Numbers.class).toByteArray(new Numbers());
+        int values = indexOf(bytes, (byte) 0, (byte) 0, (byte) 0, (byte) 3, (byte) 0, (byte) 0, (byte) 0, (byte) 1);
+        int word = indexOf(bytes, "x") - 4;
+        int words = word - 5;
+        int list = indexOf(bytes, "y") - 9;
+        for (int at : new int[]{values, word, words, list}) {
+            assertCorrupt(Numbers.class, bytes, at, -5);
+            assertCorrupt(Numbers.class, bytes, at, Integer.MAX_VALUE / 8);
+            assertCorrupt(Numbers.class, bytes, at, Integer.MAX_VALUE);
+        }
+    }
+
+    @Test
+    void rejectsOrdinalsOutOfRange() {
+        byte[] bytes = Reflect.serializer(Leveled.class).toByteArray(new Leveled());
+        assertCorrupt(Leveled.class, bytes, bytes.length - 4, 7);
+        assertCorrupt(Leveled.class, bytes, bytes.length - 4, -1);
+    }
+}
@@ -0,0 +1,88 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+import static dev.ckateptb.reflection.ClassFileWriter.Code.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Hidden classes from a non-boot loader always go through the verifier, so defining one is the check.
+class ClassFileWriterTest {
+    private static final String PACKAGE = "dev/ckateptb/reflection/";
+
+    private static Object define(ClassFileWriter writer) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(writer.toByteArray(), true);
+        return lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+    }
+
+    private static void constructor(ClassFileWriter writer) {
+        writer.method(ClassFileWriter.ACC_PUBLIC, "<init>", "()V")
+                .op(ALOAD).op(0)
+                .op(INVOKESPECIAL, writer.methodRef("java/lang/Object", "<init>", "()V"))
+                .op(RETURN)
+                .end(1, 1);
+    }
+
+    @Test
+    void tableswitchWithConstantsAndDefaultThrowPassesVerification() throws Throwable {
+        ClassFileWriter writer = new ClassFileWriter(ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER,
+                PACKAGE + "GeneratedSwitch", "java/lang/Object", "java/util/function/IntUnaryOperator");
+        constructor(writer);
+        int[] values = {-1, 5, 100, 30_000, 1 << 20};
+        ClassFileWriter.Code code = writer.method(ClassFileWriter.ACC_PUBLIC, "applyAsInt", "(I)I");
+        code.load(int.class, 1);
+        int[] slots = code.tableswitch(values.length);
+        for (int i = 0; i < values.length; i++) {
+            int start = code.position();
+            code.push(values[i]).returns(int.class);
+            code.bind(slots, i, start);
+            code.frame(start);
+        }
+        int fallback = code.position();
+        code.frame(fallback);
+        code.bindDefault(slots, fallback);
+        code.throwNew(IllegalArgumentException.class, "out of range");
+        code.end(3, 2);
+
+        IntUnaryOperator operator = (IntUnaryOperator) define(writer);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], operator.applyAsInt(i));
+        }
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> operator.applyAsInt(values.length));
+        assertEquals("out of range", error.getMessage());
+    }
+
+    @Test
+    void boxesAndUnboxesEveryPrimitive() throws Throwable {
+        Class<?>[] primitives = {boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class};
+        Object[] values = {true, (byte) 1, 'c', (short) 2, 3, 4L, 5f, 6d};
+        for (int i = 0; i < primitives.length; i++) {
+            Class<?> primitive = primitives[i];
+            ClassFileWriter writer = new ClassFileWriter(ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER,
+                    PACKAGE + "GeneratedBox" + i, "java/lang/Object", "java/util/function/Function");
+            constructor(writer);
+            writer.method(ClassFileWriter.ACC_PUBLIC, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;")
+                    .op(ALOAD).op(1)
+                    .unbox(primitive)
+                    .box(primitive)
+                    .op(ARETURN)
+                    .end(2, 2);
+            @SuppressWarnings("unchecked")
+            Function<Object, Object> function = (Function<Object, Object>) define(writer);
+            assertEquals(values[i], function.apply(values[i]), primitive.getName());
+        }
+    }
+
+    @Test
+    void describesTypes() {
+        assertEquals("I", ClassFileWriter.descriptor(int.class));
+        assertEquals("[Ljava/lang/String;", ClassFileWriter.descriptor(String[].class));
+        assertEquals("Ljava/util/Map$Entry;", ClassFileWriter.descriptor(java.util.Map.Entry.class));
+        assertEquals("(J[ID)V", ClassFileWriter.methodDescriptor(void.class, long.class, int[].class, double.class));
+        assertEquals("[[J", ClassFileWriter.internalName(long[][].class));
+    }
+}
@@ -0,0 +1,51 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstructorInvokerTest {
+    static class Point {
+        final int x;
+        final int y;
+
+        Point() {
+            this(0, 0);
+        }
+
+        Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    @Test
+    void createsThroughLambdasAndFactory() {
+        ReflectClass<Point> reflectClass = Reflect.classOf(Point.class);
+        Supplier<Point> supplier = reflectClass.getConstructorWithParams().invoker().supplier();
+        assertEquals(0, supplier.get().x);
+        ConstructorInvoker<Point> invoker = reflectClass.getConstructorWithParams(int.class, int.class).invoker();
+        Point point = invoker.<Integer, Integer>biFunction().apply(3, 4);
+        assertEquals(3, point.x);
+        assertEquals(4, point.y);
+        assertEquals(5, invoker.factory().newInstance(5, 6).x);
+        assertThrows(IllegalArgumentException.class, invoker::supplier);
+    }
+
+    @Test
+    void unregisteredPluginClassesGetPlainLambdas() throws Exception {
+        Class<?> plugin = PluginLoaderTest.loadPlugin();
+        ReflectClass<?> reflectClass = Reflect.classOf(plugin);
+        Supplier<?> supplier = reflectClass.getConstructorWithParams().invoker().supplier();
+        Function<Object, ?> function = reflectClass.getConstructorWithParams(int.class).invoker().function();
+        assertFalse(Proxy.isProxyClass(supplier.getClass()));
+        assertFalse(Proxy.isProxyClass(function.getClass()));
+        assertSame(plugin, supplier.get().getClass());
+        Object instance = function.apply(4);
+        assertEquals(7, plugin.getMethod("increment", int.class).invoke(instance, 3));
+    }
+}
@@ -0,0 +1,69 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventDispatcherTest {
+    private static final List<String> calls = new ArrayList<>();
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @interface Handle {
+        int priority() default 0;
+    }
+
+    public static class BaseListener {
+        @Handle
+        public static void onText(String event) {
+            calls.add("static " + event);
+        }
+    }
+
+    public static class ChildListener extends BaseListener {
+    }
+
+    public static class InstanceListener {
+        @Handle(priority = 1)
+        public void late(CharSequence event) {
+            calls.add("late " + event);
+        }
+
+        @Handle(priority = -1)
+        public void early(String event) {
+            calls.add("early " + event);
+        }
+    }
+
+    @Test
+    void dispatchesInPriorityOrder() {
+        calls.clear();
+        EventDispatcher<Handle> dispatcher = new EventDispatcher<>(Handle.class, Handle::priority);
+        InstanceListener listener = new InstanceListener();
+        dispatcher.register(listener);
+        assertEquals(2, dispatcher.dispatch("a"));
+        assertEquals(List.of("early a", "late a"), calls);
+        dispatcher.unregister(listener);
+        assertFalse(dispatcher.hasHandlers(String.class));
+    }
+
+    @Test
+    void unregistersInheritedStaticHandlersByRegisteredClass() {
+        calls.clear();
+        EventDispatcher<Handle> dispatcher = new EventDispatcher<>(Handle.class);
+        dispatcher.register(ChildListener.class);
+        assertEquals(1, dispatcher.dispatch("b"));
+        assertEquals(List.of("static b"), calls);
+        dispatcher.unregister(BaseListener.class);
+        assertTrue(dispatcher.hasHandlers(String.class));
+        dispatcher.unregister(ChildListener.class);
+        assertFalse(dispatcher.hasHandlers(String.class));
+    }
+}
@@ -0,0 +1,124 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JarIndexTest {
+    @TempDir
+    Path directory;
+
+    private static byte[] bytes(Class<?> type) throws IOException {
+        String name = type.getName().substring(type.getPackageName().length() + 1);
+        try (InputStream input = type.getResourceAsStream(name + ".class")) {
+            return input.readAllBytes();
+        }
+    }
+
+    private File jar() throws IOException {
+        File jar = this.directory.resolve("plugin.jar").toFile();
+        byte[] fixture = bytes(PluginFixture.class);
+        try (OutputStream stream = Files.newOutputStream(jar.toPath());
+             JarOutputStream output = new JarOutputStream(stream)) {
+            for (String name : List.of("dev/ckateptb/reflection/PluginFixture.class",
+                    "META-INF/versions/11/dev/ckateptb/reflection/PluginFixture.class", "module-info.class")) {
+                output.putNextEntry(new JarEntry(name));
+                output.write(fixture);
+                output.closeEntry();
+            }
+            output.putNextEntry(new JarEntry("broken/Broken.class"));
+            output.write(new byte[]{1, 2, 3});
+            output.closeEntry();
+        }
+        return jar;
+    }
+
+    private File hierarchyJar() throws IOException {
+        File jar = this.directory.resolve("hierarchy.jar").toFile();
+        try (OutputStream stream = Files.newOutputStream(jar.toPath());
+             JarOutputStream output = new JarOutputStream(stream)) {
+            for (Class<?> type : List.of(EventDispatcherTest.class, EventDispatcherTest.BaseListener.class,
+                    EventDispatcherTest.ChildListener.class, EventDispatcherTest.InstanceListener.class,
+                    BinarySerializerTest.Shape.class, BinarySerializerTest.Circle.class,
+                    ReflectMetricsTest.Base.class, ReflectMetricsTest.Derived.class, JarIndexTest.class)) {
+                output.putNextEntry(new JarEntry(type.getName().replace('.', '/') + ".class"));
+                output.write(bytes(type));
+                output.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static Set<String> names(ReflectJar jar) throws IOException {
+        try (Stream<String> names = jar.classNames()) {
+            return names.collect(Collectors.toSet());
+        }
+    }
+
+    @Test
+    void indexedClassNamesMatchAPlainScan() throws IOException {
+        File jar = this.jar();
+        Set<String> plain = names(Reflect.jarOf(jar));
+        assertEquals(Set.of("dev.ckateptb.reflection.PluginFixture",
+                "META-INF.versions.11.dev.ckateptb.reflection.PluginFixture", "module-info", "broken.Broken"), plain);
+        File indexDirectory = this.directory.resolve("index").toFile();
+        assertEquals(plain, names(Reflect.jarOf(jar).useIndex(indexDirectory)));
+        // The second jar reads the index written by the first one.
+        assertEquals(plain, names(Reflect.jarOf(jar).useIndex(indexDirectory)));
+    }
+
+    @Test
+    void truncatedIndexIsRebuilt() throws IOException {
+        File jar = this.jar();
+        File indexDirectory = this.directory.resolve("index").toFile();
+        Set<String> expected = names(Reflect.jarOf(jar).useIndex(indexDirectory));
+        File[] files = indexDirectory.listFiles();
+        assertNotNull(files);
+        assertEquals(1, files.length);
+        long length = files[0].length();
+        try (RandomAccessFile file = new RandomAccessFile(files[0], "rw")) {
+            file.setLength(length - 5);
+        }
+        assertEquals(expected, names(Reflect.jarOf(jar).useIndex(indexDirectory)));
+        assertEquals(length, files[0].length());
+        assertEquals(Set.of("dev.ckateptb.reflection.PluginFixture"),
+                Reflect.jarOf(jar).useIndex(indexDirectory).getClassFilesCache().keySet());
+    }
+
+    @Test
+    void indexedQueriesMatchAPlainScan() throws IOException {
+        File jar = this.hierarchyJar();
+        File indexDirectory = this.directory.resolve("index").toFile();
+        // Written by the first jar and read back, so the queries below are answered from the mapped file.
+        Reflect.jarOf(jar).useIndex(indexDirectory).getClassFilesCache();
+        ReflectJar indexed = Reflect.jarOf(jar).useIndex(indexDirectory);
+        ReflectJar plain = Reflect.jarOf(jar);
+        assertEquals(Set.of(EventDispatcherTest.ChildListener.class.getName()),
+                indexed.getSubtypeNames(EventDispatcherTest.BaseListener.class));
+        for (Class<?> type : List.of(Object.class, BinarySerializerTest.Shape.class, ReflectMetricsTest.Base.class)) {
+            assertEquals(plain.getSubtypeNames(type), indexed.getSubtypeNames(type));
+        }
+        assertEquals(Set.of(), indexed.getSubtypeNames("missing.Type"));
+        assertEquals(Set.of(EventDispatcherTest.BaseListener.class.getName(),
+                        EventDispatcherTest.InstanceListener.class.getName()),
+                indexed.getClassNamesWithMethodsAnnotated(EventDispatcherTest.Handle.class));
+        assertEquals(plain.getClassNamesWithMethodsAnnotated(Test.class), indexed.getClassNamesWithMethodsAnnotated(Test.class));
+        assertEquals(Set.of(JarIndexTest.class.getName()), indexed.getClassNamesWithFieldsAnnotated(TempDir.class));
+        assertEquals(Set.of(), indexed.getClassNamesAnnotatedWith(TempDir.class));
+    }
+}
@@ -0,0 +1,71 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.function.BiFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToIntBiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodInvokerTest {
+    static class Calculator {
+        private final int base;
+
+        Calculator(int base) {
+            this.base = base;
+        }
+
+        int sum(int a, int b) {
+            return this.base + a + b;
+        }
+
+        static long twice(long value) {
+            return value * 2;
+        }
+    }
+
+    public interface Summer {
+        int sum(Calculator target, int a, int b);
+    }
+
+    private static MethodInvoker<Object> invoker(Class<?> type, String name, Class<?>... parameters) {
+        return Reflect.classOf(type).getMethodByNameAndParams(name, parameters).invoker();
+    }
+
+    @Test
+    void spinsLambdasForInstanceAndStaticMethods() {
+        Summer summer = invoker(Calculator.class, "sum", int.class, int.class).lambda(Summer.class);
+        assertEquals(13, summer.sum(new Calculator(10), 1, 2));
+        LongUnaryOperator twice = invoker(Calculator.class, "twice", long.class).lambda(LongUnaryOperator.class);
+        assertEquals(84L, twice.applyAsLong(42L));
+        assertFalse(Proxy.isProxyClass(summer.getClass()));
+    }
+
+    @Test
+    void rejectsInterfacesThatDoNotTakeTheReceiver() {
+        MethodInvoker<Object> invoker = invoker(Calculator.class, "sum", int.class, int.class);
+        assertThrows(IllegalArgumentException.class, () -> invoker.lambda(BiFunction.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void unregisteredPluginMethodsStillGetPlainLambdas() throws Exception {
+        Class<?> plugin = PluginLoaderTest.loadPlugin();
+        ToIntBiFunction<Object, Object> increment = invoker(plugin, "increment", int.class).lambda(ToIntBiFunction.class);
+        assertFalse(Proxy.isProxyClass(increment.getClass()));
+        assertEquals(7, increment.applyAsInt(plugin.getConstructor(int.class).newInstance(4), 3));
+        assertThrows(ClassCastException.class, () -> increment.applyAsInt("not a plugin", 3));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registeredPluginMethodsGetLambdasSpunNextToThem() throws Exception {
+        Class<?> plugin = PluginLoaderTest.loadPlugin();
+        PluginLoaderTest.register(plugin);
+        ToIntBiFunction<Object, Object> increment = invoker(plugin, "increment", int.class).lambda(ToIntBiFunction.class);
+        assertSame(plugin.getClassLoader(), increment.getClass().getClassLoader());
+        assertEquals(7, increment.applyAsInt(plugin.getConstructor(int.class).newInstance(4), 3));
+    }
+}
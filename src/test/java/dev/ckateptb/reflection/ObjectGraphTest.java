@@ -0,0 +1,164 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectGraphTest {
+    static class Node {
+        String name;
+        Node next;
+        int value;
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+
+    static class Holder {
+        List<Node> nodes = new ArrayList<>();
+        Map<String, Node> byName = new HashMap<>();
+        int[] numbers = {1, 2, 3};
+        AtomicInteger counter = new AtomicInteger(5);
+        StringBuilder text = new StringBuilder("abc");
+        Date date = new Date(1000);
+    }
+
+    record Entry(String key, List<Node> nodes, int[] counts) {
+    }
+
+    record Pair(Entry first, Entry second) {
+    }
+
+    static class Registry {
+        Pair pair;
+        Entry entry;
+    }
+
+    private static Holder holder() {
+        Holder holder = new Holder();
+        Node first = new Node("first");
+        Node second = new Node("second");
+        first.next = second;
+        second.next = first;
+        holder.nodes.add(first);
+        holder.nodes.add(second);
+        holder.byName.put("first", first);
+        return holder;
+    }
+
+    @Test
+    void cloneKeepsSharingAndCycles() {
+        Holder original = holder();
+        Holder copy = ObjectGraph.deepClone(original);
+        assertNotSame(original, copy);
+        assertNotSame(original.nodes.get(0), copy.nodes.get(0));
+        assertSame(copy.nodes.get(0), copy.byName.get("first"));
+        assertSame(copy.nodes.get(0), copy.nodes.get(1).next);
+        assertNotSame(original.numbers, copy.numbers);
+        assertTrue(ObjectGraph.diff(original, copy).isEmpty());
+    }
+
+    @Test
+    void cloneCopiesMutableJdkValues() {
+        Holder original = holder();
+        Holder copy = ObjectGraph.deepClone(original);
+        assertNotSame(original.counter, copy.counter);
+        assertNotSame(original.text, copy.text);
+        assertNotSame(original.date, copy.date);
+        copy.counter.incrementAndGet();
+        copy.text.append('d');
+        copy.date.setTime(2000);
+        assertEquals(5, original.counter.get());
+        assertEquals("abc", original.text.toString());
+        assertEquals(1000, original.date.getTime());
+        assertEquals(Set.of("$.counter", "$.text", "$.date"),
+                ObjectGraph.diff(original, copy).stream().map(ObjectGraph.Difference::getPath)
+                        .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void diffReportsPaths() {
+        Holder original = holder();
+        Holder copy = ObjectGraph.deepClone(original);
+        copy.nodes.get(1).value = 7;
+        copy.numbers[2] = 4;
+        // The second node is first reached through the first node's next field.
+        List<ObjectGraph.Difference> differences = ObjectGraph.diff(original, copy);
+        assertEquals(List.of("$.nodes[0].next.value", "$.numbers[2]"),
+                differences.stream().map(ObjectGraph.Difference::getPath).sorted().collect(Collectors.toList()));
+    }
+
+    // A self-loop on the left against a cycle of a different length on the right pairs one left node
+    // with several right nodes; tracking only the left side never terminated.
+    @Test
+    @Timeout(value = 10, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void diffTerminatesOnCyclesOfDifferentLengths() {
+        Node a = new Node("n");
+        a.next = a;
+        Node b0 = new Node("n");
+        Node b1 = new Node("n");
+        Node b2 = new Node("n");
+        b0.next = b1;
+        b1.next = b2;
+        b2.next = b1;
+        assertTrue(ObjectGraph.diff(a, b0).isEmpty());
+        b2.value = 1;
+        assertFalse(ObjectGraph.diff(a, b0).isEmpty());
+    }
+
+    @Test
+    void parallelWalkVisitsEveryObjectOnce() {
+        Node head = new Node("0");
+        Node tail = head;
+        for (int i = 1; i < 2000; i++) {
+            tail.next = new Node(String.valueOf(i));
+            tail = tail.next;
+        }
+        tail.next = head;
+        Set<Object> visited = ConcurrentHashMap.newKeySet();
+        AtomicInteger count = new AtomicInteger();
+        ObjectGraph.walk(head, object -> {
+            count.incrementAndGet();
+            visited.add(object);
+        }, ForkJoinPool.commonPool());
+        assertEquals(4000, count.get());
+        assertEquals(ObjectGraph.retainedSize(head), ObjectGraph.retainedSize(head, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    void cloneRebuildsRecordsThroughTheirCanonicalConstructor() {
+        Node node = new Node("node");
+        Entry entry = new Entry("key", new ArrayList<>(List.of(node)), new int[]{1});
+        Registry original = new Registry();
+        original.entry = entry;
+        original.pair = new Pair(entry, new Entry("other", new ArrayList<>(), new int[0]));
+        node.next = node;
+        Registry copy = ObjectGraph.deepClone(original);
+        assertNotSame(original.entry, copy.entry);
+        assertNotSame(original.entry.nodes(), copy.entry.nodes());
+        assertNotSame(original.entry.counts(), copy.entry.counts());
+        assertNotSame(node, copy.entry.nodes().get(0));
+        assertSame(copy.entry.nodes().get(0), copy.entry.nodes().get(0).next);
+        assertSame(copy.entry, copy.pair.first());
+        assertTrue(ObjectGraph.diff(original, copy).isEmpty());
+        copy.entry.nodes().add(new Node("added"));
+        copy.entry.counts()[0] = 2;
+        assertEquals(1, original.entry.nodes().size());
+        assertEquals(List.of("$.pair.first.nodes.size", "$.pair.first.counts[0]"),
+                ObjectGraph.diff(original, copy).stream().map(ObjectGraph.Difference::getPath).collect(Collectors.toList()));
+        assertTrue(ObjectGraph.retainedSize(original) > ObjectGraph.retainedSize(original.pair.second()));
+    }
+}
@@ -0,0 +1,28 @@
+package dev.ckateptb.reflection;
+
+import java.lang.invoke.MethodHandles;
+
+// Loaded again through an isolated class loader to play the part of a plugin class; it may only depend
+// on java.base.
+public class PluginFixture {
+    private int counter;
+
+    public PluginFixture() {
+    }
+
+    public PluginFixture(int counter) {
+        this.counter = counter;
+    }
+
+    public static MethodHandles.Lookup lookup() {
+        return MethodHandles.lookup();
+    }
+
+    public int increment(int delta) {
+        return this.counter += delta;
+    }
+
+    private String describe() {
+        return "counter=" + this.counter;
+    }
+}
@@ -0,0 +1,73 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginLoaderTest {
+    // Child-first for the fixture only, like a plugin loader that delegates the library to the server.
+    static Class<?> loadPlugin() throws Exception {
+        URL location = PluginFixture.class.getProtectionDomain().getCodeSource().getLocation();
+        ClassLoader loader = new URLClassLoader(new URL[]{location}, PluginLoaderTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (!name.equals(PluginFixture.class.getName())) {
+                    return super.loadClass(name, resolve);
+                }
+                synchronized (this.getClassLoadingLock(name)) {
+                    Class<?> loaded = this.findLoadedClass(name);
+                    return loaded != null ? loaded : this.findClass(name);
+                }
+            }
+        };
+        Class<?> plugin = Class.forName(PluginFixture.class.getName(), true, loader);
+        assertNotSame(PluginFixture.class, plugin);
+        assertNotSame(PluginLoaderTest.class.getModule(), plugin.getModule());
+        return plugin;
+    }
+
+    static void register(Class<?> plugin) throws Exception {
+        Reflect.registerLookup((MethodHandles.Lookup) plugin.getMethod("lookup").invoke(null));
+    }
+
+    @Test
+    void unregisteredPluginClassesHaveNoGeneratedAccessor() throws Exception {
+        Class<?> plugin = loadPlugin();
+        assertFalse(Reflect.classOf(plugin).accessor().isAvailable());
+        assertNull(Reflect.classOf(plugin).getGeneratedAccessor());
+    }
+
+    @Test
+    void registeredLookupEnablesGeneratedAccessor() throws Exception {
+        Class<?> plugin = loadPlugin();
+        register(plugin);
+        ReflectClass<?> reflectClass = Reflect.classOf(plugin);
+        assertTrue(reflectClass.accessor().isAvailable());
+        Object instance = plugin.getConstructor(int.class).newInstance(5);
+        ReflectMethod increment = reflectClass.getMethodByNameAndParams("increment", int.class);
+        int index = reflectClass.methodList().indexOf(increment);
+        assertEquals(8, reflectClass.getGeneratedAccessor().invoke(index, instance, new Object[]{3}));
+        ReflectMethod describe = reflectClass.getMethodByNameAndParams("describe");
+        assertEquals("counter=8", reflectClass.getGeneratedAccessor()
+                .invoke(reflectClass.methodList().indexOf(describe), instance, new Object[0]));
+    }
+
+    @Test
+    void isolatedLoadersThatCannotSeeTheLibraryStayOnReflection() throws Exception {
+        URL location = PluginFixture.class.getProtectionDomain().getCodeSource().getLocation();
+        Class<?> plugin = Class.forName(PluginFixture.class.getName(), true, new URLClassLoader(new URL[]{location}, null));
+        register(plugin);
+        assertFalse(Reflect.classOf(plugin).accessor().isAvailable());
+    }
+
+    @Test
+    void rejectsLookupsWithoutFullPrivilege() {
+        assertThrows(IllegalArgumentException.class, () -> Reflect.registerLookup(MethodHandles.publicLookup()));
+        assertThrows(IllegalArgumentException.class,
+                () -> Reflect.registerLookup(MethodHandles.lookup().dropLookupMode(MethodHandles.Lookup.MODULE)));
+    }
+}
@@ -0,0 +1,102 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProxyGeneratorTest {
+    static class Duck {
+        private final String sound;
+
+        Duck(String sound) {
+            this.sound = sound;
+        }
+
+        String quack() {
+            return this.sound;
+        }
+
+        long legs() {
+            return 2;
+        }
+
+        static int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    public interface Quacker {
+        String quack();
+
+        Long legs();
+
+        int wings();
+
+        default String twice() {
+            return this.quack() + this.quack();
+        }
+    }
+
+    public interface Adder {
+        int add(int a, int b);
+    }
+
+    public interface Named {
+        String getName();
+
+        void setName(String name);
+    }
+
+    public interface Counter {
+        int increment(int delta);
+    }
+
+    @Test
+    void generatesDuckTypedImplementations() {
+        Quacker quacker = Reflect.on(new Duck("quack")).as(Quacker.class);
+        assertFalse(Proxy.isProxyClass(quacker.getClass()));
+        assertEquals("quack", quacker.quack());
+        assertEquals(2L, quacker.legs());
+        assertEquals("quackquack", quacker.twice());
+        assertThrows(UnsupportedOperationException.class, quacker::wings);
+        assertSame(quacker.getClass(), Reflect.on(new Duck("honk")).as(Quacker.class).getClass());
+    }
+
+    @Test
+    void bindsStaticMethodsOfAClass() {
+        Adder adder = Reflect.on(Duck.class).as(Adder.class);
+        assertFalse(Proxy.isProxyClass(adder.getClass()));
+        assertEquals(5, adder.add(2, 3));
+    }
+
+    @Test
+    void readsAndWritesMapEntriesThroughAccessors() {
+        Map<String, Object> map = new HashMap<>();
+        Named named = Reflect.on(map).as(Named.class);
+        named.setName("map");
+        assertEquals("map", map.get("name"));
+        assertEquals("map", named.getName());
+    }
+
+    @Test
+    void unregisteredPluginTargetsFallBackToAProxy() throws Exception {
+        Class<?> plugin = PluginLoaderTest.loadPlugin();
+        Counter counter = Reflect.on(plugin.getConstructor(int.class).newInstance(1)).as(Counter.class);
+        assertTrue(Proxy.isProxyClass(counter.getClass()));
+        assertEquals(3, counter.increment(2));
+    }
+
+    @Test
+    void registeredPluginTargetsGetGeneratedProxies() throws Exception {
+        Class<?> plugin = PluginLoaderTest.loadPlugin();
+        PluginLoaderTest.register(plugin);
+        Counter counter = Reflect.on(plugin.getConstructor(int.class).newInstance(1)).as(Counter.class);
+        assertFalse(Proxy.isProxyClass(counter.getClass()));
+        assertSame(plugin.getClassLoader(), counter.getClass().getClassLoader());
+        assertEquals(3, counter.increment(2));
+    }
+}
@@ -0,0 +1,125 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Every backend, and ADAPTIVE on both sides of its promotion, must fail with the exceptions of java.lang.reflect.
+class ReflectBackendTest {
+    private static final int CALLS = 6;
+
+    @SuppressWarnings("unused")
+    static class Target {
+        private long total;
+        private final String name = "target";
+        private Object any;
+
+        Target() {
+        }
+
+        Target(boolean fail) {
+            if (fail) throw new IllegalStateException("constructor");
+        }
+
+        long add(long value) {
+            return this.total += value;
+        }
+
+        void fail() {
+            throw new IllegalStateException("method");
+        }
+
+        String cast(Object value) {
+            return (String) value;
+        }
+    }
+
+    @BeforeEach
+    void threshold() {
+        Reflect.adaptiveThreshold(3);
+    }
+
+    @AfterEach
+    void restore() {
+        Reflect.backend(ReflectBackend.REFLECTION);
+        Reflect.adaptiveThreshold(1000);
+    }
+
+    private static <T extends Throwable> void repeat(Class<T> type, Executable executable) {
+        for (int i = 0; i < CALLS; i++) {
+            assertThrows(type, executable, "call " + i);
+        }
+    }
+
+    private static void wrapped(Class<? extends Throwable> cause, Executable executable) {
+        for (int i = 0; i < CALLS; i++) {
+            InvocationTargetException error = assertThrows(InvocationTargetException.class, executable, "call " + i);
+            assertInstanceOf(cause, error.getCause());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReflectBackend.class)
+    void methodsFailLikeMethodInvoke(ReflectBackend backend) {
+        Reflect.backend(backend);
+        ReflectClass<Target> reflectClass = Reflect.classOf(Target.class);
+        ReflectMethod add = reflectClass.getMethodByNameAndParams("add", long.class);
+        ReflectMethod fail = reflectClass.getMethodByNameAndParams("fail");
+        ReflectMethod cast = reflectClass.getMethodByNameAndParams("cast", Object.class);
+        Target target = new Target();
+        for (int i = 0; i < CALLS; i++) {
+            assertEquals(i + 1L, add.call(target, 1));
+        }
+        wrapped(IllegalStateException.class, () -> fail.call(target));
+        wrapped(ClassCastException.class, () -> cast.call(target, 1));
+        repeat(IllegalArgumentException.class, () -> add.call(target, "one"));
+        repeat(IllegalArgumentException.class, () -> add.call(target, 1.5));
+        repeat(IllegalArgumentException.class, () -> add.call(target, (Object) null));
+        repeat(IllegalArgumentException.class, () -> add.call(target));
+        repeat(IllegalArgumentException.class, () -> add.call("not a target", 1L));
+        repeat(NullPointerException.class, () -> add.call(null, 1L));
+        repeat(IllegalArgumentException.class, () -> add.callEach(new Object[]{target, "not a target"}, 1L));
+        wrapped(IllegalStateException.class, () -> fail.callEach(new Object[]{target}));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReflectBackend.class)
+    void constructorsFailLikeConstructorNewInstance(ReflectBackend backend) {
+        Reflect.backend(backend);
+        ReflectConstructor<Target> constructor = Reflect.classOf(Target.class).getConstructorWithParams(boolean.class);
+        for (int i = 0; i < CALLS; i++) {
+            assertNotNull(constructor.instantiate(false));
+        }
+        wrapped(IllegalStateException.class, () -> constructor.instantiate(true));
+        repeat(IllegalArgumentException.class, () -> constructor.instantiate("yes"));
+        repeat(IllegalArgumentException.class, () -> constructor.instantiate());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReflectBackend.class)
+    void fieldsFailLikeFieldGetAndSet(ReflectBackend backend) {
+        Reflect.backend(backend);
+        ReflectClass<Target> reflectClass = Reflect.classOf(Target.class);
+        ReflectField total = reflectClass.getFieldByName("total");
+        ReflectField name = reflectClass.getFieldByName("name");
+        ReflectField any = reflectClass.getFieldByName("any");
+        Target target = new Target();
+        for (int i = 0; i < CALLS; i++) {
+            total.setValue(target, i);
+            assertEquals((long) i, total.getValue(target));
+            assertEquals("target", name.getValue(target));
+            any.setValue(target, i);
+        }
+        repeat(IllegalArgumentException.class, () -> total.setValue(target, "one"));
+        repeat(IllegalArgumentException.class, () -> total.setValue(target, null));
+        repeat(IllegalArgumentException.class, () -> total.getValue("not a target"));
+        repeat(IllegalArgumentException.class, () -> total.setValue("not a target", 1L));
+        repeat(NullPointerException.class, () -> total.getValue(null));
+    }
+}
@@ -0,0 +1,67 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReflectFieldTest {
+    static class Entity {
+        int health;
+        String name;
+        final String id;
+
+        Entity(String id) {
+            this.id = id;
+        }
+    }
+
+    private static Entity[] entities(int count) {
+        Entity[] entities = new Entity[count];
+        for (int i = 0; i < count; i++) {
+            entities[i] = new Entity("id" + i);
+        }
+        return entities;
+    }
+
+    @Test
+    void setsOneValuePerTarget() {
+        ReflectField name = Reflect.classOf(Entity.class).getFieldByName("name");
+        Entity[] entities = entities(3);
+        name.setValues(entities, new Object[]{"a", "b", "c"});
+        assertArrayEquals(new Object[]{"a", "b", "c"}, name.getValues(entities));
+        name.setValues(entities, new Object[]{"x", "y", "z"}, ForkJoinPool.commonPool());
+        assertArrayEquals(new Object[]{"x", "y", "z"}, name.getValues(entities, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    void writesFinalFieldsThroughTheReflectivePath() {
+        ReflectField id = Reflect.classOf(Entity.class).getFieldByName("id");
+        Entity[] entities = entities(2);
+        id.setValues(entities, new Object[]{"first", "second"});
+        assertEquals("first", entities[0].id);
+        assertEquals("second", entities[1].id);
+    }
+
+    @Test
+    void rejectsMismatchedLengths() {
+        ReflectClass<Entity> reflectClass = Reflect.classOf(Entity.class);
+        Entity[] entities = entities(2);
+        assertThrows(IllegalArgumentException.class,
+                () -> reflectClass.getFieldByName("name").setValues(entities, new Object[]{"only"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> reflectClass.getFieldByName("name").setValues(entities, new Object[3], ForkJoinPool.commonPool()));
+        assertThrows(IllegalArgumentException.class,
+                () -> reflectClass.getFieldByName("health").setInts(entities, new int[]{1}));
+    }
+
+    @Test
+    void readsAndWritesPrimitiveBatches() {
+        ReflectField health = Reflect.classOf(Entity.class).getFieldByName("health");
+        Entity[] entities = entities(4);
+        health.setInts(entities, new int[]{1, 2, 3, 4}, ForkJoinPool.commonPool());
+        assertArrayEquals(new int[]{1, 2, 3, 4}, health.getInts(entities));
+        assertArrayEquals(new long[]{1, 2, 3, 4}, health.getLongs(entities, ForkJoinPool.commonPool()));
+    }
+}
@@ -0,0 +1,84 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReflectIndexTest {
+    private static final String OWNER = IndexedFixture.class.getName();
+    private static final String MARK = Mark.class.getName();
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Mark {
+    }
+
+    static class IndexedFixture {
+        @Mark
+        int count;
+
+        @Mark
+        IndexedFixture(int count, String[] names) {
+        }
+
+        @Mark
+        void run(long value) {
+        }
+
+        class Inner {
+            @Mark
+            Inner(String name) {
+            }
+        }
+    }
+
+    private static ReflectIndex parse(String... lines) throws IOException {
+        String text = String.join("\n", lines);
+        return ReflectIndex.parse(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), "test-index");
+    }
+
+    @Test
+    void resolvesIndexedMembers() throws IOException {
+        ClassLoader loader = ReflectIndexTest.class.getClassLoader();
+        ReflectIndex index = parse("# dev.ckateptb.reflection index 2",
+                "F\t" + OWNER + "\tcount\t" + MARK,
+                "M\t" + OWNER + "\trun\tlong\t" + MARK,
+                "K\t" + OWNER + "\tint,[Ljava.lang.String;\t" + MARK,
+                "K\t" + OWNER + "$Inner\t" + OWNER + ",java.lang.String\t" + MARK);
+        assertEquals(List.of("count"), index.getFieldsAnnotatedWith(loader, Mark.class).stream()
+                .map(ReflectField::getName).collect(Collectors.toList()));
+        assertEquals(List.of("run"), index.getMethodsAnnotatedWith(loader, Mark.class).stream()
+                .map(ReflectMethod::getName).collect(Collectors.toList()));
+        assertEquals(Set.of(OWNER, OWNER + "$Inner"), index.getClassNamesWithConstructorsAnnotated(Mark.class));
+        List<ReflectConstructor<?>> constructors = index.getConstructorsAnnotatedWith(loader, Mark.class);
+        assertEquals(2, constructors.size());
+        assertEquals(IndexedFixture.Inner.class, constructors.get(1).getDeclaringClass());
+    }
+
+    @Test
+    void skipsMembersOfAStaleIndex() throws IOException {
+        ClassLoader loader = ReflectIndexTest.class.getClassLoader();
+        ReflectIndex index = parse("F\t" + OWNER + "\trenamed\t" + MARK,
+                "M\t" + OWNER + "\trun\tint\t" + MARK,
+                "K\t" + OWNER + "\t\t" + MARK);
+        assertTrue(index.getFieldsAnnotatedWith(loader, Mark.class).isEmpty());
+        assertTrue(index.getMethodsAnnotatedWith(loader, Mark.class).isEmpty());
+        assertTrue(index.getConstructorsAnnotatedWith(loader, Mark.class).isEmpty());
+    }
+
+    @Test
+    void reportsTheLineOfAMalformedRecord() {
+        for (String record : new String[]{"F\t" + OWNER + "\tcount", "M\t" + OWNER, "C", "X\tunknown", "K\t" + OWNER}) {
+            IOException error = assertThrows(IOException.class, () -> parse("# header", "C\t" + OWNER + "\t" + MARK, record));
+            assertTrue(error.getMessage().contains("test-index:3"), error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReflectMetricsTest {
+    static class Base {
+        int value;
+
+        int next() {
+            return ++this.value;
+        }
+    }
+
+    static class Derived extends Base {
+    }
+
+    private static List<MemberMetrics.Snapshot> snapshots(String member) {
+        return ReflectMetrics.snapshot().getMembers().stream()
+                .filter(snapshot -> snapshot.getMember().contains(member))
+                .collect(Collectors.toList());
+    }
+
+    @AfterEach
+    void disable() {
+        ReflectMetrics.disable();
+        ReflectMetrics.reset();
+    }
+
+    @Test
+    void resetDropsTrackedMembers() {
+        ReflectMetrics.enable();
+        ReflectMethod next = Reflect.classOf(Base.class).getMethodByNameAndParams("next");
+        Base base = new Base();
+        next.call(base);
+        next.call(base);
+        assertEquals(2, snapshots("Base.next").get(0).getCount());
+        MemberMetrics before = next.metrics();
+
+        ReflectMetrics.reset();
+        assertTrue(snapshots("Base.next").isEmpty());
+        next.call(base);
+        assertNotSame(before, next.metrics());
+        assertEquals(1, snapshots("Base.next").get(0).getCount());
+    }
+
+    @Test
+    void mergesInheritedMembersCalledThroughSubclasses() {
+        ReflectMetrics.enable();
+        Derived derived = new Derived();
+        Reflect.classOf(Base.class).getMethodByNameAndParams("next").call(derived);
+        Reflect.classOf(Derived.class).getMethodByNameAndParams("next").call(derived);
+        Reflect.classOf(Derived.class).getFieldByName("value").getValue(derived);
+        List<MemberMetrics.Snapshot> snapshots = snapshots("Base.next");
+        assertEquals(1, snapshots.size());
+        assertEquals(2, snapshots.get(0).getCount());
+        assertEquals(1, snapshots("Base.value").size());
+    }
+
+    @Test
+    void recordsNothingWhileDisabled() {
+        ReflectMethod next = Reflect.classOf(Base.class).getMethodByNameAndParams("next");
+        next.call(new Base());
+        assertTrue(snapshots("Base.next").isEmpty());
+    }
+}
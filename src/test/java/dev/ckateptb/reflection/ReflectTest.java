@@ -0,0 +1,76 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReflectTest {
+    static class Counter {
+        int count;
+        String label = "first";
+
+        int increment() {
+            return ++this.count;
+        }
+
+        String increment(String suffix) {
+            return this.label += suffix;
+        }
+    }
+
+    @Test
+    void fieldsSnapshotValuesEagerly() {
+        Counter counter = new Counter();
+        Collection<Reflect.FieldReflect<?>> fields = Reflect.on(counter).fields();
+        assertTrue(fields instanceof Set);
+        counter.label = "second";
+        Reflect.FieldReflect<?> label = fields.stream()
+                .filter(field -> field.getField().getName().equals("label")).findFirst().orElseThrow();
+        assertEquals("first", label.get());
+    }
+
+    @Test
+    void lazyFieldsReadOnGetInDeclarationOrder() {
+        Counter counter = new Counter();
+        List<Reflect.FieldReflect<?>> fields = new ArrayList<>(Reflect.on(counter).lazyFields());
+        assertEquals("count", fields.get(0).getField().getName());
+        assertEquals("label", fields.get(1).getField().getName());
+        counter.label = "second";
+        assertEquals("second", fields.get(1).get());
+        counter.label = null;
+        assertFalse(fields.get(1).isPresent());
+    }
+
+    @Test
+    void lazyFieldViewsAreKeptPerList() {
+        Collection<Reflect.FieldReflect<?>> fields = Reflect.on(new Counter()).lazyFields();
+        List<Reflect.FieldReflect<?>> first = new ArrayList<>(fields);
+        List<Reflect.FieldReflect<?>> second = new ArrayList<>(fields);
+        for (int i = 0; i < first.size(); i++) {
+            assertSame(first.get(i), second.get(i));
+        }
+    }
+
+    @Test
+    void unboundQueriesShareTheirLists() {
+        Reflect<Counter> reflect = Reflect.on(Counter.class);
+        assertSame(reflect.methods(), Reflect.on(Counter.class).methods());
+        assertSame(reflect.methods("increment"), reflect.methods("increment"));
+        assertSame(reflect.methods(int.class, "increment"), reflect.methods(int.class, "increment"));
+        assertSame(reflect.lazyFields(), reflect.lazyFields());
+        assertSame(reflect.constructors(), reflect.constructors());
+        assertEquals(1, reflect.methods(int.class, "increment").size());
+        assertEquals(int.class, reflect.method(int.class, "increment").getMethod().getReturnType());
+        assertEquals(String.class, reflect.method(String.class, "increment").getMethod().getReturnType());
+        assertNull(reflect.method(long.class, "increment"));
+        // Bound lists read their own instance, so they are not shared.
+        Counter counter = new Counter();
+        assertNotSame(Reflect.on(counter).lazyFields(), Reflect.on(counter).lazyFields());
+        assertEquals(1, Reflect.on(counter).method(int.class, "increment").call().get());
+    }
+}
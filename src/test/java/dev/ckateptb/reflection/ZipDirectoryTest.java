@@ -0,0 +1,63 @@
+package dev.ckateptb.reflection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipDirectoryTest {
+    @TempDir
+    Path directory;
+
+    private File jar(String comment) throws IOException {
+        File jar = this.directory.resolve("archive.jar").toFile();
+        try (OutputStream stream = Files.newOutputStream(jar.toPath());
+             JarOutputStream output = new JarOutputStream(stream)) {
+            output.setComment(comment);
+            for (String name : List.of("a/", "a/First.class", "a/Résumé.class", "a/resource.txt", ".class")) {
+                JarEntry entry = new JarEntry(name);
+                entry.setComment("entry " + name);
+                entry.setExtra(new byte[]{(byte) 0xCA, (byte) 0xFE, 0, 0});
+                output.putNextEntry(entry);
+                output.write(name.getBytes());
+                output.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    @Test
+    void listsClassEntriesFromTheCentralDirectory() throws IOException {
+        ZipDirectory zip = ZipDirectory.open(this.jar("archive comment"));
+        assertNotNull(zip);
+        assertEquals(5, zip.size());
+        assertEquals(List.of("a.First", "a.Résumé"), zip.classNames().collect(Collectors.toList()));
+        assertEquals("a/resource.txt", zip.name(3));
+        assertFalse(zip.isClass(0));
+        assertFalse(zip.isClass(4));
+    }
+
+    @Test
+    void rejectsWhatItCannotRead() throws IOException {
+        File text = this.directory.resolve("plain.txt").toFile();
+        Files.writeString(text.toPath(), "not an archive, but long enough to hold an end record");
+        assertNull(ZipDirectory.open(text));
+        assertNull(ZipDirectory.open(this.directory.toFile()));
+        File jar = this.jar("");
+        byte[] bytes = Files.readAllBytes(jar.toPath());
+        File truncated = this.directory.resolve("truncated.jar").toFile();
+        Files.write(truncated.toPath(), Arrays.copyOfRange(bytes, bytes.length / 2, bytes.length));
+        assertNull(ZipDirectory.open(truncated));
+    }
+}